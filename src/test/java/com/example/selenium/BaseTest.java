@@ -1,83 +1,120 @@
 package com.example.selenium;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.junit.jupiter.api.AfterEach;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.example.selenium.driver.Browser;
+import com.example.selenium.driver.DriverPool;
+import com.example.selenium.driver.DriverScope;
+import com.example.selenium.driver.DriverSession;
+import com.example.selenium.extensions.FailureArtifactsExtension;
+import com.example.selenium.extensions.RerunExtension;
+import com.example.selenium.extensions.TestOutcomeExtension;
+import com.example.selenium.matrix.BrowserMatrix;
+import com.example.selenium.sharding.DurationHistory;
+import com.example.selenium.support.CurrentTest;
+
 import java.time.Duration;
 
 /**
  * Base test class with common setup and teardown methods.
  * Extend this class to create your Selenium tests.
+ *
+ * Browser sessions come from the shared {@link DriverPool}, so a test usually gets a
+ * warm browser that was reset after the previous test instead of a freshly started one.
+ * The session is bound to the test's thread through {@link DriverScope}, which keeps
+ * tests isolated from each other when JUnit runs them in parallel.
+ *
+ * Driver binaries are resolved lazily by {@link com.example.selenium.driver.DriverBinaries}
+ * when the first session of a browser starts. When a test fails, a screenshot, the DOM and the
+ * browser log are saved by the {@link FailureArtifactsExtension}, and the {@link RerunExtension}
+ * queues the test for a rerun on a warm session at the end of the run.
  */
+@ExtendWith({TestOutcomeExtension.class, FailureArtifactsExtension.class, RerunExtension.class})
 public class BaseTest {
     
-    protected WebDriver driver;
-    protected WebDriverWait wait;
-    
     // Default wait time in seconds
     protected static final int DEFAULT_WAIT_TIME = 10;
-    
-    /**
-     * Sets up WebDriverManager for all tests
-     */
-    @BeforeAll
-    public static void setupClass() {
-        // Setup WebDriverManager for common browsers
-        WebDriverManager.chromedriver().setup();
-        WebDriverManager.firefoxdriver().setup();
-    }
+
+    // When setup started, for the duration history used to plan shards
+    private long startNanos;
     
     /**
      * Sets up the WebDriver instance before each test
      */
     @BeforeEach
     public void setup() {
-        // By default, use Chrome. Can be overridden in subclasses
-        setupChromeDriver();
+        startNanos = System.nanoTime();
+        // By default, use Chrome (or -Dselenium.browser, or the browser of a matrix run). Can be overridden in subclasses
+        Browser browser = BrowserMatrix.currentBrowser();
+        if (browser == Browser.FIREFOX) {
+            setupFirefoxDriver();
+        } else if (browser == Browser.CHROME) {
+            setupChromeDriver();
+        } else {
+            useSession(browser);
+        }
     }
     
     /**
-     * Tears down the WebDriver instance after each test
+     * Returns the WebDriver session to the pool after each test and records how long the test took.
+     * Sessions used by a failed test are quit instead of reused.
      */
     @AfterEach
     public void teardown() {
-        if (driver != null) {
-            driver.quit();
-            driver = null;
+        if (DriverScope.isBound()) {
+            boolean testFailed = DriverScope.isTestFailed();
+            DriverSession session = DriverScope.unbind();
+            DriverPool.getInstance().release(session, testFailed);
+        }
+        if (startNanos != 0) {
+            DurationHistory.record(CurrentTest.get(), System.nanoTime() - startNanos);
         }
     }
     
     /**
-     * Sets up Chrome WebDriver with default options
+     * Gets the WebDriver of the running test
+     *
+     * @return the WebDriver bound to the current thread
+     */
+    protected WebDriver getDriver() {
+        return DriverScope.driver();
+    }
+    
+    /**
+     * Gets the default WebDriverWait of the running test
+     *
+     * @return the WebDriverWait bound to the current thread
+     */
+    protected WebDriverWait getWait() {
+        return DriverScope.await();
+    }
+    
+    /**
+     * Sets up a Chrome WebDriver session from the pool
      */
     protected void setupChromeDriver() {
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--start-maximized");
-        options.addArguments("--disable-notifications");
-        options.addArguments("--disable-extensions");
-        
-        driver = new ChromeDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_WAIT_TIME));
+        useSession(Browser.CHROME);
     }
     
     /**
-     * Sets up Firefox WebDriver with default options
+     * Sets up a Firefox WebDriver session from the pool
      */
     protected void setupFirefoxDriver() {
-        FirefoxOptions options = new FirefoxOptions();
-        options.addArguments("-width=1920");
-        options.addArguments("-height=1080");
-        
-        driver = new FirefoxDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_WAIT_TIME));
+        useSession(Browser.FIREFOX);
+    }
+    
+    /**
+     * Checks out a pooled session for the given browser
+     *
+     * @param browser the browser to run the test on
+     */
+    private void useSession(Browser browser) {
+        DriverSession session = DriverPool.getInstance().checkout(browser, getClass().getName());
+        DriverScope.bind(session, Duration.ofSeconds(DEFAULT_WAIT_TIME));
     }
     
     /**
@@ -86,7 +123,7 @@ public class BaseTest {
      * @param url the URL to navigate to
      */
     protected void navigateTo(String url) {
-        driver.get(url);
+        getDriver().get(url);
     }
     
     /**
@@ -96,6 +133,6 @@ public class BaseTest {
      * @return a new WebDriverWait instance
      */
     protected WebDriverWait createWait(int timeoutInSeconds) {
-        return new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+        return new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutInSeconds));
     }
 } 
\ No newline at end of file
@@ -20,7 +20,7 @@ public class WikipediaTest extends BaseTest {
      * @return initialized WikipediaHomePage
      */
     private WikipediaHomePage getWikipediaHomePage() {
-        WikipediaHomePage homePage = new WikipediaHomePage(driver, wait);
+        WikipediaHomePage homePage = new WikipediaHomePage(getDriver(), getWait());
         homePage.goTo();
         return homePage;
     }
@@ -45,7 +45,7 @@ public class WikipediaTest extends BaseTest {
     public void testWikipediaExactMatchSearch() {
         // Create an instance of the WikipediaHomePage and WikipediaArticlePage
         WikipediaHomePage homePage = getWikipediaHomePage();
-        WikipediaArticlePage articlePage = new WikipediaArticlePage(driver, wait);
+        WikipediaArticlePage articlePage = new WikipediaArticlePage(getDriver(), getWait());
 
         // Click and enter text into search input
         homePage.enterSearchTerm(TestConstants.Search.SELENIUM_SOFTWARE);
@@ -60,6 +60,7 @@ public class WikipediaTest extends BaseTest {
 
         // select result
         searchResults.click();
+        articlePage.waitUntilReady();
 
         // verify correct article is displayed
         articlePage.verifyUrl(TestConstants.Urls.SELENIUM_SOFTWARE_ARTICLE);
@@ -67,6 +68,19 @@ public class WikipediaTest extends BaseTest {
         articlePage.verifyPageTitleText(TestConstants.Search.SELENIUM_SOFTWARE);
     }
 
+    /**
+     * Tests the URL, title element and document title of an article, read together
+     */
+    @Test
+    public void testWikipediaArticleWithPipelinedChecks() {
+        navigateTo(TestConstants.Urls.SELENIUM_SOFTWARE_ARTICLE);
+        WikipediaArticlePage articlePage = new WikipediaArticlePage(getDriver(), getWait());
+        articlePage.waitUntilReady();
+
+        articlePage.verifyArticle(TestConstants.Urls.SELENIUM_SOFTWARE_ARTICLE,
+            TestConstants.Search.SELENIUM_SOFTWARE, TestConstants.Text.SELENIUM_SOFTWARE_TITLE);
+    }
+
     /**
      * Tests that search suggestions match the search criteria
      */
@@ -84,13 +98,14 @@ public class WikipediaTest extends BaseTest {
     }
     
     /**
-     * Tests changing the Wikipedia language to Spanish
+     * Tests changing the Wikipedia language to Spanish through the language list.
+     * This test covers the flow itself, so it keeps the UI path.
      */
     @Test
     public void testChangeLanguageToSpanish() {
         // Create an instance of the WikipediaHomePage
         WikipediaHomePage homePage = getWikipediaHomePage();
-        WikipediaArticlePage articlePage = new WikipediaArticlePage(driver, wait);
+        WikipediaArticlePage articlePage = new WikipediaArticlePage(getDriver(), getWait());
         
         // Click language list button and select Spanish
         homePage.clickLanguageListButton()
@@ -100,4 +115,15 @@ public class WikipediaTest extends BaseTest {
         articlePage.verifyUrlContains(TestConstants.Urls.SPANISH_WIKIPEDIA);
         articlePage.verifyDocumentTitle(TestConstants.Text.SPANISH_WIKIPEDIA_TITLE);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the document title of the Spanish Wikipedia, starting there directly
+     */
+    @Test
+    public void testSpanishWikipediaDocumentTitle() {
+        WikipediaArticlePage articlePage = new WikipediaArticlePage(getDriver(), getWait()).seedSpanishWikipedia();
+
+        articlePage.verifyUrlContains(TestConstants.Urls.SPANISH_WIKIPEDIA);
+        articlePage.verifyDocumentTitle(TestConstants.Text.SPANISH_WIKIPEDIA_TITLE);
+    }
+}
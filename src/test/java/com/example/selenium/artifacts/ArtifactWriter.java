@@ -0,0 +1,180 @@
+package com.example.selenium.artifacts;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+
+import org.openqa.selenium.logging.LogEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes failure artifacts on a small pool of background threads, so a failed test hands
+ * its session back as soon as the snapshot is taken.
+ *
+ * The queue is bounded: when the writers fall behind, the failing test's thread writes its
+ * own artifacts, which slows the producers down instead of letting snapshots pile up in
+ * memory. Pending writes are flushed when the JVM exits.
+ */
+public final class ArtifactWriter {
+
+    private static final Logger logger = Logger.getLogger(ArtifactWriter.class.getName());
+
+    public static final String FAILURES_DIR = "failures";
+
+    private static final long FLUSH_TIMEOUT_SECONDS = 60;
+
+    private static final LongAdder snapshots = new LongAdder();
+    private static final LongAdder captureNanos = new LongAdder();
+    private static final LongAdder writeNanos = new LongAdder();
+    private static final LongAdder bytesWritten = new LongAdder();
+    private static final LongAdder writtenByCaller = new LongAdder();
+    private static final LongAdder failedWrites = new LongAdder();
+
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ArtifactWriter::flush, "artifact-writer-flush"));
+        RunReport.register("Failure artifacts", ArtifactWriter::summary);
+    }
+
+    private ArtifactWriter() {
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, TestConfig.artifactsThreads());
+        return new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, TestConfig.artifactsQueueSize())),
+            runnable -> {
+                Thread thread = new Thread(runnable, "artifact-writer-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, pool) -> {
+                // Queue full (or flushing at shutdown): write on the caller's thread
+                writtenByCaller.increment();
+                task.run();
+            });
+    }
+
+    /**
+     * Queue a snapshot for writing
+     *
+     * @param snapshot the captured browser state
+     * @param captureNanos how long taking the snapshot blocked the test
+     */
+    public static void submit(FailureSnapshot snapshot, long captureNanos) {
+        snapshots.increment();
+        ArtifactWriter.captureNanos.add(captureNanos);
+        executor.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Wait for all queued snapshots to be written
+     */
+    static void flush() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Gave up waiting for " + executor.getQueue().size() + " failure artifacts");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(FailureSnapshot snapshot) {
+        long start = System.nanoTime();
+        Path dir = Paths.get(TestConfig.reportsDir(), FAILURES_DIR,
+            snapshot.getTestName() + "-" + snapshot.getCapturedAtMillis());
+        try {
+            Files.createDirectories(dir);
+            if (snapshot.getScreenshotBase64() != null) {
+                writeFile(dir.resolve("screenshot.png"), Base64.getDecoder().decode(snapshot.getScreenshotBase64()));
+            }
+            if (snapshot.getHtml() != null) {
+                writeFile(dir.resolve("dom.html.gz"), gzip(snapshot.getHtml().getBytes(StandardCharsets.UTF_8)));
+            }
+            if (!snapshot.getBrowserLog().isEmpty()) {
+                StringBuilder log = new StringBuilder();
+                for (LogEntry entry : snapshot.getBrowserLog()) {
+                    log.append(Instant.ofEpochMilli(entry.getTimestamp())).append(' ').append(entry.getLevel())
+                        .append(' ').append(entry.getMessage()).append('\n');
+                }
+                writeFile(dir.resolve("browser.log"), log.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            writeFile(dir.resolve("failure.txt"), describe(snapshot).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            failedWrites.increment();
+            logger.warning("Could not write failure artifacts of " + snapshot.getTestName() + ": " + e.getMessage());
+        } finally {
+            writeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private static String describe(FailureSnapshot snapshot) {
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        out.println("test: " + snapshot.getTestName());
+        out.println("captured: " + Instant.ofEpochMilli(snapshot.getCapturedAtMillis()));
+        out.println("url: " + snapshot.getUrl());
+        out.println("title: " + snapshot.getTitle());
+        out.println();
+        if (snapshot.getFailure() != null) {
+            snapshot.getFailure().printStackTrace(out);
+        }
+        out.flush();
+        return text.toString();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeFile(Path file, byte[] data) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        bytesWritten.add(data.length);
+    }
+
+    static String summary() {
+        long count = snapshots.sum();
+        if (count == 0) {
+            return "no failures captured";
+        }
+        return String.format("captured: %d (written to %s/%s)%n"
+                + "test thread blocked: avg %.1f ms, background write: avg %.1f ms, %.1f KB total%n"
+                + "written on the test thread because the queue was full: %d, failed: %d",
+            count, TestConfig.reportsDir(), FAILURES_DIR,
+            captureNanos.sum() / 1e6 / count, writeNanos.sum() / 1e6 / count, bytesWritten.sum() / 1024.0,
+            writtenByCaller.sum(), failedWrites.sum());
+    }
+}
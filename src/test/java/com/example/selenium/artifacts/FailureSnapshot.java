@@ -0,0 +1,106 @@
+package com.example.selenium.artifacts;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The raw state of the browser at the moment a test failed: the screenshot as the driver
+ * returned it (base64), the DOM, and the browser log. Capturing only collects what the
+ * driver sends back; decoding, compressing and writing is left to the {@link ArtifactWriter}.
+ */
+public class FailureSnapshot {
+
+    private static final Logger logger = Logger.getLogger(FailureSnapshot.class.getName());
+
+    // One round trip for everything the page itself can tell
+    private static final String PAGE_STATE_SCRIPT =
+        "return { html: document.documentElement.outerHTML, url: location.href, title: document.title };";
+
+    private final String testName;
+    private final Throwable failure;
+    private final long capturedAtMillis = System.currentTimeMillis();
+    private String screenshotBase64;
+    private String html;
+    private String url;
+    private String title;
+    private List<LogEntry> browserLog = Collections.emptyList();
+
+    private FailureSnapshot(String testName, Throwable failure) {
+        this.testName = testName;
+        this.failure = failure;
+    }
+
+    /**
+     * Collect the browser state. Each part is optional: a dead session or a browser that
+     * does not support logs only loses that part.
+     *
+     * @param testName name of the failed test
+     * @param failure the exception the test failed with
+     * @param driver the raw driver of the test's session
+     * @return the snapshot
+     */
+    public static FailureSnapshot capture(String testName, Throwable failure, WebDriver driver) {
+        FailureSnapshot snapshot = new FailureSnapshot(testName, failure);
+        try {
+            snapshot.screenshotBase64 = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        } catch (RuntimeException e) {
+            logger.fine("No screenshot for " + testName + ": " + e.getMessage());
+        }
+        try {
+            Map<?, ?> page = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(PAGE_STATE_SCRIPT);
+            snapshot.html = (String) page.get("html");
+            snapshot.url = (String) page.get("url");
+            snapshot.title = (String) page.get("title");
+        } catch (RuntimeException e) {
+            logger.fine("No DOM for " + testName + ": " + e.getMessage());
+        }
+        try {
+            snapshot.browserLog = driver.manage().logs().get(LogType.BROWSER).getAll();
+        } catch (RuntimeException e) {
+            // Firefox does not expose the browser log through WebDriver
+            logger.fine("No browser log for " + testName + ": " + e.getMessage());
+        }
+        return snapshot;
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    public String getScreenshotBase64() {
+        return screenshotBase64;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<LogEntry> getBrowserLog() {
+        return browserLog;
+    }
+}
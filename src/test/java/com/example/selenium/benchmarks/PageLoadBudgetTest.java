@@ -0,0 +1,44 @@
+package com.example.selenium.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.data.TestConstants;
+import com.example.selenium.pages.WikipediaArticlePage;
+import com.example.selenium.pages.WikipediaHomePage;
+
+import java.time.Duration;
+
+/**
+ * Page performance budgets for the homepage and an article. Every navigation of the run is also
+ * appended to the page performance time series. Run with
+ * {@code mvn test -Dselenium.perf.monitor=true -Dtest=PageLoadBudgetTest}.
+ */
+@EnabledIfSystemProperty(named = TestConfig.PERF_MONITOR, matches = "true")
+public class PageLoadBudgetTest extends BaseTest {
+
+    /**
+     * Checks load and largest contentful paint of the homepage against the budgets
+     */
+    @Test
+    public void homePageLoadsWithinBudget() {
+        WikipediaHomePage homePage = new WikipediaHomePage(getDriver(), getWait()).goTo();
+        homePage.assertLoadWithin(Duration.ofMillis(TestConfig.perfLoadBudgetMillis()));
+        homePage.assertLargestContentfulPaintWithin(Duration.ofMillis(TestConfig.perfLcpBudgetMillis()));
+    }
+
+    /**
+     * Checks load and largest contentful paint of an article reached through search
+     */
+    @Test
+    public void articleLoadsWithinBudget() {
+        WikipediaArticlePage articlePage = new WikipediaHomePage(getDriver(), getWait())
+            .goTo()
+            .searchFor(TestConstants.Search.SELENIUM_SOFTWARE);
+        articlePage.verifyUrl(TestConstants.Urls.SELENIUM_SOFTWARE_ARTICLE);
+        articlePage.assertLoadWithin(Duration.ofMillis(TestConfig.perfLoadBudgetMillis()));
+        articlePage.assertLargestContentfulPaintWithin(Duration.ofMillis(TestConfig.perfLcpBudgetMillis()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.selenium.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.data.TestConstants;
+import com.example.selenium.pages.WikipediaArticlePage;
+import com.example.selenium.reporting.RunReport;
+
+import java.util.logging.Logger;
+
+/**
+ * Compares checking an article with blocking reads one after another against sending the
+ * same reads at once. Run with {@code mvn test -Dselenium.benchmarks=true -Dtest=PipelinedChecksBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "selenium.benchmarks", matches = "true")
+public class PipelinedChecksBenchmarkTest extends BaseTest {
+
+    private static final Logger logger = Logger.getLogger(PipelinedChecksBenchmarkTest.class.getName());
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    /**
+     * Measures both ways of checking URL, title element and document title on the same article
+     */
+    @Test
+    public void compareSequentialAndPipelinedChecks() {
+        navigateTo(TestConstants.Urls.SELENIUM_SOFTWARE_ARTICLE);
+        WikipediaArticlePage articlePage = new WikipediaArticlePage(getDriver(), getWait());
+        articlePage.waitUntilReady();
+        String documentTitle = getDriver().getTitle();
+
+        double sequentialMillis = measure(() -> {
+            articlePage.verifyUrl(TestConstants.Urls.SELENIUM_SOFTWARE_ARTICLE);
+            articlePage.verifyPageTitle(TestConstants.Search.SELENIUM_SOFTWARE);
+            articlePage.verifyDocumentTitle(documentTitle);
+        });
+        double pipelinedMillis = measure(() -> articlePage.verifyArticle(
+            TestConstants.Urls.SELENIUM_SOFTWARE_ARTICLE, TestConstants.Search.SELENIUM_SOFTWARE, documentTitle));
+
+        String summary = String.format("sequential %.2f ms per check%npipelined  %.2f ms per check%nspeedup: %.2fx",
+            sequentialMillis, pipelinedMillis, sequentialMillis / pipelinedMillis);
+        logger.info("Pipelined checks benchmark:\n" + summary);
+        RunReport.register("Pipelined checks benchmark", () -> summary);
+    }
+
+    private static double measure(Runnable check) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            check.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            check.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+    }
+}
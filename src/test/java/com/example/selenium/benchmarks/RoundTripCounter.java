@@ -0,0 +1,50 @@
+package com.example.selenium.benchmarks;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the WebDriver and WebElement calls that go over the wire to the driver.
+ * Attach it with {@code new EventFiringDecorator<>(counter).decorate(driver)}.
+ */
+public class RoundTripCounter implements WebDriverListener {
+
+    // Calls that only hand out helper objects and never reach the driver
+    private static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList(
+        "manage", "navigate", "switchTo", "getWrappedDriver", "getWrappedElement",
+        "toString", "hashCode", "equals"));
+
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    @Override
+    public void beforeAnyWebDriverCall(WebDriver driver, Method method, Object[] args) {
+        count(method);
+    }
+
+    @Override
+    public void beforeAnyWebElementCall(WebElement element, Method method, Object[] args) {
+        count(method);
+    }
+
+    /**
+     * Get the number of round trips counted so far
+     *
+     * @return the round trip count
+     */
+    public long get() {
+        return roundTrips.get();
+    }
+
+    private void count(Method method) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            roundTrips.incrementAndGet();
+        }
+    }
+}
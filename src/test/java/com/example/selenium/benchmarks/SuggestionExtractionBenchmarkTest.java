@@ -0,0 +1,91 @@
+package com.example.selenium.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.data.TestConstants;
+import com.example.selenium.pages.WikipediaHomePage;
+import com.example.selenium.reporting.RunReport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Compares reading the typeahead suggestions element by element with the batched
+ * single-script query. Run with {@code mvn test -Dselenium.benchmarks=true -Dtest=SuggestionExtractionBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "selenium.benchmarks", matches = "true")
+public class SuggestionExtractionBenchmarkTest extends BaseTest {
+
+    private static final Logger logger = Logger.getLogger(SuggestionExtractionBenchmarkTest.class.getName());
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    /**
+     * Measures round trips and latency of both extraction approaches on the same dropdown
+     */
+    @Test
+    public void compareBatchedAndPerElementExtraction() {
+        RoundTripCounter counter = new RoundTripCounter();
+        WebDriver countingDriver = new EventFiringDecorator<>(counter).decorate(getDriver());
+        WikipediaHomePage homePage = new WikipediaHomePage(countingDriver,
+            new WebDriverWait(countingDriver, Duration.ofSeconds(DEFAULT_WAIT_TIME)));
+        homePage.goTo().enterSearchTerm(TestConstants.Search.JAVA);
+
+        Measurement perElement = measure("per-element", counter, homePage::getSearchSuggestionsPerElement);
+        Measurement batched = measure("batched", counter, homePage::getSearchSuggestions);
+
+        String summary = perElement + "\n" + batched + String.format("%nspeedup: %.1fx",
+            perElement.averageMillis / batched.averageMillis);
+        logger.info("Suggestion extraction benchmark:\n" + summary);
+        RunReport.register("Suggestion extraction benchmark", () -> summary);
+
+        assertEquals(perElement.suggestions, batched.suggestions, "Both approaches should read the same suggestions");
+        assertTrue(batched.roundTrips < perElement.roundTrips, "Batched extraction should need fewer round trips");
+    }
+
+    private static Measurement measure(String name, RoundTripCounter counter, Supplier<List<String>> extraction) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            extraction.get();
+        }
+        long roundTripsBefore = counter.get();
+        long start = System.nanoTime();
+        List<String> suggestions = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            suggestions = extraction.get();
+        }
+        double averageMillis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+        long roundTrips = (counter.get() - roundTripsBefore) / MEASURED_ITERATIONS;
+        return new Measurement(name, suggestions, roundTrips, averageMillis);
+    }
+
+    private static final class Measurement {
+        private final String name;
+        private final List<String> suggestions;
+        private final long roundTrips;
+        private final double averageMillis;
+
+        private Measurement(String name, List<String> suggestions, long roundTrips, double averageMillis) {
+            this.name = name;
+            this.suggestions = suggestions;
+            this.roundTrips = roundTrips;
+            this.averageMillis = averageMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %d suggestions, %d round trips, %.1f ms per extraction",
+                name, suggestions.size(), roundTrips, averageMillis);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.selenium.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.metrics.LatencyHistogram;
+import com.example.selenium.metrics.TypeaheadMetrics;
+import com.example.selenium.pages.TypeaheadLatency;
+import com.example.selenium.pages.WikipediaHomePage;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Performance regression gate for the search typeahead: types each configured term
+ * character by character and fails if the 95th percentile of the time from the last
+ * keystroke to the final dropdown render exceeds the budget. Run with
+ * {@code mvn test -Dselenium.typeahead.probe=true -Dtest=TypeaheadLatencyGateTest}.
+ */
+@EnabledIfSystemProperty(named = TestConfig.TYPEAHEAD_PROBE, matches = "true")
+public class TypeaheadLatencyGateTest extends BaseTest {
+
+    private static final Logger logger = Logger.getLogger(TypeaheadLatencyGateTest.class.getName());
+
+    /**
+     * Measures every term repeatedly and checks the p95 against the budget
+     */
+    @Test
+    public void typeaheadRendersWithinBudget() {
+        WikipediaHomePage homePage = new WikipediaHomePage(getDriver(), getWait()).goTo();
+        Duration keyInterval = Duration.ofMillis(TestConfig.typeaheadKeyIntervalMillis());
+        int budget = TestConfig.typeaheadP95BudgetMillis();
+
+        for (String term : TestConfig.typeaheadTerms().split(",")) {
+            term = term.trim();
+            for (int i = 0; i < TestConfig.typeaheadRepetitions(); i++) {
+                TypeaheadLatency latency = homePage.measureTypeaheadLatency(term, keyInterval);
+                assertFalse(Double.isNaN(latency.getFinalLatencyMillis()),
+                    "The dropdown should render after the last keystroke of '" + term + "'");
+            }
+            LatencyHistogram finalRender = TypeaheadMetrics.finalRenderLatency(term);
+            double p95 = finalRender.getPercentileMillis(95);
+            logger.info(String.format("Typeahead '%s': p50 %.1f ms, p95 %.1f ms (budget %d ms)",
+                term, finalRender.getPercentileMillis(50), p95, budget));
+            assertTrue(p95 <= budget, String.format(
+                "p95 keystroke-to-render latency for '%s' is %.1f ms, budget is %d ms", term, p95, budget));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.selenium.benchmarks.jmh;
+
+import com.example.selenium.pages.WikipediaArticlePage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locator strategies and page object operations on an article: CSS against XPath for the
+ * title, scoped against document-wide searches over the article's links, and the batched
+ * title check against the per-property one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ArticlePageBenchmark {
+
+    private static final String TITLE = "Selenium (software)";
+
+    /**
+     * The copy of the "Selenium (software)" article
+     */
+    public static class ArticlePage extends StaticPageState {
+        WikipediaArticlePage page;
+        WebElement content;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            open("article.html");
+            page = new WikipediaArticlePage(driver, wait);
+            content = driver.findElement(By.id("mw-content-text"));
+        }
+    }
+
+    @Benchmark
+    public WebElement pageTitleByCss(ArticlePage state) {
+        return state.driver.findElement(By.cssSelector("span.mw-page-title-main"));
+    }
+
+    @Benchmark
+    public WebElement pageTitleByXPath(ArticlePage state) {
+        return state.driver.findElement(By.xpath("//span[@class='mw-page-title-main']"));
+    }
+
+    @Benchmark
+    public WebElement pageTitleByContainsXPath(ArticlePage state) {
+        return state.driver.findElement(By.xpath("//*[contains(@class, 'mw-page-title-main')]"));
+    }
+
+    @Benchmark
+    public List<WebElement> contentLinksDocumentWide(ArticlePage state) {
+        return state.driver.findElements(By.cssSelector("#mw-content-text a"));
+    }
+
+    @Benchmark
+    public List<WebElement> contentLinksScoped(ArticlePage state) {
+        return state.content.findElements(By.tagName("a"));
+    }
+
+    @Benchmark
+    public void verifyPageTitle(ArticlePage state) {
+        state.page.verifyPageTitle(TITLE);
+    }
+
+    @Benchmark
+    public void verifyPageTitleSeparately(ArticlePage state) {
+        state.page.verifyPageTitleIsDisplayed();
+        state.page.verifyPageTitleText(TITLE);
+    }
+}
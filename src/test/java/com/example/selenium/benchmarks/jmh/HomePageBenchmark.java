@@ -0,0 +1,105 @@
+package com.example.selenium.benchmarks.jmh;
+
+import com.example.selenium.pages.RelevanceResult;
+import com.example.selenium.pages.WikipediaHomePage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locator strategies and page object operations on the homepage: the contains() XPath of
+ * {@link WikipediaHomePage#getSuggestionLinkLocator} and the document-wide text XPath of
+ * {@link WikipediaHomePage#selectLanguage} against CSS selectors and searches scoped to a
+ * container that was found once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HomePageBenchmark {
+
+    private static final String SUGGESTION_TITLE = "Java (programming language)";
+    private static final String SUGGESTION_DESCRIPTION = "Object-oriented programming language";
+    private static final String LANGUAGE = "Español";
+
+    /**
+     * The homepage copy with the dropdown for "Java" rendered and the language list open
+     */
+    public static class HomePage extends StaticPageState {
+        WikipediaHomePage page;
+        WebElement dropdown;
+        WebElement languageLists;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            open("home.html");
+            page = new WikipediaHomePage(driver, wait);
+            dropdown = driver.findElement(By.className("suggestions-dropdown"));
+            languageLists = driver.findElement(By.id("js-lang-lists"));
+        }
+    }
+
+    @Benchmark
+    public WebElement suggestionLinkByContainsXPath(HomePage state) {
+        return state.driver.findElement(
+            WikipediaHomePage.getSuggestionLinkLocator(SUGGESTION_TITLE, SUGGESTION_DESCRIPTION));
+    }
+
+    @Benchmark
+    public WebElement suggestionLinkByScopedXPath(HomePage state) {
+        return state.dropdown.findElement(By.xpath(String.format(
+            ".//a[.//h3[text()='%s'] and .//p[text()='%s']]", SUGGESTION_TITLE, SUGGESTION_DESCRIPTION)));
+    }
+
+    @Benchmark
+    public WebElement suggestionLinkByCss(HomePage state) {
+        return state.driver.findElement(By.cssSelector(
+            ".suggestions-dropdown a.suggestion-link[href$='/Java_(programming_language)']"));
+    }
+
+    @Benchmark
+    public WebElement languageLinkByDocumentXPath(HomePage state) {
+        return state.driver.findElement(By.xpath(String.format("//a[contains(text(), '%s')]", LANGUAGE)));
+    }
+
+    @Benchmark
+    public WebElement languageLinkByScopedXPath(HomePage state) {
+        return state.languageLists.findElement(By.xpath(String.format(".//a[contains(text(), '%s')]", LANGUAGE)));
+    }
+
+    @Benchmark
+    public WebElement languageLinkByCss(HomePage state) {
+        return state.driver.findElement(By.cssSelector("#js-lang-lists a[lang='es']"));
+    }
+
+    @Benchmark
+    public WebElement suggestionLinkWithWait(HomePage state) {
+        return state.page.getSuggestionLink(SUGGESTION_TITLE, SUGGESTION_DESCRIPTION);
+    }
+
+    @Benchmark
+    public List<String> getSearchSuggestions(HomePage state) {
+        return state.page.getSearchSuggestions();
+    }
+
+    @Benchmark
+    public List<String> getSearchSuggestionsPerElement(HomePage state) {
+        return state.page.getSearchSuggestionsPerElement();
+    }
+
+    @Benchmark
+    public RelevanceResult evaluateRelevance(HomePage state) {
+        return state.page.evaluateRelevance("Java");
+    }
+}
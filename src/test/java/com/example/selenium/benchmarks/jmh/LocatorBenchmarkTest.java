@@ -0,0 +1,84 @@
+package com.example.selenium.benchmarks.jmh;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Runs the JMH locator benchmarks against the static page copies and writes the results as
+ * JSON, e.g. {@code mvn test -Dtest=LocatorBenchmarkTest -Dselenium.jmh=true}.
+ */
+@EnabledIfSystemProperty(named = TestConfig.JMH, matches = "true")
+public class LocatorBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(LocatorBenchmarkTest.class.getName());
+
+    private static final List<RunResult> results = new ArrayList<>();
+
+    static {
+        RunReport.register("Locator benchmarks", LocatorBenchmarkTest::summary);
+    }
+
+    /**
+     * Runs every benchmark matching selenium.jmh.include in every browser of selenium.jmh.browsers
+     *
+     * @throws RunnerException if JMH could not run the benchmarks
+     */
+    @Test
+    public void runBenchmarks() throws RunnerException {
+        File output = new File(TestConfig.jmhOutput());
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        Options options = new OptionsBuilder()
+            .include(TestConfig.jmhInclude())
+            .param("browser", TestConfig.jmhBrowsers().split("\\s*,\\s*"))
+            .forks(TestConfig.jmhForks())
+            .shouldFailOnError(true)
+            .resultFormat(ResultFormatType.JSON)
+            .result(output.getPath())
+            .build();
+
+        Collection<RunResult> run = new Runner(options).run();
+        synchronized (results) {
+            results.addAll(run);
+        }
+        logger.info("Locator benchmark results written to " + output.getPath());
+        assertFalse(run.isEmpty(), "No benchmark matched " + TestConfig.jmhInclude());
+    }
+
+    static String summary() {
+        synchronized (results) {
+            if (results.isEmpty()) {
+                return "not run";
+            }
+            StringBuilder summary = new StringBuilder(String.format("%-50s %-8s %14s %10s%n",
+                "benchmark", "browser", "score", "error"));
+            for (RunResult result : results) {
+                String benchmark = result.getParams().getBenchmark();
+                summary.append(String.format("%-50s %-8s %14.1f %10.1f %s%n",
+                    benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1),
+                    result.getParams().getParam("browser"), result.getPrimaryResult().getScore(),
+                    result.getPrimaryResult().getScoreError(), result.getPrimaryResult().getScoreUnit()));
+            }
+            return summary.toString().trim();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.selenium.benchmarks.jmh;
+
+import com.example.selenium.driver.Browser;
+import com.example.selenium.driver.DriverFactory;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Level;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * A headless browser showing one of the static page copies in src/test/resources/benchmarks/pages.
+ * The copies keep the live pages' element structure but load no scripts or network resources,
+ * so the benchmarks measure the locators and the WebDriver round trips, not Wikipedia.
+ */
+@State(Scope.Benchmark)
+public abstract class StaticPageState {
+
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    @Param({"chrome", "firefox"})
+    public String browser;
+
+    protected WebDriver driver;
+    protected WebDriverWait wait;
+
+    /**
+     * Start the browser and open a static page
+     *
+     * @param page file name of the page, e.g. "home.html"
+     */
+    protected void open(String page) {
+        driver = DriverFactory.create(Browser.fromName(browser).getEngine() == Browser.FIREFOX
+            ? Browser.FIREFOX_HEADLESS : Browser.CHROME_HEADLESS);
+        wait = new WebDriverWait(driver, WAIT_TIMEOUT);
+        driver.get(pageUrl(page));
+    }
+
+    @TearDown(Level.Trial)
+    public void quit() {
+        if (driver != null) {
+            driver.quit();
+        }
+    }
+
+    private static String pageUrl(String page) {
+        URL resource = StaticPageState.class.getResource("/benchmarks/pages/" + page);
+        if (resource == null) {
+            throw new IllegalStateException("Static page not found on the class path: " + page);
+        }
+        try {
+            return Paths.get(resource.toURI()).toUri().toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid static page location: " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,728 @@
+package com.example.selenium.config;
+
+/**
+ * Central access point for runtime configuration of the test framework.
+ * Every value can be overridden with a JVM system property, for example
+ * {@code mvn test -Dselenium.pool.maxUses=20}.
+ */
+public final class TestConfig {
+
+    // Property keys
+    public static final String BROWSER = "selenium.browser";
+    public static final String POOL_MAX_SIZE = "selenium.pool.maxSize";
+    public static final String POOL_MAX_USES = "selenium.pool.maxUses";
+    public static final String POOL_CHECKOUT_TIMEOUT = "selenium.pool.checkoutTimeoutSeconds";
+    public static final String POOL_PREFETCH = "selenium.pool.prefetch";
+    public static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+    public static final String PARALLEL_MAX = "selenium.parallel.max";
+    public static final String BROWSER_MEMORY_MB = "selenium.parallel.browserMemoryMb";
+    public static final String FIXTURES_MODE = "selenium.fixtures.mode";
+    public static final String FIXTURES_DIR = "selenium.fixtures.dir";
+    public static final String FIXTURES_PORT = "selenium.fixtures.port";
+    public static final String INSTRUMENT_COMMANDS = "selenium.instrument.commands";
+    public static final String DRIVERS_OFFLINE = "selenium.drivers.offline";
+    public static final String DRIVERS_DIR = "selenium.drivers.dir";
+    public static final String DRIVERS_CACHE_FILE = "selenium.drivers.cacheFile";
+    public static final String PAGE_LOAD_STRATEGY = "selenium.pageLoadStrategy";
+    public static final String PROFILE = "selenium.profile";
+    public static final String LEAN_BLOCK_TYPES = "selenium.lean.blockTypes";
+    public static final String LEAN_BLOCK_URLS = "selenium.lean.blockUrls";
+    public static final String SHARD_TOTAL = "selenium.shard.total";
+    public static final String SHARD_INDEX = "selenium.shard.index";
+    public static final String ARTIFACTS_ENABLED = "selenium.artifacts.enabled";
+    public static final String ARTIFACTS_THREADS = "selenium.artifacts.threads";
+    public static final String ARTIFACTS_QUEUE_SIZE = "selenium.artifacts.queueSize";
+    public static final String SWEEP_CORPUS = "selenium.sweep.corpus";
+    public static final String SWEEP_SESSIONS = "selenium.sweep.sessions";
+    public static final String SWEEP_OUTPUT = "selenium.sweep.output";
+    public static final String SWEEP_TERM_TIMEOUT = "selenium.sweep.termTimeoutMs";
+    public static final String TYPEAHEAD_PROBE = "selenium.typeahead.probe";
+    public static final String TYPEAHEAD_TERMS = "selenium.typeahead.terms";
+    public static final String TYPEAHEAD_KEY_INTERVAL = "selenium.typeahead.keyIntervalMs";
+    public static final String TYPEAHEAD_REPETITIONS = "selenium.typeahead.repetitions";
+    public static final String TYPEAHEAD_P95_BUDGET = "selenium.typeahead.p95BudgetMs";
+    public static final String PERF_MONITOR = "selenium.perf.monitor";
+    public static final String PERF_BUILD = "selenium.perf.build";
+    public static final String PERF_LOAD_WAIT = "selenium.perf.loadWaitMs";
+    public static final String PERF_LOAD_BUDGET = "selenium.perf.loadBudgetMs";
+    public static final String PERF_LCP_BUDGET = "selenium.perf.lcpBudgetMs";
+    public static final String MEMORY_WATCHDOG = "selenium.memory.watchdog";
+    public static final String MEMORY_MAX_RSS = "selenium.memory.maxRssMb";
+    public static final String MEMORY_MAX_JS_HEAP = "selenium.memory.maxJsHeapMb";
+    public static final String MEMORY_SAMPLE_INTERVAL = "selenium.memory.sampleIntervalMs";
+    public static final String FLEET_MAX_BROWSERS = "selenium.fleet.maxBrowsers";
+    public static final String FLEET_MAX_CPU = "selenium.fleet.maxCpuPercent";
+    public static final String FLEET_TASKS = "selenium.fleet.tasks";
+    public static final String BIDI_EVENTS = "selenium.bidi.events";
+    public static final String JMH = "selenium.jmh";
+    public static final String JMH_INCLUDE = "selenium.jmh.include";
+    public static final String JMH_BROWSERS = "selenium.jmh.browsers";
+    public static final String JMH_FORKS = "selenium.jmh.forks";
+    public static final String JMH_OUTPUT = "selenium.jmh.output";
+    public static final String MATRIX = "selenium.matrix";
+    public static final String MATRIX_TESTS = "selenium.matrix.tests";
+    public static final String MATRIX_SESSIONS_PER_BROWSER = "selenium.matrix.sessionsPerBrowser";
+    public static final String ELEMENT_CACHE = "selenium.elementCache";
+    public static final String PIPELINED_READS = "selenium.pipelinedReads";
+    public static final String RERUN_FAILED = "selenium.rerun.failed";
+    public static final String QUARANTINE_LANE = "selenium.quarantine.lane";
+    public static final String QUARANTINE_TESTS = "selenium.quarantine.tests";
+    public static final String QUARANTINE_SCORE_PERCENT = "selenium.quarantine.scorePercent";
+    public static final String QUARANTINE_MIN_RUNS = "selenium.quarantine.minRuns";
+    public static final String QUARANTINE_GRACE_SECONDS = "selenium.quarantine.graceSeconds";
+    public static final String GRID_URL = "selenium.grid.url";
+    public static final String GRID_STATUS_REFRESH_MILLIS = "selenium.grid.statusRefreshMillis";
+    public static final String HISTORY_DIR = "selenium.history.dir";
+    public static final String REPORTS_DIR = "selenium.reports.dir";
+
+    private TestConfig() {
+    }
+
+    /**
+     * Get a string property
+     *
+     * @param key the system property key
+     * @param defaultValue the value to use when the property is not set
+     * @return the configured value or the default
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Get an integer property
+     *
+     * @param key the system property key
+     * @param defaultValue the value to use when the property is not set
+     * @return the configured value or the default
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property '" + key + "' must be an integer, but was '" + value + "'", e);
+        }
+    }
+
+    /**
+     * Get a boolean property
+     *
+     * @param key the system property key
+     * @param defaultValue the value to use when the property is not set
+     * @return the configured value or the default
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Name of the browser tests run on unless a test chooses one explicitly
+     *
+     * @return the browser name
+     */
+    public static String browser() {
+        return getString(BROWSER, "chrome");
+    }
+
+    /**
+     * Maximum number of live browser sessions held by the driver pool
+     *
+     * @return the pool size, or 0 to size the pool by the capacity of the machine
+     */
+    public static int poolMaxSize() {
+        return Math.max(0, getInt(POOL_MAX_SIZE, 0));
+    }
+
+    /**
+     * Number of tests a pooled session may serve before it is recycled
+     *
+     * @return the maximum number of uses per session
+     */
+    public static int poolMaxUses() {
+        return Math.max(1, getInt(POOL_MAX_USES, 50));
+    }
+
+    /**
+     * How long a test waits for a free session before giving up
+     *
+     * @return the checkout timeout in seconds
+     */
+    public static int poolCheckoutTimeoutSeconds() {
+        return getInt(POOL_CHECKOUT_TIMEOUT, 120);
+    }
+
+    /**
+     * Maximum number of sessions the driver pool starts speculatively, ahead of the test that
+     * will need them. 0 disables prefetching.
+     *
+     * @return the prefetch limit
+     */
+    public static int poolPrefetch() {
+        return getInt(POOL_PREFETCH, 1);
+    }
+
+    /**
+     * Whether JUnit parallel execution was switched on for this run
+     *
+     * @return true if tests run in parallel
+     */
+    public static boolean parallelEnabled() {
+        return getBoolean(PARALLEL_ENABLED, false);
+    }
+
+    /**
+     * Hard upper limit for the number of tests running at once
+     *
+     * @return the configured limit, or 0 for no limit beyond the machine's capacity
+     */
+    public static int parallelMax() {
+        return getInt(PARALLEL_MAX, 0);
+    }
+
+    /**
+     * Estimated memory a single browser needs, used to work out how many fit on the machine
+     *
+     * @return memory per browser in megabytes
+     */
+    public static int browserMemoryMb() {
+        return Math.max(1, getInt(BROWSER_MEMORY_MB, 512));
+    }
+
+    /**
+     * Where tests load Wikipedia from: "live" (the internet), "record" (through the local
+     * fixture server, saving every response) or "replay" (only from saved responses)
+     *
+     * @return the fixture mode name
+     */
+    public static String fixturesMode() {
+        return getString(FIXTURES_MODE, "live");
+    }
+
+    /**
+     * Directory that recorded fixtures are stored in
+     *
+     * @return the fixtures directory
+     */
+    public static String fixturesDir() {
+        return getString(FIXTURES_DIR, "src/test/resources/fixtures/wikipedia");
+    }
+
+    /**
+     * Port of the local fixture server
+     *
+     * @return the port, or 0 to pick a free port
+     */
+    public static int fixturesPort() {
+        return getInt(FIXTURES_PORT, 0);
+    }
+
+    /**
+     * Whether every WebDriver command is timed and attributed to the page object method that issued it
+     *
+     * @return true if drivers are instrumented
+     */
+    public static boolean instrumentCommands() {
+        return getBoolean(INSTRUMENT_COMMANDS, true);
+    }
+
+    /**
+     * Whether driver binaries must be resolved without network access, from
+     * {@link #driversDir()}, the resolution cache or webdriver.*.driver properties
+     *
+     * @return true in offline mode
+     */
+    public static boolean driversOffline() {
+        return getBoolean(DRIVERS_OFFLINE, false);
+    }
+
+    /**
+     * Directory with pre-provisioned driver binaries (chromedriver, geckodriver)
+     *
+     * @return the directory, or an empty string if none is configured
+     */
+    public static String driversDir() {
+        return getString(DRIVERS_DIR, "");
+    }
+
+    /**
+     * File that caches which driver binary belongs to the installed browser version.
+     * Shared by all projects and JVMs of the user.
+     *
+     * @return path of the resolution cache
+     */
+    public static String driversCacheFile() {
+        return getString(DRIVERS_CACHE_FILE,
+            System.getProperty("user.home") + "/.cache/selenium-drivers/resolution.properties");
+    }
+
+    /**
+     * Page load strategy for new sessions: "normal", "eager" or "none". Page objects wait for
+     * their own readiness condition, so navigation does not need to wait for every subresource.
+     *
+     * @return the page load strategy name
+     */
+    public static String pageLoadStrategy() {
+        return getString(PAGE_LOAD_STRATEGY, "eager");
+    }
+
+    /**
+     * Browser profile: "default" or "lean" (headless, with resource blocking)
+     *
+     * @return the profile name
+     */
+    public static String profile() {
+        return getString(PROFILE, "default");
+    }
+
+    /**
+     * Whether the lean browser profile is active
+     *
+     * @return true if browsers run headless with resource blocking
+     */
+    public static boolean leanProfile() {
+        return "lean".equalsIgnoreCase(profile());
+    }
+
+    /**
+     * Resource types the lean profile blocks, as a comma separated list
+     *
+     * @return e.g. "image,font,media"
+     */
+    public static String leanBlockTypes() {
+        return getString(LEAN_BLOCK_TYPES, "image,font,media");
+    }
+
+    /**
+     * Additional URL patterns the lean profile blocks, as a comma separated list of wildcard patterns
+     *
+     * @return e.g. "*intake-analytics.wikimedia.org*"
+     */
+    public static String leanBlockUrls() {
+        return getString(LEAN_BLOCK_URLS, "*intake-analytics.wikimedia.org*,*/beacon/*");
+    }
+
+    /**
+     * Number of shards the test suite is split into, e.g. one per CI agent
+     *
+     * @return the shard count, 1 to run every test
+     */
+    public static int shardTotal() {
+        return getInt(SHARD_TOTAL, 1);
+    }
+
+    /**
+     * Shard this JVM runs, between 0 and {@link #shardTotal()} - 1
+     *
+     * @return the zero-based shard index
+     */
+    public static int shardIndex() {
+        return getInt(SHARD_INDEX, 0);
+    }
+
+    /**
+     * Whether a screenshot, the DOM and the browser log are saved when a test fails
+     *
+     * @return true to capture failure artifacts
+     */
+    public static boolean artifactsEnabled() {
+        return getBoolean(ARTIFACTS_ENABLED, true);
+    }
+
+    /**
+     * Number of background threads that encode and write failure artifacts
+     *
+     * @return the writer thread count
+     */
+    public static int artifactsThreads() {
+        return getInt(ARTIFACTS_THREADS, 2);
+    }
+
+    /**
+     * Number of failure captures that may wait for a writer thread. When the queue is full
+     * the failing test's thread writes its artifacts itself.
+     *
+     * @return the queue capacity
+     */
+    public static int artifactsQueueSize() {
+        return getInt(ARTIFACTS_QUEUE_SIZE, 16);
+    }
+
+    /**
+     * Corpus file for the typeahead relevance sweep, one search term per line
+     *
+     * @return the corpus path, or an empty string if no sweep is requested
+     */
+    public static String sweepCorpus() {
+        return getString(SWEEP_CORPUS, "");
+    }
+
+    /**
+     * Number of browser sessions the relevance sweep spreads the terms over
+     *
+     * @return the session count, 0 for the driver pool's maximum size
+     */
+    public static int sweepSessions() {
+        return getInt(SWEEP_SESSIONS, 0);
+    }
+
+    /**
+     * File the relevance sweep streams its results to; ".csv" writes CSV, anything else JSON lines
+     *
+     * @return the output path
+     */
+    public static String sweepOutput() {
+        return getString(SWEEP_OUTPUT, reportsDir() + "/relevance-sweep.jsonl");
+    }
+
+    /**
+     * How long the relevance sweep waits for the suggestions of one term
+     *
+     * @return the timeout in milliseconds
+     */
+    public static int sweepTermTimeoutMillis() {
+        return getInt(SWEEP_TERM_TIMEOUT, 3000);
+    }
+
+    /**
+     * Terms the typeahead latency gate types, as a comma separated list
+     *
+     * @return e.g. "Java,Selenium"
+     */
+    public static String typeaheadTerms() {
+        return getString(TYPEAHEAD_TERMS, "Java,Selenium,Albert Einstein");
+    }
+
+    /**
+     * Pause between keystrokes when measuring typeahead latency
+     *
+     * @return the key interval in milliseconds
+     */
+    public static int typeaheadKeyIntervalMillis() {
+        return getInt(TYPEAHEAD_KEY_INTERVAL, 120);
+    }
+
+    /**
+     * How often the typeahead latency gate types each term
+     *
+     * @return the number of repetitions per term
+     */
+    public static int typeaheadRepetitions() {
+        return getInt(TYPEAHEAD_REPETITIONS, 5);
+    }
+
+    /**
+     * Budget for the 95th percentile of the time from the last keystroke to the final render
+     *
+     * @return the budget in milliseconds
+     */
+    public static int typeaheadP95BudgetMillis() {
+        return getInt(TYPEAHEAD_P95_BUDGET, 750);
+    }
+
+    /**
+     * Whether page objects record Navigation Timing, paint and LCP of every navigation to the
+     * page performance time series
+     *
+     * @return true to monitor page performance
+     */
+    public static boolean perfMonitor() {
+        return getBoolean(PERF_MONITOR, false);
+    }
+
+    /**
+     * Label of the build that page performance samples are recorded under, e.g. a CI build number
+     *
+     * @return the build label, by default $BUILD_NUMBER or "local"
+     */
+    public static String perfBuild() {
+        String buildNumber = System.getenv("BUILD_NUMBER");
+        return getString(PERF_BUILD, buildNumber != null ? buildNumber : "local");
+    }
+
+    /**
+     * How long a performance capture waits for the load event of the page
+     *
+     * @return the maximum wait in milliseconds
+     */
+    public static int perfLoadWaitMillis() {
+        return getInt(PERF_LOAD_WAIT, 10000);
+    }
+
+    /**
+     * Budget for the end of the load event used by the page load budget test
+     *
+     * @return the budget in milliseconds
+     */
+    public static int perfLoadBudgetMillis() {
+        return getInt(PERF_LOAD_BUDGET, 5000);
+    }
+
+    /**
+     * Budget for the largest contentful paint used by the page load budget test
+     *
+     * @return the budget in milliseconds
+     */
+    public static int perfLcpBudgetMillis() {
+        return getInt(PERF_LCP_BUDGET, 2500);
+    }
+
+    /**
+     * Whether the memory watchdog samples pooled browsers and recycles those that grow too large
+     *
+     * @return true to watch browser memory
+     */
+    public static boolean memoryWatchdog() {
+        return getBoolean(MEMORY_WATCHDOG, true);
+    }
+
+    /**
+     * Resident memory of a browser's process tree above which its session is recycled
+     *
+     * @return the limit in megabytes, 0 for no limit
+     */
+    public static int memoryMaxRssMb() {
+        return getInt(MEMORY_MAX_RSS, 2048);
+    }
+
+    /**
+     * JS heap of the page under test above which its session is recycled
+     *
+     * @return the limit in megabytes, 0 for no limit
+     */
+    public static int memoryMaxJsHeapMb() {
+        return getInt(MEMORY_MAX_JS_HEAP, 512);
+    }
+
+    /**
+     * How often the memory watchdog samples the process trees of the pooled browsers in the background
+     *
+     * @return the interval in milliseconds, 0 to sample only between tests
+     */
+    public static int memorySampleIntervalMillis() {
+        return getInt(MEMORY_SAMPLE_INTERVAL, 5000);
+    }
+
+    /**
+     * Upper bound on browsers the fleet orchestrator drives at the same time
+     *
+     * @return the limit, 0 for the driver pool's maximum size
+     */
+    public static int fleetMaxBrowsers() {
+        return getInt(FLEET_MAX_BROWSERS, 0);
+    }
+
+    /**
+     * Machine CPU load above which the fleet orchestrator starts no further browsers
+     *
+     * @return the load in percent
+     */
+    public static int fleetMaxCpuPercent() {
+        return getInt(FLEET_MAX_CPU, 85);
+    }
+
+    /**
+     * Number of scenarios the fleet orchestrator test runs
+     *
+     * @return the task count, 0 to skip the test
+     */
+    public static int fleetTasks() {
+        return getInt(FLEET_TASKS, 0);
+    }
+
+    /**
+     * Whether sessions are started with WebDriver BiDi so page objects can await navigation
+     * events instead of polling the URL
+     *
+     * @return true to subscribe to navigation events
+     */
+    public static boolean bidiEvents() {
+        return getBoolean(BIDI_EVENTS, true);
+    }
+
+    /**
+     * Regular expression selecting the JMH benchmarks to run
+     *
+     * @return the include pattern
+     */
+    public static String jmhInclude() {
+        return getString(JMH_INCLUDE, "com\\.example\\.selenium\\.benchmarks\\.jmh\\..*");
+    }
+
+    /**
+     * Browsers the JMH benchmarks run in, as a comma separated list
+     *
+     * @return e.g. "chrome,firefox"
+     */
+    public static String jmhBrowsers() {
+        return getString(JMH_BROWSERS, "chrome,firefox");
+    }
+
+    /**
+     * Number of forked JVMs per JMH benchmark. Forking needs the full class path on the
+     * command line, which surefire's manifest-only jar hides, so benchmarks started from
+     * mvn test run in the test JVM by default.
+     *
+     * @return the fork count, 0 to run in the current JVM
+     */
+    public static int jmhForks() {
+        return getInt(JMH_FORKS, 0);
+    }
+
+    /**
+     * File the JMH results are written to as JSON
+     *
+     * @return the output path
+     */
+    public static String jmhOutput() {
+        return getString(JMH_OUTPUT, reportsDir() + "/jmh-locators.json");
+    }
+
+    /**
+     * Browsers of the browser matrix, as a comma separated list
+     *
+     * @return e.g. "chrome,firefox,chrome-headless,firefox-headless", empty when the matrix is off
+     */
+    public static String matrix() {
+        return getString(MATRIX, "");
+    }
+
+    /**
+     * Test class run once per browser of the matrix
+     *
+     * @return the fully qualified class name
+     */
+    public static String matrixTests() {
+        return getString(MATRIX_TESTS, "com.example.selenium.WikipediaTest");
+    }
+
+    /**
+     * Live sessions each browser of the matrix may hold
+     *
+     * @return the budget, 0 to split the pool size evenly between the browsers
+     */
+    public static int matrixSessionsPerBrowser() {
+        return getInt(MATRIX_SESSIONS_PER_BROWSER, 0);
+    }
+
+    /**
+     * Whether page objects cache element handles between lookups. Needs BiDi navigation
+     * events, which report the DOM mutations that invalidate the cache. Off by default: every
+     * session then streams its DOM mutations to the JVM, which only pays off for suites that
+     * look up the same elements again and again.
+     *
+     * @return true to cache element handles
+     */
+    public static boolean elementCache() {
+        return getBoolean(ELEMENT_CACHE, false);
+    }
+
+    /**
+     * Whether the *Async reads of page objects are sent to the driver server without blocking.
+     * When off they run as blocking WebDriver calls and complete immediately.
+     *
+     * @return true to send reads concurrently
+     */
+    public static boolean pipelinedReads() {
+        return getBoolean(PIPELINED_READS, true);
+    }
+
+    /**
+     * Whether failed tests are rerun on warm sessions at the end of the run instead of failing
+     * right away. Only applies when FailedTestRerunTest is part of the run.
+     *
+     * @return true to rerun failed tests
+     */
+    public static boolean rerunFailed() {
+        return getBoolean(RERUN_FAILED, true);
+    }
+
+    /**
+     * Whether quarantined tests run in the background quarantine lane. When off they run with
+     * the other tests.
+     *
+     * @return true to move quarantined tests to the lane
+     */
+    public static boolean quarantineLane() {
+        return getBoolean(QUARANTINE_LANE, true);
+    }
+
+    /**
+     * Tests quarantined regardless of their flakiness score, as a comma separated list
+     *
+     * @return e.g. "WikipediaTest.testChangeLanguageToSpanish", empty for none
+     */
+    public static String quarantineTests() {
+        return getString(QUARANTINE_TESTS, "");
+    }
+
+    /**
+     * Flakiness score in percent from which a test is quarantined
+     *
+     * @return the threshold
+     */
+    public static int quarantineScorePercent() {
+        return getInt(QUARANTINE_SCORE_PERCENT, 30);
+    }
+
+    /**
+     * Runs a test needs in the flakiness history before its score can quarantine it
+     *
+     * @return the minimum number of runs
+     */
+    public static int quarantineMinRuns() {
+        return getInt(QUARANTINE_MIN_RUNS, 5);
+    }
+
+    /**
+     * How long the end of the run waits for the quarantine lane to finish
+     *
+     * @return the grace period in seconds, 0 to not wait
+     */
+    public static int quarantineGraceSeconds() {
+        return getInt(QUARANTINE_GRACE_SECONDS, 30);
+    }
+
+    /**
+     * Address of the Selenium Grid that sessions are started on. When empty, browsers are
+     * started locally.
+     *
+     * @return e.g. "http://localhost:4444", empty for local browsers
+     */
+    public static String gridUrl() {
+        return getString(GRID_URL, "");
+    }
+
+    /**
+     * How long a snapshot of the Grid's status is used before the Grid is asked again
+     *
+     * @return the interval in milliseconds
+     */
+    public static int gridStatusRefreshMillis() {
+        return getInt(GRID_STATUS_REFRESH_MILLIS, 1000);
+    }
+
+    /**
+     * Directory for data kept across runs (baselines, histories). Unlike the reports
+     * directory it is not removed by mvn clean.
+     *
+     * @return the history directory
+     */
+    public static String historyDir() {
+        return getString(HISTORY_DIR, ".selenium-history");
+    }
+
+    /**
+     * Directory that run reports and other generated artifacts are written to
+     *
+     * @return the reports directory
+     */
+    public static String reportsDir() {
+        return getString(REPORTS_DIR, "target/selenium-reports");
+    }
+}
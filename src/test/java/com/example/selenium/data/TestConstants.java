@@ -1,5 +1,7 @@
 package com.example.selenium.data;
 
+import com.example.selenium.fixtures.Fixtures;
+
 /**
  * This class contains all test constants used in the test suite.
  * Having constants centralized makes tests more maintainable and easier to update.
@@ -7,12 +9,14 @@ package com.example.selenium.data;
 public class TestConstants {
     
     /**
-     * URLs used in tests
+     * URLs used in tests.
+     * With -Dselenium.fixtures.mode=record or replay these point at the local fixture server
+     * instead of the live site.
      */
     public static class Urls {
-        public static final String WIKIPEDIA_HOME = "https://www.wikipedia.org/";
-        public static final String SELENIUM_SOFTWARE_ARTICLE = "https://en.wikipedia.org/wiki/Selenium_(software)";
-        public static final String SPANISH_WIKIPEDIA = "https://es.wikipedia.org";
+        public static final String WIKIPEDIA_HOME = Fixtures.url("https://www.wikipedia.org/");
+        public static final String SELENIUM_SOFTWARE_ARTICLE = Fixtures.url("https://en.wikipedia.org/wiki/Selenium_(software)");
+        public static final String SPANISH_WIKIPEDIA = Fixtures.url("https://es.wikipedia.org");
     }
     
     /**
@@ -31,6 +35,7 @@ public class TestConstants {
         public static final String WIKIPEDIA = "Wikipedia";
         public static final String SPANISH_LANGUAGE = "Español";
         public static final String SPANISH_WIKIPEDIA_TITLE = "Wikipedia, la enciclopedia libre";
+        public static final String SELENIUM_SOFTWARE_TITLE = "Selenium (software) - Wikipedia";
     }
     
     /**
@@ -0,0 +1,183 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.metrics.CommandMetrics;
+import com.example.selenium.metrics.LatencyHistogram;
+import com.example.selenium.reporting.RunReport;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only W3C WebDriver commands of a pooled session without blocking, so independent
+ * reads such as the URL, the document title and an element's text are in flight at the same
+ * time instead of one after another.
+ *
+ * Commands go straight to the session's driver server (chromedriver, geckodriver) over one
+ * JVM-wide HTTP client, which keeps its connections alive and opens one per concurrent request.
+ * The session's regular WebDriver is untouched and can be used alongside, but commands that
+ * change the page should stay on it so their order is kept.
+ *
+ * These commands bypass the session's instrumenting decorator, so with
+ * selenium.instrument.commands they are timed here and recorded in {@link CommandMetrics}
+ * under their own names, e.g. "getTitle async".
+ */
+public final class AsyncWebDriver {
+
+    private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private static final Json json = new Json();
+
+    private static final LongAdder commands = new LongAdder();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    private static final LatencyHistogram latency = new LatencyHistogram();
+
+    static {
+        RunReport.register("Pipelined commands", AsyncWebDriver::summary);
+    }
+
+    private final URI sessionUri;
+    private final boolean instrumented;
+
+    AsyncWebDriver(URI sessionUri, boolean instrumented) {
+        this.sessionUri = sessionUri;
+        this.instrumented = instrumented;
+    }
+
+    /**
+     * Find the driver server endpoint of a session
+     *
+     * @param driver the raw or decorated driver of a pooled session, or a raw local driver
+     * @return the asynchronous client, or null if the driver does not talk HTTP to a driver server
+     */
+    public static AsyncWebDriver forDriver(WebDriver driver) {
+        DriverSession session = DriverSession.forDriver(driver);
+        WebDriver rawDriver = session != null ? session.getRawDriver() : driver;
+        if (!(rawDriver instanceof RemoteWebDriver) || ((RemoteWebDriver) rawDriver).getSessionId() == null) {
+            return null;
+        }
+        CommandExecutor executor = ((RemoteWebDriver) rawDriver).getCommandExecutor();
+        if (!(executor instanceof HttpCommandExecutor)) {
+            return null;
+        }
+        String server = ((HttpCommandExecutor) executor).getAddressOfRemoteServer().toString();
+        return new AsyncWebDriver(URI.create((server.endsWith("/") ? server : server + "/")
+            + "session/" + ((RemoteWebDriver) rawDriver).getSessionId()), TestConfig.instrumentCommands());
+    }
+
+    /**
+     * Get the URL of the current page
+     *
+     * @return completes with the URL
+     */
+    public CompletableFuture<String> getCurrentUrl() {
+        return send("getCurrentUrl", "GET", "url", null).thenApply(String::valueOf);
+    }
+
+    /**
+     * Get the title of the current document
+     *
+     * @return completes with the title
+     */
+    public CompletableFuture<String> getTitle() {
+        return send("getTitle", "GET", "title", null).thenApply(String::valueOf);
+    }
+
+    /**
+     * Run a synchronous script in the current page
+     *
+     * @param script the script body, as for JavascriptExecutor.executeScript
+     * @param args the script arguments; maps, lists, strings, numbers and booleans
+     * @return completes with the script's return value as maps, lists and primitives
+     */
+    public CompletableFuture<Object> executeScript(String script, Object... args) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("script", script);
+        body.put("args", Arrays.asList(args));
+        return send("executeScript", "POST", "execute/sync", body);
+    }
+
+    /**
+     * Send a command to the driver server
+     *
+     * @param name the WebDriver method the command stands for, for the command metrics
+     * @param method the HTTP method
+     * @param command the command path below the session
+     * @param body the JSON body, or null for none
+     * @return completes with the response's value
+     */
+    private CompletableFuture<Object> send(String name, String method, String command, Map<String, Object> body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(sessionUri + "/" + command))
+            .timeout(COMMAND_TIMEOUT)
+            .header("Content-Type", "application/json; charset=utf-8")
+            .method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(json.toJson(body)))
+            .build();
+        // The stack is only the page object's on the calling thread
+        String caller = instrumented ? CommandMetrics.caller() : null;
+        long start = System.nanoTime();
+        commands.increment();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, failure) -> {
+                inFlight.decrementAndGet();
+                long nanos = System.nanoTime() - start;
+                latency.recordNanos(nanos);
+                if (caller != null) {
+                    CommandMetrics.record(caller, name + " async", nanos);
+                }
+            })
+            .thenApply(response -> value(command, response));
+    }
+
+    /**
+     * Unwrap the value of a W3C response
+     *
+     * @param command the command, for error messages
+     * @param response the HTTP response
+     * @return the response's value
+     * @throws WebDriverException if the driver server reported an error
+     */
+    private static Object value(String command, HttpResponse<String> response) {
+        Map<String, Object> payload = response.body().isEmpty()
+            ? Collections.emptyMap()
+            : json.toType(response.body(), Json.MAP_TYPE);
+        Object value = payload.get("value");
+        if (response.statusCode() >= 400) {
+            Object error = value instanceof Map ? ((Map<?, ?>) value).get("error") : null;
+            Object message = value instanceof Map ? ((Map<?, ?>) value).get("message") : value;
+            throw new WebDriverException(command + " failed with " + response.statusCode()
+                + (error != null ? " " + error : "") + ": " + message);
+        }
+        return value;
+    }
+
+    static String summary() {
+        return String.format("commands: %d, peak in flight: %d, latency p50 %.1f ms, p95 %.1f ms, max %.1f ms",
+            commands.sum(), peakInFlight.get(), latency.getPercentileMillis(50), latency.getPercentileMillis(95),
+            latency.getMaxMillis());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.metrics.CommandMetrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriverException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tests for the non-blocking WebDriver client against a fake driver server. These run without
+ * a browser.
+ */
+public class AsyncWebDriverTest {
+
+    // Long enough to never expire when the requests overlap; only a sequential client waits it out
+    private static final long OVERLAP_TIMEOUT_SECONDS = 5;
+
+    private final CountDownLatch readsArrived = new CountDownLatch(2);
+    private final LongAdder overlappingReads = new LongAdder();
+    private HttpServer server;
+    private URI sessionUri;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/session/abc/url", exchange -> {
+            awaitOtherRead();
+            respond(exchange, 200, "{\"value\":\"https://en.wikipedia.org/wiki/Java\"}");
+        });
+        server.createContext("/session/abc/title", exchange -> {
+            awaitOtherRead();
+            respond(exchange, 200, "{\"value\":\"Java - Wikipedia\"}");
+        });
+        server.createContext("/session/abc/execute/sync", exchange ->
+            respond(exchange, 404, "{\"value\":{\"error\":\"no such window\",\"message\":\"window closed\"}}"));
+        server.start();
+        sessionUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/session/abc");
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Tests that reads sent together are in flight together: each request is only answered once
+     * the server has received the other one
+     */
+    @Test
+    public void testReadsAreInFlightTogether() {
+        AsyncWebDriver async = new AsyncWebDriver(sessionUri, false);
+        CompletableFuture<String> url = async.getCurrentUrl();
+        CompletableFuture<String> title = async.getTitle();
+        CompletableFuture.allOf(url, title).join();
+
+        assertEquals("https://en.wikipedia.org/wiki/Java", url.join());
+        assertEquals("Java - Wikipedia", title.join());
+        assertEquals(2, overlappingReads.sum(), "Both reads should have reached the server before either was answered");
+    }
+
+    /**
+     * Tests that W3C error responses complete the future with a WebDriverException
+     */
+    @Test
+    public void testErrorResponseFails() {
+        AsyncWebDriver async = new AsyncWebDriver(sessionUri, false);
+        CompletionException failure = assertThrows(CompletionException.class,
+            () -> async.executeScript("return 1;").join());
+
+        assertInstanceOf(WebDriverException.class, failure.getCause());
+        assertTrue(failure.getCause().getMessage().contains("no such window"), failure.getCause().getMessage());
+    }
+
+    /**
+     * Tests that an instrumented client records its commands in the command metrics
+     */
+    @Test
+    public void testInstrumentedCommandsAreRecorded() {
+        AsyncWebDriver async = new AsyncWebDriver(sessionUri, true);
+        assertThrows(CompletionException.class, () -> async.executeScript("return 1;").join());
+
+        assertTrue(CommandMetrics.snapshot().keySet().stream().anyMatch(key -> key.endsWith(" executeScript async")),
+            CommandMetrics.snapshot().keySet().toString());
+    }
+
+    private void awaitOtherRead() {
+        readsArrived.countDown();
+        try {
+            if (readsArrived.await(OVERLAP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                overlappingReads.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.selenium.driver;
+
+/**
+ * Browsers the framework knows how to start. The headless variants are separate browsers as
+ * far as the {@link DriverPool} is concerned, so a headless session never serves a test that
+ * asked for a visible one.
+ */
+public enum Browser {
+    CHROME,
+    FIREFOX,
+    CHROME_HEADLESS,
+    FIREFOX_HEADLESS;
+
+    /**
+     * Resolve a browser from its (case-insensitive) name
+     *
+     * @param name the browser name, e.g. "chrome" or "firefox-headless"
+     * @return the matching browser
+     */
+    public static Browser fromName(String name) {
+        try {
+            return Browser.valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported browser '" + name + "'", e);
+        }
+    }
+
+    /**
+     * The browser engine, which decides the driver binary and the options
+     *
+     * @return CHROME or FIREFOX
+     */
+    public Browser getEngine() {
+        return this == FIREFOX || this == FIREFOX_HEADLESS ? FIREFOX : CHROME;
+    }
+
+    public boolean isHeadless() {
+        return this == CHROME_HEADLESS || this == FIREFOX_HEADLESS;
+    }
+
+    /**
+     * Name as accepted by {@link #fromName}
+     *
+     * @return e.g. "chrome-headless"
+     */
+    public String getName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.github.bonigarcia.wdm.config.DriverManagerType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Resolves the driver binary (chromedriver, geckodriver) of a browser the first time a
+ * session of that browser is started, instead of setting up every driver for every test class.
+ *
+ * Resolution tries, in order: an explicit webdriver.*.driver property, a pre-provisioned
+ * binary in selenium.drivers.dir, and the local resolution cache. The cache maps the
+ * installed browser binary, identified by its path, size and modification time, to the
+ * driver WebDriverManager resolved for it, so a warm machine never asks WebDriverManager
+ * (and its version lookups) again until the browser is updated. In offline mode
+ * WebDriverManager is never called.
+ */
+public final class DriverBinaries {
+
+    private static final Logger logger = Logger.getLogger(DriverBinaries.class.getName());
+
+    private static final Map<Browser, Resolution> resolved = new ConcurrentHashMap<>();
+
+    static {
+        RunReport.register("Driver binaries", DriverBinaries::summary);
+    }
+
+    private DriverBinaries() {
+    }
+
+    /**
+     * Make sure the driver binary of a browser is known to Selenium. Only the first call
+     * per browser does any work.
+     *
+     * @param browser the browser about to be started
+     * @throws IllegalStateException in offline mode if no driver binary is available
+     */
+    public static void ensureResolved(Browser browser) {
+        resolved.computeIfAbsent(browser.getEngine(), DriverBinaries::resolve);
+    }
+
+    private static Resolution resolve(Browser browser) {
+        long start = System.nanoTime();
+        String property = driverProperty(browser);
+        Resolution resolution;
+
+        String configured = System.getProperty(property);
+        Path provisioned = provisionedBinary(browser);
+        if (configured != null && Files.isExecutable(Paths.get(configured))) {
+            resolution = new Resolution("system property " + property, configured);
+        } else if (provisioned != null) {
+            resolution = new Resolution("provisioned " + TestConfig.driversDir(), provisioned.toString());
+        } else {
+            resolution = resolveCached(browser);
+        }
+
+        System.setProperty(property, resolution.driverPath);
+        resolution.millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("Resolved " + browser + " driver " + resolution.driverPath + " from "
+            + resolution.source + " in " + resolution.millis + " ms");
+        return resolution;
+    }
+
+    private static Resolution resolveCached(Browser browser) {
+        Path cacheFile = Paths.get(TestConfig.driversCacheFile());
+        String key = browser.name().toLowerCase();
+        synchronized (DriverBinaries.class) {
+            Properties cache = load(cacheFile);
+            String cachedDriver = cache.getProperty(key + ".driver");
+            String cachedBrowser = cache.getProperty(key + ".browser");
+            boolean driverExists = cachedDriver != null && Files.isExecutable(Paths.get(cachedDriver));
+
+            if (driverExists && cachedBrowser != null
+                    && cachedBrowser.equals(fingerprint(Paths.get(cache.getProperty(key + ".browserPath", ""))))) {
+                return new Resolution("resolution cache", cachedDriver);
+            }
+            if (TestConfig.driversOffline()) {
+                if (driverExists) {
+                    logger.warning("Offline mode: the browser changed since " + cachedDriver
+                        + " was resolved; using it anyway");
+                    return new Resolution("resolution cache (stale)", cachedDriver);
+                }
+                throw new IllegalStateException("Offline mode: no " + browser + " driver binary. Set "
+                    + driverProperty(browser) + ", put the binary in " + TestConfig.DRIVERS_DIR
+                    + " or run once online to fill " + cacheFile);
+            }
+
+            WebDriverManager manager = WebDriverManager.getInstance(managerType(browser));
+            manager.setup();
+            String driverPath = manager.getDownloadedDriverPath();
+            Optional<Path> browserPath = manager.getBrowserPath();
+            if (browserPath.isPresent()) {
+                cache.setProperty(key + ".driver", driverPath);
+                cache.setProperty(key + ".driverVersion", String.valueOf(manager.getDownloadedDriverVersion()));
+                cache.setProperty(key + ".browserPath", browserPath.get().toString());
+                cache.setProperty(key + ".browser", fingerprint(browserPath.get()));
+                store(cacheFile, cache);
+            }
+            return new Resolution("WebDriverManager", driverPath);
+        }
+    }
+
+    /**
+     * Identify the installed browser version without starting the browser
+     *
+     * @param browserPath path of the browser binary
+     * @return path, size and modification time of the binary, or an empty string if it does not exist
+     */
+    static String fingerprint(Path browserPath) {
+        try {
+            Path real = browserPath.toRealPath();
+            return real + ":" + Files.size(real) + ":" + Files.getLastModifiedTime(real).toMillis();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static Path provisionedBinary(Browser browser) {
+        if (TestConfig.driversDir().isEmpty()) {
+            return null;
+        }
+        String name = browser == Browser.FIREFOX ? "geckodriver" : "chromedriver";
+        for (String candidate : new String[] {name, name + ".exe"}) {
+            Path binary = Paths.get(TestConfig.driversDir(), candidate);
+            if (Files.isExecutable(binary)) {
+                return binary;
+            }
+        }
+        return null;
+    }
+
+    private static String driverProperty(Browser browser) {
+        return browser == Browser.FIREFOX ? "webdriver.gecko.driver" : "webdriver.chrome.driver";
+    }
+
+    private static DriverManagerType managerType(Browser browser) {
+        return browser == Browser.FIREFOX ? DriverManagerType.FIREFOX : DriverManagerType.CHROME;
+    }
+
+    private static Properties load(Path file) {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                logger.warning("Could not read driver resolution cache " + file + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    private static void store(Path file, Properties properties) {
+        try {
+            Files.createDirectories(file.getParent());
+            // Write to a temporary file and move it, so JVMs running in parallel never read half a file
+            Path temp = Files.createTempFile(file.getParent(), "resolution", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Driver binaries resolved per installed browser");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Could not write driver resolution cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    static String summary() {
+        if (resolved.isEmpty()) {
+            return "no drivers resolved";
+        }
+        StringBuilder summary = new StringBuilder();
+        resolved.forEach((browser, resolution) -> summary.append(String.format("%s: %s from %s in %d ms%n",
+            browser, resolution.driverPath, resolution.source, resolution.millis)));
+        return summary.toString().trim();
+    }
+
+    private static final class Resolution {
+        private final String source;
+        private final String driverPath;
+        private long millis;
+
+        private Resolution(String source, String driverPath) {
+            this.source = source;
+            this.driverPath = driverPath;
+        }
+    }
+}
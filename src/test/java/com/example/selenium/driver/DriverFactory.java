@@ -0,0 +1,128 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.grid.GridScheduler;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+
+import java.time.Duration;
+import java.util.logging.Level;
+
+/**
+ * Creates new browser sessions with the framework's default options, plus the
+ * {@link LeanProfile} options when -Dselenium.profile=lean. Sessions are started locally, or
+ * on the Selenium Grid through the {@link GridScheduler} when -Dselenium.grid.url is set.
+ */
+public final class DriverFactory {
+
+    // Capability that opens a WebDriver BiDi connection for the session's navigation events
+    private static final String WEB_SOCKET_URL = "webSocketUrl";
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Start a new browser session, on the Selenium Grid when -Dselenium.grid.url is set
+     *
+     * @param browser the browser to start
+     * @return a new WebDriver instance
+     */
+    public static WebDriver create(Browser browser) {
+        switch (browser.getEngine()) {
+            case FIREFOX:
+                FirefoxOptions firefoxOptions = firefoxOptions();
+                if (browser.isHeadless()) {
+                    firefoxOptions.addArguments("-headless");
+                }
+                return GridScheduler.isEnabled() ? startOnGrid(firefoxOptions) : startFirefox(firefoxOptions);
+            case CHROME:
+            default:
+                ChromeOptions chromeOptions = chromeOptions();
+                if (browser.isHeadless()) {
+                    chromeOptions.addArguments("--headless=new");
+                }
+                return GridScheduler.isEnabled() ? startOnGrid(chromeOptions) : startChrome(chromeOptions);
+        }
+    }
+
+    private static WebDriver startFirefox(FirefoxOptions options) {
+        DriverBinaries.ensureResolved(Browser.FIREFOX);
+        return new FirefoxDriver(options);
+    }
+
+    private static WebDriver startChrome(ChromeOptions options) {
+        DriverBinaries.ensureResolved(Browser.CHROME);
+        return new ChromeDriver(options);
+    }
+
+    private static WebDriver startOnGrid(Capabilities options) {
+        return GridScheduler.getInstance().startSession(options,
+            Duration.ofSeconds(TestConfig.poolCheckoutTimeoutSeconds()));
+    }
+
+    /**
+     * Default Chrome options
+     *
+     * @return ChromeOptions used for new Chrome sessions
+     */
+    public static ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(pageLoadStrategy());
+        options.addArguments("--start-maximized");
+        options.addArguments("--disable-notifications");
+        options.addArguments("--disable-extensions");
+
+        // Keep console messages so failure artifacts can include the browser log
+        LoggingPreferences logging = new LoggingPreferences();
+        logging.enable(LogType.BROWSER, Level.ALL);
+        options.setCapability(ChromeOptions.LOGGING_PREFS, logging);
+        if (TestConfig.bidiEvents()) {
+            options.setCapability(WEB_SOCKET_URL, true);
+        }
+        if (LeanProfile.isActive()) {
+            LeanProfile.apply(options);
+        }
+        return options;
+    }
+
+    /**
+     * Default Firefox options
+     *
+     * @return FirefoxOptions used for new Firefox sessions
+     */
+    public static FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(pageLoadStrategy());
+        options.addArguments("-width=1920");
+        options.addArguments("-height=1080");
+        if (TestConfig.bidiEvents()) {
+            options.setCapability(WEB_SOCKET_URL, true);
+        }
+        if (LeanProfile.isActive()) {
+            LeanProfile.apply(options);
+        }
+        return options;
+    }
+
+    /**
+     * Page load strategy for new sessions. Defaults to EAGER: navigation returns once the
+     * DOM is parsed and page objects wait for their own readiness condition.
+     *
+     * @return the configured page load strategy
+     */
+    private static PageLoadStrategy pageLoadStrategy() {
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(TestConfig.pageLoadStrategy().toLowerCase());
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown page load strategy: " + TestConfig.pageLoadStrategy());
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,582 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.grid.GridScheduler;
+import com.example.selenium.metrics.CommandMetrics;
+import com.example.selenium.reporting.RunReport;
+import com.example.selenium.support.HostResources;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Pool of warm browser sessions shared by all tests in the JVM.
+ *
+ * Starting a browser is the most expensive part of a short test, so instead of quitting
+ * the browser after every test, sessions are reset and handed to the next test. A session
+ * is recycled (quit and replaced) after a configurable number of uses or when the test
+ * that used it failed.
+ *
+ * The pool is safe to use from several threads; when tests run in parallel it also acts
+ * as the limit on how many browsers are alive at the same time.
+ *
+ * When a test checks out a session that will be recycled after the test, or a failed test's
+ * session is discarded, the pool starts the replacement in the background so the next test
+ * finds it warm. At most selenium.pool.prefetch sessions are started speculatively.
+ *
+ * A browser can be given its own session budget on top of the pool size, so browsers running
+ * side by side (see {@link #setSessionBudget}) cannot take each other's slots.
+ *
+ * A {@link MemoryWatchdog} samples the memory of every live browser; a session that grew
+ * past the configured limits is recycled when its test releases it.
+ *
+ * On a Selenium Grid the pool holds remote sessions, sized to the Grid's capacity. Tests that
+ * name their class get an idle session on the node of the class's previous test when there is
+ * one, see {@link GridScheduler}.
+ */
+public final class DriverPool {
+
+    private static final Logger logger = Logger.getLogger(DriverPool.class.getName());
+
+    private static final DriverPool INSTANCE = createShared();
+
+    private final int maxSize;
+    private final int maxUses;
+    private final int maxPrefetch;
+    private final long checkoutTimeoutNanos;
+    private final PoolMetrics metrics = new PoolMetrics();
+    private final Function<Browser, DriverSession> sessionFactory;
+    private final MemoryWatchdog watchdog;
+    private final GridScheduler grid = GridScheduler.isEnabled() ? GridScheduler.getInstance() : null;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition sessionAvailable = lock.newCondition();
+    private final Map<Browser, Deque<DriverSession>> idleSessions = new EnumMap<>(Browser.class);
+    private final Map<Browser, Integer> prefetchesInFlight = new EnumMap<>(Browser.class);
+    private final Map<Browser, Integer> waitingForPrefetch = new EnumMap<>(Browser.class);
+    private final Map<Browser, Integer> liveByBrowser = new EnumMap<>(Browser.class);
+    private final Map<Browser, Integer> sessionBudgets = new EnumMap<>(Browser.class);
+    private final ExecutorService prefetcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "driver-pool-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int liveSessions;
+    private boolean shutdown;
+
+    /**
+     * Constructor for DriverPool
+     *
+     * @param maxSize maximum number of live sessions across all browsers
+     * @param maxUses number of tests a session may serve before it is recycled
+     * @param checkoutTimeoutSeconds how long a checkout waits for a free session
+     * @param maxPrefetch maximum number of sessions started ahead of demand, 0 to disable
+     * @param sessionFactory starts a new session of a browser
+     * @param watchdog samples the memory of the live browsers, or null
+     */
+    DriverPool(int maxSize, int maxUses, int checkoutTimeoutSeconds, int maxPrefetch,
+               Function<Browser, DriverSession> sessionFactory, MemoryWatchdog watchdog) {
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.maxPrefetch = maxPrefetch;
+        this.checkoutTimeoutNanos = TimeUnit.SECONDS.toNanos(checkoutTimeoutSeconds);
+        this.sessionFactory = sessionFactory;
+        this.watchdog = watchdog;
+        for (Browser browser : Browser.values()) {
+            idleSessions.put(browser, new ArrayDeque<>());
+            prefetchesInFlight.put(browser, 0);
+            waitingForPrefetch.put(browser, 0);
+            liveByBrowser.put(browser, 0);
+        }
+    }
+
+    /**
+     * Create the JVM-wide pool from the configuration. It quits its browsers when the JVM exits
+     * and reports to the run report.
+     *
+     * @return the shared pool
+     */
+    private static DriverPool createShared() {
+        DriverPool pool = new DriverPool(defaultMaxSize(), TestConfig.poolMaxUses(),
+            TestConfig.poolCheckoutTimeoutSeconds(), TestConfig.poolPrefetch(), DriverPool::newSession,
+            MemoryWatchdog.fromConfig());
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "driver-pool-shutdown"));
+        RunReport.register("Driver pool", pool::summary);
+        if (pool.watchdog != null) {
+            RunReport.register("Browser memory", pool.watchdog::summary);
+        }
+        return pool;
+    }
+
+    /**
+     * Get the JVM-wide pool
+     *
+     * @return the shared DriverPool
+     */
+    public static DriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Pool size used when none is configured: as many browsers as the Grid or the machine can hold
+     *
+     * @return the default maximum number of live sessions
+     */
+    private static int defaultMaxSize() {
+        int configured = TestConfig.poolMaxSize();
+        if (configured > 0) {
+            return configured;
+        }
+        int gridCapacity = GridScheduler.isEnabled() ? GridScheduler.getInstance().getCapacity() : 0;
+        return gridCapacity > 0 ? gridCapacity : HostResources.browserCapacity();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Limit the live sessions of one browser, including its idle and prefetched sessions. The
+     * pool size still applies to all browsers together.
+     *
+     * @param browser the browser
+     * @param maxSessions maximum live sessions of the browser, 0 for no limit of its own
+     */
+    public void setSessionBudget(Browser browser, int maxSessions) {
+        lock.lock();
+        try {
+            sessionBudgets.put(browser, Math.max(0, maxSessions));
+            sessionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check out a session for the given browser, reusing an idle warm session when one
+     * is available and starting a new browser otherwise. Blocks while the pool is full.
+     *
+     * @param browser the browser the test needs
+     * @return a clean session for exclusive use by the caller
+     */
+    public DriverSession checkout(Browser browser) {
+        return checkout(browser, null);
+    }
+
+    /**
+     * Check out a session for a test of the given class. On a Grid, an idle session on the node
+     * that served the previous test of the class is preferred.
+     *
+     * @param browser the browser the test needs
+     * @param testClass name of the test class, or null for no preference
+     * @return a clean session for exclusive use by the caller
+     */
+    public DriverSession checkout(Browser browser, String testClass) {
+        long start = System.nanoTime();
+        DriverSession evicted = null;
+        lock.lock();
+        try {
+            long remaining = checkoutTimeoutNanos;
+            while (true) {
+                if (shutdown) {
+                    throw new IllegalStateException("Driver pool has been shut down");
+                }
+                DriverSession idle = grid != null
+                    ? grid.pollIdle(idleSessions.get(browser), DriverSession::getNodeId, testClass)
+                    : idleSessions.get(browser).pollFirst();
+                if (idle != null) {
+                    metrics.recordHit();
+                    metrics.recordCheckoutWait(System.nanoTime() - start);
+                    if (idle.isUnusedPrefetch()) {
+                        long waited = Math.max(0, idle.getReadyAtNanos() - start);
+                        metrics.recordPrefetchUsed(idle.getStartupNanos(),
+                            Math.max(0, idle.getStartupNanos() - waited));
+                    }
+                    idle.markUsed();
+                    prefetchIfLastUse(idle);
+                    recordGridCheckout(idle, testClass, start);
+                    return idle;
+                }
+                boolean prefetchCovers = prefetchesInFlight.get(browser) > waitingForPrefetch.get(browser);
+                if (prefetchCovers || !isWithinBudget(browser)) {
+                    // A prefetched session that no other checkout waits for is already starting, or the
+                    // browser has used up its budget; wait for one of its sessions rather than start another
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Timed out waiting for a free " + browser + " session");
+                    }
+                    if (prefetchCovers) {
+                        waitingForPrefetch.merge(browser, 1, Integer::sum);
+                    }
+                    try {
+                        remaining = sessionAvailable.awaitNanos(remaining);
+                    } finally {
+                        if (prefetchCovers) {
+                            waitingForPrefetch.merge(browser, -1, Integer::sum);
+                        }
+                    }
+                    continue;
+                }
+                if (liveSessions < maxSize) {
+                    occupySlot(browser);
+                    break;
+                }
+                // Pool is full: hand the slot of an idle session of another browser to this request
+                evicted = pollIdleOtherThan(browser);
+                if (evicted != null) {
+                    liveByBrowser.merge(evicted.getBrowser(), -1, Integer::sum);
+                    liveByBrowser.merge(browser, 1, Integer::sum);
+                    break;
+                }
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out waiting for a free " + browser + " session");
+                }
+                remaining = sessionAvailable.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + browser + " session", e);
+        } finally {
+            lock.unlock();
+        }
+
+        if (evicted != null) {
+            retire(evicted);
+        }
+        metrics.recordMiss();
+        metrics.recordCheckoutWait(System.nanoTime() - start);
+        try {
+            DriverSession session = startSession(browser);
+            session.markUsed();
+            lock.lock();
+            try {
+                prefetchIfLastUse(session);
+            } finally {
+                lock.unlock();
+            }
+            recordGridCheckout(session, testClass, start);
+            return session;
+        } catch (RuntimeException e) {
+            releaseSlot(browser);
+            throw e;
+        }
+    }
+
+    /**
+     * Return a session to the pool after a test
+     *
+     * @param session the session that was checked out
+     * @param testFailed whether the test that used the session failed
+     */
+    public void release(DriverSession session, boolean testFailed) {
+        if (grid != null) {
+            grid.recordRelease(System.nanoTime() - session.getCheckedOutAtNanos());
+        }
+        if (testFailed) {
+            metrics.recordRecycledForFailure();
+            discard(session);
+            lock.lock();
+            try {
+                prefetch(session.getBrowser());
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        if (session.getUseCount() >= maxUses) {
+            metrics.recordRecycledForUses();
+            discard(session);
+            return;
+        }
+        if (watchdog != null && watchdog.isOverLimitAtTestBoundary(session)) {
+            metrics.recordRecycledForMemory();
+            discard(session);
+            lock.lock();
+            try {
+                prefetch(session.getBrowser());
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            session.reset();
+        } catch (RuntimeException e) {
+            logger.warning("Reset of " + session + " failed, recycling it: " + e.getMessage());
+            metrics.recordRecycledForResetError();
+            discard(session);
+            return;
+        }
+        metrics.recordReset(System.nanoTime() - start);
+
+        lock.lock();
+        try {
+            if (!shutdown) {
+                idleSessions.get(session.getBrowser()).offerFirst(session);
+                sessionAvailable.signalAll();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(session);
+    }
+
+    /**
+     * Quit all idle sessions. Sessions that are still checked out are quit when released.
+     */
+    public void shutdown() {
+        List<DriverSession> toQuit = new ArrayList<>();
+        lock.lock();
+        try {
+            shutdown = true;
+            for (Deque<DriverSession> idle : idleSessions.values()) {
+                for (DriverSession session : idle) {
+                    if (session.isUnusedPrefetch()) {
+                        metrics.recordPrefetchWasted();
+                    }
+                }
+                toQuit.addAll(idle);
+                idle.clear();
+            }
+            for (DriverSession session : toQuit) {
+                liveSessions--;
+                liveByBrowser.merge(session.getBrowser(), -1, Integer::sum);
+            }
+            sessionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        prefetcher.shutdownNow();
+        for (DriverSession session : toQuit) {
+            retire(session);
+        }
+        if (watchdog != null) {
+            watchdog.shutdown();
+        }
+    }
+
+    /**
+     * Start a replacement in the background if the session will be recycled after its current test.
+     * Must be called with the lock held.
+     *
+     * @param session a session that was just checked out
+     */
+    private void prefetchIfLastUse(DriverSession session) {
+        if (session.getUseCount() >= maxUses) {
+            prefetch(session.getBrowser());
+        }
+    }
+
+    /**
+     * Start a session in the background unless the next test of this browser is already covered,
+     * the pool is full or the prefetch limit is reached. Must be called with the lock held.
+     *
+     * @param browser the browser to start
+     */
+    private void prefetch(Browser browser) {
+        if (shutdown || maxPrefetch <= 0 || liveSessions >= maxSize || !isWithinBudget(browser)
+                || !idleSessions.get(browser).isEmpty() || speculativeSessions() >= maxPrefetch) {
+            return;
+        }
+        occupySlot(browser);
+        prefetchesInFlight.merge(browser, 1, Integer::sum);
+        metrics.recordPrefetchStarted();
+        prefetcher.execute(() -> runPrefetch(browser));
+    }
+
+    private void runPrefetch(Browser browser) {
+        DriverSession session = null;
+        long start = System.nanoTime();
+        try {
+            session = startSession(browser);
+            session.markPrefetched(System.nanoTime() - start, System.nanoTime());
+        } catch (RuntimeException e) {
+            logger.warning("Prefetching a " + browser + " session failed: " + e.getMessage());
+            metrics.recordPrefetchFailed();
+        }
+
+        lock.lock();
+        try {
+            prefetchesInFlight.merge(browser, -1, Integer::sum);
+            if (session != null && !shutdown) {
+                idleSessions.get(browser).offerLast(session);
+                sessionAvailable.signalAll();
+                return;
+            }
+            liveSessions--;
+            liveByBrowser.merge(browser, -1, Integer::sum);
+            sessionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (session != null) {
+            metrics.recordPrefetchWasted();
+            retire(session);
+        }
+    }
+
+    /**
+     * Sessions started ahead of demand that no test has used yet. Must be called with the lock held.
+     *
+     * @return prefetches in flight plus idle unused prefetched sessions
+     */
+    private int speculativeSessions() {
+        int count = 0;
+        for (Browser browser : Browser.values()) {
+            count += prefetchesInFlight.get(browser);
+            for (DriverSession session : idleSessions.get(browser)) {
+                if (session.isUnusedPrefetch()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private DriverSession startSession(Browser browser) {
+        long start = System.nanoTime();
+        DriverSession session = sessionFactory.apply(browser);
+        logger.info("Started new " + browser + " session in "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        if (grid != null) {
+            session.setNodeId(grid.nodeOf(session.getRawDriver()));
+        }
+        // The processes of a Grid session run on its node, out of the watchdog's reach
+        if (watchdog != null && grid == null) {
+            watchdog.watch(session);
+        }
+        return session;
+    }
+
+    /**
+     * Start a browser with the framework's options and prepare it for the pool
+     *
+     * @param browser the browser to start
+     * @return the new session
+     */
+    private static DriverSession newSession(Browser browser) {
+        WebDriver rawDriver = DriverFactory.create(browser);
+        WebDriver driver = TestConfig.instrumentCommands() ? CommandMetrics.instrument(rawDriver) : rawDriver;
+        DriverSession session = new DriverSession(browser, rawDriver, driver);
+        try {
+            LeanProfile.applyBlocking(session, Collections.emptySet());
+        } catch (RuntimeException e) {
+            session.quit();
+            throw e;
+        }
+        if (TestConfig.bidiEvents()) {
+            session.setNavigationEvents(NavigationEvents.subscribe(rawDriver));
+        }
+        return session;
+    }
+
+    /**
+     * Report the placement and queue time of a checkout to the Grid scheduler
+     *
+     * @param session the session handed out
+     * @param testClass name of the test class, or null
+     * @param start System.nanoTime() when the checkout was requested
+     */
+    private void recordGridCheckout(DriverSession session, String testClass, long start) {
+        if (grid != null) {
+            grid.recordCheckout(testClass, session.getNodeId(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Must be called with the lock held
+     *
+     * @param browser the browser
+     * @return true if the browser may start one more session
+     */
+    private boolean isWithinBudget(Browser browser) {
+        int budget = sessionBudgets.getOrDefault(browser, 0);
+        return budget <= 0 || liveByBrowser.get(browser) < budget;
+    }
+
+    /**
+     * Count a new live session. Must be called with the lock held.
+     *
+     * @param browser the browser of the session
+     */
+    private void occupySlot(Browser browser) {
+        liveSessions++;
+        liveByBrowser.merge(browser, 1, Integer::sum);
+    }
+
+    /**
+     * Render the pool's settings and metrics for the run report
+     *
+     * @return human readable summary
+     */
+    String summary() {
+        return "max size: " + maxSize + ", max uses: " + maxUses + ", prefetch: " + maxPrefetch + budgetSummary()
+            + "\n" + metrics.summary();
+    }
+
+    private String budgetSummary() {
+        lock.lock();
+        try {
+            return sessionBudgets.isEmpty() ? "" : ", session budgets: " + sessionBudgets;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DriverSession pollIdleOtherThan(Browser browser) {
+        for (Map.Entry<Browser, Deque<DriverSession>> entry : idleSessions.entrySet()) {
+            if (entry.getKey() != browser && !entry.getValue().isEmpty()) {
+                return entry.getValue().pollLast();
+            }
+        }
+        return null;
+    }
+
+    private void discard(DriverSession session) {
+        retire(session);
+        releaseSlot(session.getBrowser());
+    }
+
+    /**
+     * Quit a session and stop watching its memory
+     *
+     * @param session the session to quit
+     */
+    private void retire(DriverSession session) {
+        if (watchdog != null) {
+            watchdog.unwatch(session);
+        }
+        session.quit();
+    }
+
+    private void releaseSlot(Browser browser) {
+        lock.lock();
+        try {
+            liveSessions--;
+            liveByBrowser.merge(browser, -1, Integer::sum);
+            sessionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
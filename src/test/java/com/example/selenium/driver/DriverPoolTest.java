@@ -0,0 +1,200 @@
+package com.example.selenium.driver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for checkout, release, prefetching, budgets and eviction of the driver pool, with fake
+ * sessions instead of browsers. These run without a browser.
+ */
+public class DriverPoolTest {
+
+    private final List<FakeSession> started = Collections.synchronizedList(new ArrayList<>());
+    private DriverPool pool;
+
+    @AfterEach
+    public void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that a released session is reset and handed to the next checkout
+     */
+    @Test
+    public void testReleasedSessionIsReused() {
+        pool = new DriverPool(2, 10, 1, 0, this::startFake, null);
+
+        DriverSession first = pool.checkout(Browser.CHROME);
+        pool.release(first, false);
+        DriverSession second = pool.checkout(Browser.CHROME);
+
+        assertSame(first, second);
+        assertEquals(1, started.size());
+        assertEquals(1, started.get(0).resets.get());
+        assertEquals(1, pool.getMetrics().getHits());
+        assertEquals(1, pool.getMetrics().getMisses());
+    }
+
+    /**
+     * Tests that a failed test's session is quit and its replacement started in the background
+     */
+    @Test
+    public void testFailedSessionIsReplacedInBackground() {
+        pool = new DriverPool(2, 10, 5, 1, this::startFake, null);
+
+        DriverSession failed = pool.checkout(Browser.CHROME);
+        pool.release(failed, true);
+        DriverSession next = pool.checkout(Browser.CHROME);
+
+        assertNotSame(failed, next);
+        assertEquals(1, ((FakeSession) failed).quits.get());
+        assertEquals(2, started.size());
+        assertEquals(1, pool.getMetrics().getHits(), "The replacement should come from the prefetch");
+    }
+
+    /**
+     * Tests that a prefetch in flight only holds back one checkout, and further checkouts start
+     * their own session while the pool has room
+     */
+    @Test
+    public void testPrefetchOnlyHoldsBackTheCheckoutsItCovers() throws Exception {
+        CountDownLatch prefetchMayFinish = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        pool = new DriverPool(4, 10, 5, 1, browser -> {
+            if (calls.incrementAndGet() == 2) {
+                await(prefetchMayFinish);
+            }
+            return startFake(browser);
+        }, null);
+        pool.release(pool.checkout(Browser.CHROME), true);
+
+        CompletableFuture<DriverSession> second = CompletableFuture.supplyAsync(() -> pool.checkout(Browser.CHROME));
+        CompletableFuture<DriverSession> third = CompletableFuture.supplyAsync(() -> pool.checkout(Browser.CHROME));
+        CompletableFuture.anyOf(second, third).get(2, TimeUnit.SECONDS);
+        Thread.sleep(200);
+        assertFalse(second.isDone() && third.isDone(), "One checkout should wait for the prefetch");
+
+        prefetchMayFinish.countDown();
+        assertNotSame(second.get(2, TimeUnit.SECONDS), third.get(2, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+    }
+
+    /**
+     * Tests that a browser cannot start sessions beyond its budget while the pool has room
+     */
+    @Test
+    public void testSessionBudget() {
+        pool = new DriverPool(4, 10, 1, 0, this::startFake, null);
+        pool.setSessionBudget(Browser.CHROME, 1);
+
+        DriverSession chrome = pool.checkout(Browser.CHROME);
+        assertThrows(IllegalStateException.class, () -> pool.checkout(Browser.CHROME));
+        DriverSession firefox = pool.checkout(Browser.FIREFOX);
+
+        pool.release(chrome, false);
+        assertSame(chrome, pool.checkout(Browser.CHROME));
+        assertEquals(Browser.FIREFOX, firefox.getBrowser());
+        assertEquals(2, started.size());
+    }
+
+    /**
+     * Tests that a full pool hands the slot of an idle session of another browser to a checkout
+     */
+    @Test
+    public void testFullPoolEvictsIdleSessionOfOtherBrowser() {
+        pool = new DriverPool(1, 10, 1, 0, this::startFake, null);
+
+        DriverSession firefox = pool.checkout(Browser.FIREFOX);
+        pool.release(firefox, false);
+        DriverSession chrome = pool.checkout(Browser.CHROME);
+
+        assertEquals(Browser.CHROME, chrome.getBrowser());
+        assertEquals(1, ((FakeSession) firefox).quits.get());
+        assertThrows(IllegalStateException.class, () -> pool.checkout(Browser.FIREFOX));
+    }
+
+    /**
+     * Tests that a session is quit once it served the maximum number of tests
+     */
+    @Test
+    public void testSessionIsRecycledAfterMaxUses() {
+        pool = new DriverPool(1, 2, 1, 0, this::startFake, null);
+
+        DriverSession session = pool.checkout(Browser.CHROME);
+        pool.release(session, false);
+        assertSame(session, pool.checkout(Browser.CHROME));
+        pool.release(session, false);
+        DriverSession replacement = pool.checkout(Browser.CHROME);
+
+        assertNotSame(session, replacement);
+        assertEquals(1, ((FakeSession) session).quits.get());
+    }
+
+    private DriverSession startFake(Browser browser) {
+        FakeSession session = new FakeSession(browser);
+        started.add(session);
+        return session;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A session without a browser that counts resets and quits
+     */
+    private static final class FakeSession extends DriverSession {
+        private final AtomicInteger resets = new AtomicInteger();
+        private final AtomicInteger quits = new AtomicInteger();
+
+        private FakeSession(Browser browser) {
+            this(browser, fakeDriver());
+        }
+
+        private FakeSession(Browser browser, WebDriver driver) {
+            super(browser, driver, driver);
+        }
+
+        /**
+         * A driver that only knows its window handle, which is all the pool asks of it
+         */
+        private static WebDriver fakeDriver() {
+            return (WebDriver) Proxy.newProxyInstance(DriverPoolTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class},
+                (proxy, method, args) -> "getWindowHandle".equals(method.getName()) ? "main" : null);
+        }
+
+        @Override
+        void reset() {
+            resets.incrementAndGet();
+        }
+
+        @Override
+        void quit() {
+            quits.incrementAndGet();
+            super.quit();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.selenium.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * Binds the browser session of the running test to the current thread.
+ *
+ * With JUnit parallel execution several tests run at once on different worker threads.
+ * Each worker only ever sees its own session through this scope, so tests and page
+ * objects can never pick up a driver that belongs to another test.
+ */
+public final class DriverScope {
+
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    private DriverScope() {
+    }
+
+    /**
+     * Bind a session to the current thread
+     *
+     * @param session the session checked out for the running test
+     * @param waitTimeout timeout for the scope's default WebDriverWait
+     */
+    public static void bind(DriverSession session, Duration waitTimeout) {
+        current.set(new Scope(session, new WebDriverWait(session.getDriver(), waitTimeout)));
+    }
+
+    /**
+     * Remove the binding of the current thread
+     *
+     * @return the session that was bound, or null if there was none
+     */
+    public static DriverSession unbind() {
+        Scope scope = current.get();
+        current.remove();
+        return scope == null ? null : scope.session;
+    }
+
+    /**
+     * Check whether a session is bound to the current thread
+     *
+     * @return true if a session is bound
+     */
+    public static boolean isBound() {
+        return current.get() != null;
+    }
+
+    /**
+     * Record whether the test running on the current thread failed
+     *
+     * @param failed true if the test body threw an exception
+     */
+    public static void markTestFailed(boolean failed) {
+        require().testFailed = failed;
+    }
+
+    /**
+     * Check whether the test running on the current thread failed
+     *
+     * @return true if the test was marked as failed
+     */
+    public static boolean isTestFailed() {
+        return require().testFailed;
+    }
+
+    /**
+     * Get the session bound to the current thread
+     *
+     * @return the current session
+     */
+    public static DriverSession session() {
+        return require().session;
+    }
+
+    /**
+     * Get the driver bound to the current thread
+     *
+     * @return the current WebDriver
+     */
+    public static WebDriver driver() {
+        return require().session.getDriver();
+    }
+
+    /**
+     * Get the default wait for the driver bound to the current thread
+     *
+     * @return the current WebDriverWait
+     */
+    public static WebDriverWait await() {
+        return require().wait;
+    }
+
+    private static Scope require() {
+        Scope scope = current.get();
+        if (scope == null) {
+            throw new IllegalStateException("No browser session is bound to thread " + Thread.currentThread().getName());
+        }
+        return scope;
+    }
+
+    private static final class Scope {
+        private final DriverSession session;
+        private final WebDriverWait wait;
+        private boolean testFailed;
+
+        private Scope(DriverSession session, WebDriverWait wait) {
+            this.session = session;
+            this.wait = wait;
+        }
+    }
+}
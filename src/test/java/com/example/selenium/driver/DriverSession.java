@@ -0,0 +1,335 @@
+package com.example.selenium.driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.BiDi;
+import org.openqa.selenium.bidi.Command;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * A browser session owned by the {@link DriverPool}. Tracks how often the session
+ * has been handed out and knows how to return the browser to a clean state.
+ */
+public class DriverSession {
+
+    private static final Logger logger = Logger.getLogger(DriverSession.class.getName());
+
+    private static final String BLANK_PAGE = "about:blank";
+
+    // Small resource loaded to reach an origin's cookies when they can only be cleared per document
+    private static final String COOKIE_PATH = "/favicon.ico";
+
+    // Lets page objects, which only hold a driver, find the session behind it
+    private static final Map<WebDriver, DriverSession> sessionsByDriver =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final Browser browser;
+    private final WebDriver rawDriver;
+    private final WebDriver driver;
+    private final String primaryWindow;
+    private final long createdAtMillis = System.currentTimeMillis();
+    private int useCount;
+    private Set<ResourceType> blockedResources;
+    private long startupNanos;
+    private long readyAtNanos;
+    private boolean prefetched;
+    private NavigationEvents navigationEvents;
+    private String nodeId;
+    private long checkedOutAtNanos;
+    // Origins opened through page objects since the last reset
+    private final Set<String> visitedOrigins = Collections.synchronizedSet(new HashSet<>());
+
+    /**
+     * Constructor for DriverSession
+     *
+     * @param browser the browser this session runs
+     * @param rawDriver the WebDriver controlling the browser
+     * @param driver the driver handed to tests, usually rawDriver wrapped with instrumentation
+     */
+    DriverSession(Browser browser, WebDriver rawDriver, WebDriver driver) {
+        this.browser = browser;
+        this.rawDriver = rawDriver;
+        this.driver = driver;
+        this.primaryWindow = rawDriver.getWindowHandle();
+        sessionsByDriver.put(rawDriver, this);
+        sessionsByDriver.put(driver, this);
+    }
+
+    /**
+     * Find the pooled session a driver belongs to
+     *
+     * @param driver the raw or decorated driver of a session
+     * @return the session, or null if the driver is not managed by the pool
+     */
+    public static DriverSession forDriver(WebDriver driver) {
+        return sessionsByDriver.get(driver);
+    }
+
+    public Browser getBrowser() {
+        return browser;
+    }
+
+    /**
+     * Get the driver tests should use
+     *
+     * @return the (possibly instrumented) WebDriver
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Get the undecorated driver, e.g. to reach browser specific interfaces such as HasCdp
+     *
+     * @return the WebDriver created by the DriverFactory
+     */
+    public WebDriver getRawDriver() {
+        return rawDriver;
+    }
+
+    /**
+     * Navigation events pushed by the browser
+     *
+     * @return the subscription, or null if the browser was started without BiDi
+     */
+    public NavigationEvents getNavigationEvents() {
+        return navigationEvents;
+    }
+
+    void setNavigationEvents(NavigationEvents navigationEvents) {
+        this.navigationEvents = navigationEvents;
+    }
+
+    /**
+     * The Selenium Grid node the session runs on
+     *
+     * @return the node id, or null for a local session or if the Grid did not report it
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getUseCount() {
+        return useCount;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Resource types the lean profile currently blocks in this session
+     *
+     * @return the blocked types, or null if blocking was never set up
+     */
+    Set<ResourceType> getBlockedResources() {
+        return blockedResources;
+    }
+
+    void setBlockedResources(Set<ResourceType> blockedResources) {
+        this.blockedResources = blockedResources;
+    }
+
+    /**
+     * Mark the session as started speculatively by the pool, before any test asked for it
+     *
+     * @param startupNanos how long starting the browser took
+     * @param readyAtNanos System.nanoTime() when the session became available
+     */
+    void markPrefetched(long startupNanos, long readyAtNanos) {
+        this.prefetched = true;
+        this.startupNanos = startupNanos;
+        this.readyAtNanos = readyAtNanos;
+    }
+
+    /**
+     * Whether the session was prefetched and has not served a test yet
+     *
+     * @return true for an unused prefetched session
+     */
+    boolean isUnusedPrefetch() {
+        return prefetched && useCount == 0;
+    }
+
+    long getStartupNanos() {
+        return startupNanos;
+    }
+
+    long getReadyAtNanos() {
+        return readyAtNanos;
+    }
+
+    /**
+     * Record that the session has been handed out to a test
+     */
+    void markUsed() {
+        useCount++;
+        checkedOutAtNanos = System.nanoTime();
+    }
+
+    /**
+     * When the session was last handed out
+     *
+     * @return System.nanoTime() of the last checkout
+     */
+    long getCheckedOutAtNanos() {
+        return checkedOutAtNanos;
+    }
+
+    /**
+     * Record that the session is about to load a URL, so {@link #reset()} can clear the cookies
+     * of its origin in browsers that only clear cookies per document
+     *
+     * @param url the URL being opened
+     */
+    public void noteVisit(String url) {
+        String origin = originOf(url);
+        if (origin != null) {
+            visitedOrigins.add(origin);
+        }
+    }
+
+    /**
+     * The origin of an http(s) URL
+     *
+     * @param url the URL
+     * @return scheme, host and port of the URL, or null for other URLs such as about:blank
+     */
+    static String originOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url);
+            if (uri.getHost() == null
+                || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+                return null;
+            }
+            return uri.getScheme().toLowerCase() + "://" + uri.getHost().toLowerCase()
+                + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Return the browser to a clean state: close any extra windows, clear cookies and
+     * web storage, and park the remaining window on about:blank. Uses the raw driver so
+     * housekeeping does not show up in the command metrics.
+     *
+     * WebDriver's deleteAllCookies only reaches the current document's domain. Chrome clears
+     * every cookie over DevTools, browsers with BiDi (Firefox) over storage.deleteCookies. Where
+     * neither works, each origin visited since the last reset is loaded and cleared in turn;
+     * without BiDi only origins opened through page objects are known, not those reached by a click.
+     */
+    void reset() {
+        // Close every window the test opened, keeping the original one
+        Set<String> handles = rawDriver.getWindowHandles();
+        for (String handle : handles) {
+            if (!handle.equals(primaryWindow)) {
+                rawDriver.switchTo().window(handle).close();
+            }
+        }
+        rawDriver.switchTo().window(primaryWindow);
+
+        // Web storage is scoped to the current origin, so clear it before leaving the page
+        try {
+            ((JavascriptExecutor) rawDriver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        } catch (RuntimeException e) {
+            logger.fine("Could not clear web storage: " + e.getMessage());
+        }
+
+        Set<String> origins = takeVisitedOrigins();
+        rawDriver.manage().deleteAllCookies();
+        if (rawDriver instanceof HasCdp) {
+            ((HasCdp) rawDriver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        } else if (!deleteCookiesOverBiDi()) {
+            origins.remove(originOf(rawDriver.getCurrentUrl()));
+            for (String origin : origins) {
+                rawDriver.get(origin + COOKIE_PATH);
+                rawDriver.manage().deleteAllCookies();
+            }
+        }
+
+        rawDriver.get(BLANK_PAGE);
+
+        // Undo any per-page allowlist so the next test starts with the full block list
+        LeanProfile.applyBlocking(this, Collections.emptySet());
+    }
+
+    /**
+     * The origins visited since the last reset, as noted by page objects and reported by
+     * navigation events
+     *
+     * @return the origins, no longer tracked by the session
+     */
+    private Set<String> takeVisitedOrigins() {
+        Set<String> origins;
+        synchronized (visitedOrigins) {
+            origins = new HashSet<>(visitedOrigins);
+            visitedOrigins.clear();
+        }
+        if (navigationEvents != null) {
+            origins.addAll(navigationEvents.takeVisitedOrigins());
+        }
+        return origins;
+    }
+
+    /**
+     * Delete the cookies of every origin over WebDriver BiDi. Without a partition the command
+     * applies to the browser's default storage partition, which holds the cookies of all sites.
+     *
+     * @return false if the session has no BiDi connection or the browser does not support the command
+     */
+    private boolean deleteCookiesOverBiDi() {
+        Optional<BiDi> bidi = rawDriver instanceof HasBiDi ? ((HasBiDi) rawDriver).maybeGetBiDi() : Optional.empty();
+        if (!bidi.isPresent()) {
+            return false;
+        }
+        try {
+            bidi.get().send(new Command<>("storage.deleteCookies", Collections.emptyMap()));
+            return true;
+        } catch (WebDriverException e) {
+            logger.fine("Could not delete cookies over BiDi: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Quit the browser, ignoring errors from sessions that already died
+     */
+    void quit() {
+        sessionsByDriver.remove(rawDriver);
+        sessionsByDriver.remove(driver);
+        if (navigationEvents != null) {
+            navigationEvents.close();
+        }
+        try {
+            rawDriver.quit();
+        } catch (RuntimeException e) {
+            logger.warning("Error quitting " + browser + " session: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return browser + " session (uses: " + useCount + (nodeId != null ? ", node: " + nodeId : "") + ")";
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.selenium.driver;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.config.TestConfig;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for returning a pooled session to a clean state. The session visits two origins served
+ * by a local server, localhost and 127.0.0.1, so the browser has to reach the test's loopback
+ * server and these do not run on a Grid.
+ */
+@DisabledIfSystemProperty(named = TestConfig.GRID_URL, matches = ".+")
+public class DriverSessionTest extends BaseTest {
+
+    private static final String COOKIE_NAME = "pooled";
+
+    private HttpServer server;
+    private int port;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", DriverSessionTest::respond);
+        server.start();
+        port = server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Tests that reset clears the cookies of an origin the session left before the reset, not
+     * just those of the current document
+     */
+    @Test
+    public void testResetClearsCookiesOfEveryVisitedOrigin() {
+        String firstOrigin = "http://localhost:" + port;
+        String secondOrigin = "http://127.0.0.1:" + port;
+        DriverSession session = DriverScope.session();
+
+        setCookie(session, firstOrigin);
+        setCookie(session, secondOrigin);
+        getDriver().get(firstOrigin + "/page");
+        assertNotNull(getDriver().manage().getCookieNamed(COOKIE_NAME), "The cookie should be set before the reset");
+
+        session.reset();
+
+        assertNull(cookieOf(firstOrigin), "Cookie of the origin open during the reset should be cleared");
+        assertNull(cookieOf(secondOrigin), "Cookie of an origin visited earlier should be cleared");
+    }
+
+    /**
+     * Open a page of the origin the way page objects do and set a cookie on it
+     *
+     * @param session the session of the test
+     * @param origin the origin to set the cookie for
+     */
+    private void setCookie(DriverSession session, String origin) {
+        session.noteVisit(origin + "/page");
+        getDriver().get(origin + "/page");
+        getDriver().manage().addCookie(new Cookie(COOKIE_NAME, "1"));
+    }
+
+    private Cookie cookieOf(String origin) {
+        WebDriver driver = getDriver();
+        driver.get(origin + "/page");
+        return driver.manage().getCookieNamed(COOKIE_NAME);
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        byte[] bytes = "<html><body><h1>Cookies</h1></body></html>".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
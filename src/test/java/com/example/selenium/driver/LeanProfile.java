@@ -0,0 +1,129 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.config.TestConfig;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * The "lean" browser profile (-Dselenium.profile=lean): headless browsers that skip the
+ * subresources our assertions never look at.
+ *
+ * Chrome blocks requests at runtime through the DevTools Network domain, so a page object
+ * can allow some resource types back for its own navigation (see BasePage#allowedResources).
+ * Firefox has no equivalent without a proxy, so it uses launch-time prefs and ignores
+ * per-page allowlists and URL patterns.
+ */
+public final class LeanProfile {
+
+    private static final Logger logger = Logger.getLogger(LeanProfile.class.getName());
+
+    private static final Set<ResourceType> BLOCKED_TYPES = ResourceType.parse(TestConfig.leanBlockTypes());
+    private static final List<String> BLOCKED_URLS = Arrays.stream(TestConfig.leanBlockUrls().split(","))
+        .map(String::trim)
+        .filter(pattern -> !pattern.isEmpty())
+        .collect(Collectors.toList());
+
+    private LeanProfile() {
+    }
+
+    /**
+     * Whether the lean profile is active for this run
+     *
+     * @return true if -Dselenium.profile=lean
+     */
+    public static boolean isActive() {
+        return TestConfig.leanProfile();
+    }
+
+    /**
+     * Add the lean launch options to Chrome options
+     *
+     * @param options the options to modify
+     */
+    static void apply(ChromeOptions options) {
+        // --start-maximized has no effect without a window, so set the size explicitly
+        options.addArguments("--headless=new");
+        options.addArguments("--window-size=1920,1080");
+    }
+
+    /**
+     * Add the lean launch options and blocking prefs to Firefox options
+     *
+     * @param options the options to modify
+     */
+    static void apply(FirefoxOptions options) {
+        options.addArguments("-headless");
+        if (BLOCKED_TYPES.contains(ResourceType.IMAGE)) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (BLOCKED_TYPES.contains(ResourceType.FONT)) {
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        if (BLOCKED_TYPES.contains(ResourceType.MEDIA)) {
+            options.addPreference("media.autoplay.default", 5);
+            options.addPreference("media.preload.default", 0);
+        }
+        if (BLOCKED_TYPES.contains(ResourceType.STYLESHEET)) {
+            logger.warning("Firefox cannot block stylesheets through prefs; loading them");
+        }
+    }
+
+    /**
+     * Block the configured resources in a session, except the given types. Only sends a
+     * DevTools command when the effective block list changes.
+     *
+     * @param session the session to configure
+     * @param allowed resource types to load anyway
+     */
+    static void applyBlocking(DriverSession session, Set<ResourceType> allowed) {
+        if (!isActive() || !(session.getRawDriver() instanceof HasCdp)) {
+            return;
+        }
+        Set<ResourceType> blocked = EnumSet.noneOf(ResourceType.class);
+        blocked.addAll(BLOCKED_TYPES);
+        blocked.removeAll(allowed);
+        if (blocked.equals(session.getBlockedResources())) {
+            return;
+        }
+
+        List<String> patterns = new ArrayList<>(BLOCKED_URLS);
+        for (ResourceType type : blocked) {
+            patterns.addAll(type.getUrlPatterns());
+        }
+        HasCdp cdp = (HasCdp) session.getRawDriver();
+        if (session.getBlockedResources() == null) {
+            cdp.executeCdpCommand("Network.enable", Collections.emptyMap());
+        }
+        cdp.executeCdpCommand("Network.setBlockedURLs", Collections.singletonMap("urls", patterns));
+        session.setBlockedResources(blocked);
+        logger.fine("Blocking " + blocked + " and " + BLOCKED_URLS.size() + " URL patterns in " + session);
+    }
+
+    /**
+     * Allow resource types for the next navigation of the session that owns a driver
+     *
+     * @param driver the driver of a pooled session (raw or decorated)
+     * @param allowed resource types the page needs
+     */
+    public static void allow(WebDriver driver, Set<ResourceType> allowed) {
+        if (!isActive()) {
+            return;
+        }
+        DriverSession session = DriverSession.forDriver(driver);
+        if (session != null) {
+            applyBlocking(session, allowed);
+        }
+    }
+}
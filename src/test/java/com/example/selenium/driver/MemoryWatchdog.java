@@ -0,0 +1,314 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.support.ProcessTree;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Watches the memory of pooled browsers so sessions that leak are recycled before they slow
+ * the machine down.
+ *
+ * A background thread samples the resident memory of each browser's process tree through /proc
+ * (Linux only). Between tests the pool also reads the JS heap of the page the test left behind
+ * (Chrome only, from performance.memory). A session over either limit is recycled by
+ * {@link DriverPool#release} at its next test boundary, never while a test is using it.
+ */
+final class MemoryWatchdog {
+
+    private static final Logger logger = Logger.getLogger(MemoryWatchdog.class.getName());
+
+    private static final long MEGABYTE = 1024L * 1024L;
+    // Sessions listed in the run report, largest peak first
+    private static final int REPORTED_SESSIONS = 10;
+
+    private static final String JS_HEAP_SCRIPT =
+        "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : null;";
+
+    private final long maxRssBytes;
+    private final long maxJsHeapBytes;
+    private final Map<DriverSession, SessionMemory> watched = new ConcurrentHashMap<>();
+    private final Queue<SessionMemory> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sessionNumbers = new AtomicInteger();
+    private final ScheduledExecutorService sampler;
+
+    /**
+     * Constructor for MemoryWatchdog
+     *
+     * @param maxRssMb process tree RSS above which a session is recycled, 0 for no limit
+     * @param maxJsHeapMb JS heap above which a session is recycled, 0 for no limit
+     * @param sampleIntervalMillis interval of the background RSS sampling, 0 to sample only between tests
+     */
+    MemoryWatchdog(int maxRssMb, int maxJsHeapMb, int sampleIntervalMillis) {
+        this.maxRssBytes = maxRssMb * MEGABYTE;
+        this.maxJsHeapBytes = maxJsHeapMb * MEGABYTE;
+        if (sampleIntervalMillis > 0 && ProcessTree.isSupported()) {
+            sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "memory-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleWithFixedDelay(this::sampleAll, sampleIntervalMillis, sampleIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        } else {
+            sampler = null;
+        }
+    }
+
+    /**
+     * Create the watchdog configured by the selenium.memory.* properties
+     *
+     * @return the watchdog, or null if it is disabled
+     */
+    static MemoryWatchdog fromConfig() {
+        if (!TestConfig.memoryWatchdog()) {
+            return null;
+        }
+        return new MemoryWatchdog(TestConfig.memoryMaxRssMb(), TestConfig.memoryMaxJsHeapMb(),
+            TestConfig.memorySampleIntervalMillis());
+    }
+
+    /**
+     * Start watching a new session
+     *
+     * @param session a session that was just started
+     */
+    void watch(DriverSession session) {
+        long rootPid = ProcessTree.isSupported() ? browserPid(session) : -1;
+        if (rootPid < 0 && ProcessTree.isSupported()) {
+            logger.fine("Could not find the browser process of " + session + ", watching its JS heap only");
+        }
+        SessionMemory memory = new SessionMemory(session.getBrowser() + " #" + sessionNumbers.incrementAndGet(),
+            rootPid);
+        watched.put(session, memory);
+        sampleRss(memory);
+    }
+
+    /**
+     * Stop watching a session that is being quit and keep its memory curve for the report
+     *
+     * @param session the session being quit
+     */
+    void unwatch(DriverSession session) {
+        SessionMemory memory = watched.remove(session);
+        if (memory != null) {
+            finished.add(memory);
+        }
+    }
+
+    /**
+     * Sample a session between tests. Reads the JS heap through the driver, so it must only be
+     * called while no test uses the session.
+     *
+     * @param session a session that was just released by a test
+     * @return true if the session is over a memory limit and should be recycled
+     */
+    boolean isOverLimitAtTestBoundary(DriverSession session) {
+        SessionMemory memory = watched.get(session);
+        if (memory == null) {
+            return false;
+        }
+        long jsHeap = -1;
+        try {
+            Object used = ((JavascriptExecutor) session.getRawDriver()).executeScript(JS_HEAP_SCRIPT);
+            if (used instanceof Number) {
+                jsHeap = ((Number) used).longValue();
+            }
+        } catch (RuntimeException e) {
+            logger.fine("Could not read the JS heap of " + memory.label + ": " + e.getMessage());
+        }
+        long rss = memory.rootPid >= 0 ? ProcessTree.treeRssBytes(memory.rootPid) : -1;
+        memory.record(rss, jsHeap);
+
+        long recentRss = memory.takeMaxRssSinceCheck();
+        String reason = null;
+        if (maxRssBytes > 0 && recentRss > maxRssBytes) {
+            reason = "RSS " + recentRss / MEGABYTE + " MB exceeds " + maxRssBytes / MEGABYTE + " MB";
+        } else if (maxJsHeapBytes > 0 && jsHeap > maxJsHeapBytes) {
+            reason = "JS heap " + jsHeap / MEGABYTE + " MB exceeds " + maxJsHeapBytes / MEGABYTE + " MB";
+        }
+        if (reason == null) {
+            return false;
+        }
+        logger.info("Recycling " + memory.label + ": " + reason);
+        memory.recycled = true;
+        return true;
+    }
+
+    /**
+     * Stop background sampling
+     */
+    void shutdown() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    private void sampleAll() {
+        for (SessionMemory memory : watched.values()) {
+            sampleRss(memory);
+        }
+    }
+
+    private void sampleRss(SessionMemory memory) {
+        if (memory.rootPid >= 0) {
+            long rss = ProcessTree.treeRssBytes(memory.rootPid);
+            if (rss >= 0) {
+                memory.record(rss, -1);
+            }
+        }
+    }
+
+    /**
+     * Find the pid of the browser process: Firefox reports it as a capability, Chrome is
+     * found by the user data dir chromedriver created for it.
+     *
+     * @param session the session
+     * @return the pid, or -1 if it cannot be determined
+     */
+    private static long browserPid(DriverSession session) {
+        if (!(session.getRawDriver() instanceof HasCapabilities)) {
+            return -1;
+        }
+        Capabilities capabilities = ((HasCapabilities) session.getRawDriver()).getCapabilities();
+        Object firefoxPid = capabilities.getCapability("moz:processID");
+        if (firefoxPid instanceof Number) {
+            return ((Number) firefoxPid).longValue();
+        }
+        Object chrome = capabilities.getCapability("chrome");
+        if (chrome instanceof Map && ((Map<?, ?>) chrome).get("userDataDir") != null) {
+            return ProcessTree.findByArgument("--user-data-dir=" + ((Map<?, ?>) chrome).get("userDataDir"), "--type=");
+        }
+        return -1;
+    }
+
+    /**
+     * Render the memory curves of the sessions with the highest peaks for the run report
+     *
+     * @return human readable summary
+     */
+    String summary() {
+        List<SessionMemory> sessions = new ArrayList<>(finished);
+        sessions.addAll(watched.values());
+        if (sessions.isEmpty()) {
+            return "no sessions watched";
+        }
+        long recycled = sessions.stream().filter(memory -> memory.recycled).count();
+        sessions.sort(Comparator.comparingLong(SessionMemory::peakRss).reversed());
+
+        StringBuilder summary = new StringBuilder(String.format(
+            "limits: RSS %s, JS heap %s; sessions: %d, recycled for memory: %d%n"
+                + "%-12s %10s %12s  %s%n",
+            limit(maxRssBytes), limit(maxJsHeapBytes), sessions.size(), recycled,
+            "session", "peak RSS", "peak JS heap", "RSS curve (seconds since start: MB)"));
+        for (SessionMemory memory : sessions.subList(0, Math.min(REPORTED_SESSIONS, sessions.size()))) {
+            summary.append(String.format("%-12s %10s %12s  %s%s%n", memory.label, megabytes(memory.peakRss()),
+                megabytes(memory.peakJsHeap), memory.curve(), memory.recycled ? " (recycled)" : ""));
+        }
+        if (!ProcessTree.isSupported()) {
+            summary.append("RSS is only sampled on Linux");
+        }
+        return summary.toString().trim();
+    }
+
+    private static String limit(long bytes) {
+        return bytes > 0 ? bytes / MEGABYTE + " MB" : "none";
+    }
+
+    private static String megabytes(long bytes) {
+        return bytes < 0 ? "-" : bytes / MEGABYTE + " MB";
+    }
+
+    /**
+     * Memory samples of one session. The RSS curve keeps at most MAX_POINTS points; when it is
+     * full every other point is dropped, so long-lived sessions keep an even outline.
+     */
+    private static final class SessionMemory {
+        private static final int MAX_POINTS = 64;
+        // Points shown per session in the run report
+        private static final int REPORTED_POINTS = 8;
+
+        private final String label;
+        private final long rootPid;
+        private final long startMillis = System.currentTimeMillis();
+        private final List<long[]> rssCurve = new ArrayList<>();
+        private long maxRssSinceCheck = -1;
+        private long peakJsHeap = -1;
+        private volatile boolean recycled;
+
+        private SessionMemory(String label, long rootPid) {
+            this.label = label;
+            this.rootPid = rootPid;
+        }
+
+        private synchronized void record(long rss, long jsHeap) {
+            if (rss >= 0) {
+                maxRssSinceCheck = Math.max(maxRssSinceCheck, rss);
+                if (rssCurve.size() == MAX_POINTS) {
+                    for (int i = rssCurve.size() - 1; i > 0; i -= 2) {
+                        rssCurve.remove(i);
+                    }
+                }
+                rssCurve.add(new long[] {System.currentTimeMillis() - startMillis, rss});
+            }
+            peakJsHeap = Math.max(peakJsHeap, jsHeap);
+        }
+
+        /**
+         * Highest RSS sampled since the previous test boundary, so a peak seen by the
+         * background sampler during a test is not missed
+         *
+         * @return the RSS in bytes, -1 if not sampled since
+         */
+        private synchronized long takeMaxRssSinceCheck() {
+            long max = maxRssSinceCheck;
+            maxRssSinceCheck = -1;
+            return max;
+        }
+
+        private synchronized long peakRss() {
+            long peak = -1;
+            for (long[] point : rssCurve) {
+                peak = Math.max(peak, point[1]);
+            }
+            return peak;
+        }
+
+        private synchronized String curve() {
+            if (rssCurve.isEmpty()) {
+                return "-";
+            }
+            StringBuilder curve = new StringBuilder();
+            int step = Math.max(1, (rssCurve.size() + REPORTED_POINTS - 1) / REPORTED_POINTS);
+            for (int i = 0; i < rssCurve.size(); i += step) {
+                appendPoint(curve, rssCurve.get(i));
+            }
+            if ((rssCurve.size() - 1) % step != 0) {
+                appendPoint(curve, rssCurve.get(rssCurve.size() - 1));
+            }
+            return curve.toString();
+        }
+
+        private static void appendPoint(StringBuilder curve, long[] point) {
+            if (curve.length() > 0) {
+                curve.append(' ');
+            }
+            curve.append(point[0] / 1000).append("s:").append(point[1] / MEGABYTE);
+        }
+    }
+}
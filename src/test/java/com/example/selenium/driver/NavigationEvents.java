@@ -0,0 +1,291 @@
+package com.example.selenium.driver;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+import com.example.selenium.support.Scripts;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.BrowsingContextInspector;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.Script;
+import org.openqa.selenium.bidi.browsingcontext.NavigationInfo;
+import org.openqa.selenium.bidi.script.ChannelValue;
+import org.openqa.selenium.bidi.script.Message;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Navigation events of one browser session, pushed by the browser over WebDriver BiDi.
+ *
+ * The browser reports when a navigation starts, when its DOM content has loaded and when a
+ * fragment navigation happens. Page objects use {@link #awaitSettled} to wait for the document
+ * they expect instead of polling the URL: the wait returns as soon as the event arrives, and
+ * returns immediately if the current document already matches and no navigation is in flight.
+ *
+ * With selenium.elementCache, a preload script also reports DOM mutations of every document over
+ * a BiDi channel. Every navigation event and every reported mutation advances the context's
+ * document generation (see {@link #getDocumentGeneration}), which tells element caches that
+ * their handles may no longer match without a round trip to the browser.
+ */
+public class NavigationEvents implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(NavigationEvents.class.getName());
+
+    private static final String MUTATION_CHANNEL = "selenium-dom-mutations";
+
+    private static final LongAdder immediate = new LongAdder();
+    private static final LongAdder awaited = new LongAdder();
+    private static final LongAdder awaitedMicros = new LongAdder();
+    private static final LongAdder timedOut = new LongAdder();
+
+    static {
+        RunReport.register("Navigation events", NavigationEvents::summary);
+    }
+
+    private final BrowsingContextInspector inspector;
+    private final Script script;
+    private final boolean trackingMutations;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, ContextState> contexts = new HashMap<>();
+    // Origins of the documents loaded since the last reset, see DriverSession#reset
+    private final Set<String> visitedOrigins = new HashSet<>();
+    private long sequence;
+
+    private NavigationEvents(BrowsingContextInspector inspector, Script script) {
+        this.inspector = inspector;
+        this.script = script;
+        inspector.onNavigationStarted(info -> update(info, false));
+        inspector.onDomContentLoaded(info -> update(info, true));
+        inspector.onFragmentNavigated(info -> update(info, true));
+        this.trackingMutations = script != null && observeMutations(script);
+    }
+
+    /**
+     * Install the preload script that reports DOM mutations of new documents
+     *
+     * @param script the BiDi script module of the session
+     * @return false if the browser does not support preload scripts or channels
+     */
+    private boolean observeMutations(Script script) {
+        try {
+            script.onMessage(this::mutated);
+            script.addPreloadScript(Scripts.get("dom-mutations.js"),
+                Collections.singletonList(new ChannelValue(MUTATION_CHANNEL)));
+            return true;
+        } catch (RuntimeException e) {
+            logger.info("DOM mutations are not reported, element caches are off: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Subscribe to the navigation events of a browser started with the webSocketUrl capability
+     * and, when element caches are on, to its DOM mutations
+     *
+     * @param rawDriver the undecorated driver of the session
+     * @return the subscription, or null if the browser does not offer BiDi
+     */
+    static NavigationEvents subscribe(WebDriver rawDriver) {
+        if (!(rawDriver instanceof HasBiDi) || !((HasBiDi) rawDriver).maybeGetBiDi().isPresent()) {
+            return null;
+        }
+        try {
+            // Mutation reports stream every DOM change to the JVM, so only pay for them when a cache uses them
+            Script script = TestConfig.elementCache() ? new Script(rawDriver) : null;
+            return new NavigationEvents(new BrowsingContextInspector(rawDriver), script);
+        } catch (RuntimeException e) {
+            logger.warning("Could not subscribe to navigation events: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Find the navigation events of the session a driver belongs to
+     *
+     * @param driver the raw or decorated driver of a pooled session
+     * @return the events, or null if the session has no BiDi subscription
+     */
+    public static NavigationEvents forDriver(WebDriver driver) {
+        DriverSession session = DriverSession.forDriver(driver);
+        return session == null ? null : session.getNavigationEvents();
+    }
+
+    private void update(NavigationInfo info, boolean documentReady) {
+        lock.lock();
+        try {
+            ContextState state = contexts.computeIfAbsent(info.getBrowsingContextId(), id -> new ContextState());
+            sequence++;
+            state.generation++;
+            if (documentReady) {
+                state.readyUrl = info.getUrl();
+                state.readySequence = sequence;
+                state.readyNavigation = info.getNavigationId();
+                String origin = DriverSession.originOf(info.getUrl());
+                if (origin != null) {
+                    visitedOrigins.add(origin);
+                }
+            } else {
+                state.startedSequence = sequence;
+                state.startedNavigation = info.getNavigationId();
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand over the origins of the documents loaded since the last call
+     *
+     * @return the http(s) origins the session's windows loaded documents from
+     */
+    Set<String> takeVisitedOrigins() {
+        lock.lock();
+        try {
+            Set<String> origins = new HashSet<>(visitedOrigins);
+            visitedOrigins.clear();
+            return origins;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void mutated(Message message) {
+        if (!MUTATION_CHANNEL.equals(message.getChannel()) || message.getSource() == null) {
+            return;
+        }
+        message.getSource().getBrowsingContext().ifPresent(context -> {
+            lock.lock();
+            try {
+                contexts.computeIfAbsent(context, id -> new ContextState()).generation++;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Whether DOM mutations are reported, i.e. whether {@link #getDocumentGeneration} also
+     * changes when a script modifies the document
+     *
+     * @return true if the mutation preload script is installed
+     */
+    public boolean isTrackingMutations() {
+        return trackingMutations;
+    }
+
+    /**
+     * Counter that advances with every navigation event and every reported DOM mutation in a
+     * browsing context. Element handles found while it had a value are still the elements their
+     * locators match as long as it keeps that value.
+     *
+     * @param context the browsing context, i.e. the window handle of the top-level window
+     * @return the current generation, 0 before the first event
+     */
+    public long getDocumentGeneration(String context) {
+        lock.lock();
+        try {
+            ContextState state = contexts.get(context);
+            return state == null ? 0 : state.generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the document in a browsing context has loaded its DOM content at a URL the
+     * predicate accepts, with no newer navigation in flight
+     *
+     * @param context the browsing context, i.e. the window handle of the top-level window
+     * @param expectedUrl accepts the URL of the document being waited for
+     * @param timeout how long to wait
+     * @return the URL of the settled document, or null if no matching document settled in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public String awaitSettled(String context, Predicate<String> expectedUrl, Duration timeout)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long remaining = timeout.toNanos();
+        boolean waited = false;
+        lock.lock();
+        try {
+            while (true) {
+                ContextState state = contexts.get(context);
+                if (state != null && state.isSettled() && expectedUrl.test(state.readyUrl)) {
+                    if (waited) {
+                        awaited.increment();
+                        awaitedMicros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    } else {
+                        immediate.increment();
+                    }
+                    return state.readyUrl;
+                }
+                if (remaining <= 0) {
+                    timedOut.increment();
+                    return null;
+                }
+                waited = true;
+                remaining = changed.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop receiving events
+     */
+    @Override
+    public void close() {
+        try {
+            inspector.close();
+            if (script != null) {
+                script.close();
+            }
+        } catch (RuntimeException e) {
+            logger.fine("Error closing navigation event subscription: " + e.getMessage());
+        }
+    }
+
+    static String summary() {
+        long awaitedCount = awaited.sum();
+        return String.format("already settled: %d, awaited: %d (avg %.1f ms), timed out: %d",
+            immediate.sum(), awaitedCount,
+            awaitedCount == 0 ? 0 : awaitedMicros.sum() / 1000.0 / awaitedCount, timedOut.sum());
+    }
+
+    /**
+     * Latest navigation events of one browsing context
+     */
+    private static final class ContextState {
+        private String readyUrl;
+        private long readySequence;
+        private String readyNavigation;
+        private long startedSequence;
+        private String startedNavigation;
+        private long generation;
+
+        /**
+         * The document is settled if no navigation started after it became ready, or the last
+         * started navigation is the one that became ready
+         *
+         * @return true if no navigation is in flight
+         */
+        private boolean isSettled() {
+            return readyUrl != null && (startedSequence < readySequence
+                || (startedNavigation != null && startedNavigation.equals(readyNavigation)));
+        }
+    }
+}
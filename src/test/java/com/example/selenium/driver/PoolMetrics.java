@@ -0,0 +1,149 @@
+package com.example.selenium.driver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing how well the {@link DriverPool} is sized: how often a warm session
+ * was available, how long tests waited for one, how long resetting sessions took, and how
+ * much browser startup time prefetching hid from the tests.
+ */
+public class PoolMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder checkoutWaitNanos = new LongAdder();
+    private final AtomicLong maxCheckoutWaitNanos = new AtomicLong();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder resetNanos = new LongAdder();
+    private final AtomicLong maxResetNanos = new AtomicLong();
+    private final LongAdder recycledForUses = new LongAdder();
+    private final LongAdder recycledForFailure = new LongAdder();
+    private final LongAdder recycledForResetError = new LongAdder();
+    private final LongAdder recycledForMemory = new LongAdder();
+    private final LongAdder prefetchesStarted = new LongAdder();
+    private final LongAdder prefetchesUsed = new LongAdder();
+    private final LongAdder prefetchesFailed = new LongAdder();
+    private final LongAdder prefetchesWasted = new LongAdder();
+    private final LongAdder prefetchStartupNanos = new LongAdder();
+    private final LongAdder prefetchHiddenNanos = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordCheckoutWait(long nanos) {
+        checkouts.increment();
+        checkoutWaitNanos.add(nanos);
+        maxCheckoutWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void recordReset(long nanos) {
+        resets.increment();
+        resetNanos.add(nanos);
+        maxResetNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void recordRecycledForUses() {
+        recycledForUses.increment();
+    }
+
+    void recordRecycledForFailure() {
+        recycledForFailure.increment();
+    }
+
+    void recordRecycledForResetError() {
+        recycledForResetError.increment();
+    }
+
+    void recordRecycledForMemory() {
+        recycledForMemory.increment();
+    }
+
+    void recordPrefetchStarted() {
+        prefetchesStarted.increment();
+    }
+
+    void recordPrefetchFailed() {
+        prefetchesFailed.increment();
+    }
+
+    void recordPrefetchWasted() {
+        prefetchesWasted.increment();
+    }
+
+    /**
+     * Record a test receiving a prefetched session
+     *
+     * @param startupNanos how long starting the session took
+     * @param hiddenNanos the part of the startup time the test did not wait for
+     */
+    void recordPrefetchUsed(long startupNanos, long hiddenNanos) {
+        prefetchesUsed.increment();
+        prefetchStartupNanos.add(startupNanos);
+        prefetchHiddenNanos.add(hiddenNanos);
+    }
+
+    /**
+     * Browser startup time that prefetching took off the tests' critical path
+     *
+     * @return hidden startup latency in milliseconds
+     */
+    public double getHiddenStartupMillis() {
+        return toMillis(prefetchHiddenNanos.sum());
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Share of checkouts that were served by an idle warm session
+     *
+     * @return hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0 : (double) getHits() / total;
+    }
+
+    /**
+     * Render the metrics for the run report
+     *
+     * @return human readable summary
+     */
+    public String summary() {
+        long checkoutCount = checkouts.sum();
+        long resetCount = resets.sum();
+        return String.format(
+            "checkouts: %d (hits: %d, misses: %d, hit rate: %.1f%%)%n" +
+            "checkout wait: avg %.1f ms, max %.1f ms%n" +
+            "resets: %d (avg %.1f ms, max %.1f ms)%n" +
+            "recycled: %d after max uses, %d after failure, %d after reset error, %d over memory limit%n" +
+            "prefetched: %d (used: %d, unused: %d, failed: %d), startup hidden: %.1f of %.1f ms",
+            checkoutCount, getHits(), getMisses(), getHitRate() * 100,
+            averageMillis(checkoutWaitNanos.sum(), checkoutCount), toMillis(maxCheckoutWaitNanos.get()),
+            resetCount, averageMillis(resetNanos.sum(), resetCount), toMillis(maxResetNanos.get()),
+            recycledForUses.sum(), recycledForFailure.sum(), recycledForResetError.sum(), recycledForMemory.sum(),
+            prefetchesStarted.sum(), prefetchesUsed.sum(), prefetchesWasted.sum(), prefetchesFailed.sum(),
+            getHiddenStartupMillis(), toMillis(prefetchStartupNanos.sum()));
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0 : toMillis(totalNanos) / count;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
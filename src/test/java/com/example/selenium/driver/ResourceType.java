@@ -0,0 +1,58 @@
+package com.example.selenium.driver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Kinds of subresources the lean browser profile can block. Chrome's network blocking
+ * matches URLs, so each type is described by the URL patterns of its usual file extensions.
+ *
+ * The patterns are an approximation of the resource type: they also match any other request
+ * whose URL merely contains the extension, such as a document or XHR URL with ".css" in its
+ * query, and they miss resources served without an extension. Matching the real resource type
+ * needs Fetch.enable request interception, which holds each matching request until the JVM
+ * answers a DevTools event for it, through the browser-version specific DevTools bindings.
+ */
+public enum ResourceType {
+    IMAGE("png", "jpg", "jpeg", "gif", "svg", "webp", "ico", "avif"),
+    FONT("woff", "woff2", "ttf", "otf", "eot"),
+    MEDIA("mp4", "webm", "ogg", "ogv", "mp3", "wav"),
+    STYLESHEET("css");
+
+    private final List<String> urlPatterns;
+
+    ResourceType(String... extensions) {
+        this.urlPatterns = Collections.unmodifiableList(Arrays.stream(extensions)
+            .map(extension -> "*." + extension + "*")
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Wildcard URL patterns matching this resource type
+     *
+     * @return patterns such as "*.png*"
+     */
+    public List<String> getUrlPatterns() {
+        return urlPatterns;
+    }
+
+    /**
+     * Parse a comma separated list of resource type names
+     *
+     * @param names e.g. "image,font"
+     * @return the resource types
+     */
+    public static Set<ResourceType> parse(String names) {
+        Set<ResourceType> types = EnumSet.noneOf(ResourceType.class);
+        for (String name : names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                types.add(ResourceType.valueOf(name.trim().toUpperCase()));
+            }
+        }
+        return types;
+    }
+}
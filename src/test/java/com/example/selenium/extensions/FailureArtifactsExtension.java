@@ -0,0 +1,29 @@
+package com.example.selenium.extensions;
+
+import com.example.selenium.artifacts.ArtifactWriter;
+import com.example.selenium.artifacts.FailureSnapshot;
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.driver.DriverScope;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Saves a screenshot, the DOM and the browser log of a failed test. Runs after the test
+ * body and before {@code @AfterEach}, while the session is still bound. Only the snapshot is
+ * taken on the test thread; the {@link ArtifactWriter} writes it in the background, so
+ * teardown can quit or recycle the browser right away.
+ */
+public class FailureArtifactsExtension implements AfterTestExecutionCallback {
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (!context.getExecutionException().isPresent() || !DriverScope.isBound() || !TestConfig.artifactsEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        FailureSnapshot snapshot = FailureSnapshot.capture(TestOutcomeExtension.testName(context),
+            context.getExecutionException().get(), DriverScope.session().getRawDriver());
+        ArtifactWriter.submit(snapshot, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.selenium.extensions;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.matrix.BrowserMatrix;
+import com.example.selenium.rerun.FlakinessHistory;
+import com.example.selenium.rerun.QuarantineLane;
+import com.example.selenium.rerun.RerunQueue;
+import com.example.selenium.rerun.TestLauncher;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * Defers failures and quarantines flaky tests for {@link BaseTest}.
+ *
+ * In the main run, a quarantined test is handed to the {@link QuarantineLane} and skipped
+ * here, and a failing test is queued for the rerun at the end of the run and aborted instead
+ * of failed. Tests run by the rerun or the quarantine lane fail normally. The final outcome
+ * of every test is recorded in the {@link FlakinessHistory}.
+ */
+public class RerunExtension implements ExecutionCondition, TestExecutionExceptionHandler, AfterTestExecutionCallback {
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!context.getTestMethod().isPresent() || !isMainRun() || !TestConfig.quarantineLane()) {
+            return ConditionEvaluationResult.enabled("not quarantining");
+        }
+        String testName = TestOutcomeExtension.testName(context);
+        if (!FlakinessHistory.isQuarantined(testName)) {
+            return ConditionEvaluationResult.enabled(testName + " is not quarantined");
+        }
+        QuarantineLane.submit(context.getRequiredTestClass(), context.getRequiredTestMethod().getName(), testName);
+        return ConditionEvaluationResult.disabled(testName + " is quarantined, it runs in the quarantine lane");
+    }
+
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        if (throwable instanceof TestAbortedException || !isMainRun()) {
+            throw throwable;
+        }
+        RerunQueue.FailedTest failed = new RerunQueue.FailedTest(context.getRequiredTestClass(),
+            context.getRequiredTestMethod().getName(), throwable);
+        if (!RerunQueue.defer(failed)) {
+            throw throwable;
+        }
+        throw new TestAbortedException("Failed, rerun on a warm session at the end of the run: " + throwable, throwable);
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        TestLauncher.Lane lane = TestLauncher.currentLane();
+        Throwable failure = context.getExecutionException().orElse(null);
+        String testName = TestOutcomeExtension.testName(context);
+        if (failure == null) {
+            FlakinessHistory.record(testName, lane == TestLauncher.Lane.RERUN
+                ? FlakinessHistory.Outcome.FLAKY : FlakinessHistory.Outcome.PASSED);
+        } else if (!(failure instanceof TestAbortedException) && lane != TestLauncher.Lane.QUARANTINE) {
+            // Deferred failures are aborted and recorded by their rerun; a failed first attempt in
+            // the quarantine lane is recorded by its retry
+            FlakinessHistory.record(testName, FlakinessHistory.Outcome.FAILED);
+        }
+    }
+
+    /**
+     * Tests of a browser matrix run on the matrix's threads, which the rerun and the
+     * quarantine lane cannot bind to the right browser, so they run as usual
+     *
+     * @return true if the test runs in the main run outside of a matrix
+     */
+    private static boolean isMainRun() {
+        return TestLauncher.currentLane() == TestLauncher.Lane.MAIN && !BrowserMatrix.isMatrixThread();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.selenium.extensions;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.driver.DriverScope;
+import com.example.selenium.support.CurrentTest;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Tracks the lifecycle of each test for {@link BaseTest}: publishes the name of the running
+ * test through {@link CurrentTest} and records whether the test body failed. JUnit runs the
+ * after-execution callback before the {@code @AfterEach} methods on the same thread, so
+ * teardown can decide what to do with the session bound in {@link DriverScope}.
+ */
+public class TestOutcomeExtension implements BeforeEachCallback, AfterTestExecutionCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        CurrentTest.set(testName(context));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (DriverScope.isBound()) {
+            DriverScope.markTestFailed(context.getExecutionException().isPresent());
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        CurrentTest.clear();
+    }
+
+    /**
+     * Name used for a test in reports
+     *
+     * @param context the test's extension context
+     * @return e.g. "WikipediaTest.testChangeLanguageToSpanish"
+     */
+    public static String testName(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.selenium.fixtures;
+
+/**
+ * Where the tests load their pages from
+ */
+public enum FixtureMode {
+    /** Straight from the internet, no fixture server */
+    LIVE,
+    /** Through the fixture server, which fetches missing responses upstream and saves them */
+    RECORD,
+    /** Only from saved responses; anything that was not recorded is a 404 */
+    REPLAY;
+
+    /**
+     * Resolve a mode from its (case-insensitive) name
+     *
+     * @param name the mode name, e.g. "replay"
+     * @return the matching mode
+     */
+    public static FixtureMode fromName(String name) {
+        try {
+            return FixtureMode.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported fixture mode '" + name + "'", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.selenium.fixtures;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches responses from the real Wikipedia hosts while recording and rewrites them so
+ * that every Wikimedia URL they contain points back at the fixture server.
+ *
+ * Upstream URLs are mapped to root-relative paths that start with the host name, e.g.
+ * {@code https://en.wikipedia.org/wiki/Java} becomes {@code /en.wikipedia.org/wiki/Java}.
+ * Root-relative paths work regardless of the port the server runs on when replaying.
+ */
+public class FixtureRecorder {
+
+    // Absolute or protocol-relative URLs on Wikimedia hosts
+    static final Pattern WIKIMEDIA_URL = Pattern.compile(
+        "(?:https?:)?//([a-z0-9-]+(?:\\.[a-z0-9-]+)*\\.(?:wikipedia|wikimedia|wikidata|mediawiki)\\.org)(?=[/?#\"'\\s)]|$)",
+        Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Runs first in every recorded HTML page and rewrites URLs that scripts build at runtime,
+     * such as the typeahead API calls and the suggestion links.
+     */
+    private static final String RUNTIME_REWRITE_SCRIPT = "<script>/* fixture-server */(function () {"
+        + "var re = /^(?:https?:)?\\/\\/([a-z0-9-]+(?:\\.[a-z0-9-]+)*\\.(?:wikipedia|wikimedia|wikidata|mediawiki)\\.org)(?=[\\/?#]|$)/i;"
+        + "function local(url) { return typeof url === 'string' ? url.replace(re, '/$1') : url; }"
+        + "if (window.fetch) { var fetch = window.fetch; window.fetch = function (input, init) {"
+        + " return fetch.call(this, typeof input === 'string' ? local(input) : input, init); }; }"
+        + "var open = XMLHttpRequest.prototype.open; XMLHttpRequest.prototype.open = function (method, url) {"
+        + " arguments[1] = local(String(url)); return open.apply(this, arguments); };"
+        + "document.addEventListener('click', function (event) {"
+        + " var link = event.target.closest ? event.target.closest('a[href]') : null;"
+        + " if (link) { var href = link.getAttribute('href'); var rewritten = local(href);"
+        + " if (rewritten !== href) { link.setAttribute('href', rewritten); } } }, true);"
+        + "document.addEventListener('submit', function (event) {"
+        + " var form = event.target; var action = form.getAttribute('action'); var rewritten = local(action);"
+        + " if (rewritten !== action) { form.setAttribute('action', rewritten); } }, true);"
+        + "})();</script>";
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    /**
+     * Fetch a response from upstream
+     *
+     * @param host the upstream host
+     * @param pathAndQuery the request path including the query string
+     * @param requestHeaders headers from the browser worth forwarding (user agent, language)
+     * @return the rewritten response
+     * @throws IOException if the upstream request fails
+     */
+    public RecordedResponse fetch(String host, String pathAndQuery, Map<String, String> requestHeaders)
+            throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("https://" + host + pathAndQuery))
+            .timeout(Duration.ofSeconds(30))
+            .header("Accept-Encoding", "gzip");
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + host + pathAndQuery, e);
+        }
+
+        byte[] body = response.body();
+        if ("gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""))) {
+            body = gunzip(body);
+        }
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        if (isText(contentType)) {
+            body = rewriteBody(body, contentType).getBytes(StandardCharsets.UTF_8);
+        }
+        String location = response.headers().firstValue("Location")
+            .map(value -> rewriteLocation(host, value))
+            .orElse(null);
+        return new RecordedResponse(response.statusCode(), contentType, location, body);
+    }
+
+    /**
+     * Rewrite a redirect target so the browser stays on the fixture server
+     *
+     * @param host the host that sent the redirect
+     * @param location the Location header value
+     * @return the rewritten location
+     */
+    static String rewriteLocation(String host, String location) {
+        if (location.startsWith("/") && !location.startsWith("//")) {
+            return "/" + host + location;
+        }
+        return rewriteUrls(location);
+    }
+
+    /**
+     * Replace every Wikimedia URL in a text with its fixture server path
+     *
+     * @param text the text to rewrite
+     * @return the rewritten text
+     */
+    static String rewriteUrls(String text) {
+        Matcher matcher = WIKIMEDIA_URL.matcher(text);
+        return matcher.replaceAll("/$1");
+    }
+
+    private static String rewriteBody(byte[] body, String contentType) {
+        String text = rewriteUrls(new String(body, StandardCharsets.UTF_8));
+        if (contentType.toLowerCase(Locale.ROOT).startsWith("text/html")) {
+            int head = text.indexOf("<head>");
+            int insertAt = head >= 0 ? head + "<head>".length() : 0;
+            text = text.substring(0, insertAt) + RUNTIME_REWRITE_SCRIPT + text.substring(insertAt);
+        }
+        return text;
+    }
+
+    private static boolean isText(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json")
+            || type.contains("xml");
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * A fetched and rewritten upstream response
+     */
+    public static class RecordedResponse {
+
+        private final int status;
+        private final String contentType;
+        private final String location;
+        private final byte[] body;
+
+        RecordedResponse(int status, String contentType, String location, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.location = location;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.selenium.fixtures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Local HTTP stand-in for the Wikipedia hosts used by the tests.
+ *
+ * Requests are expected in the form {@code /<host>/<path>}, e.g.
+ * {@code /en.wikipedia.org/wiki/Java}. In {@link FixtureMode#RECORD} mode missing responses
+ * are fetched upstream and saved; in {@link FixtureMode#REPLAY} mode only saved responses are
+ * served. Bodies are sent straight from the file with {@link FileChannel#transferTo}, so the
+ * kernel copies them to the socket without passing through the JVM heap.
+ */
+public class FixtureServer implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(FixtureServer.class.getName());
+
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+    private static final Pattern HOST_SEGMENT = Pattern.compile("[a-z0-9-]+(\\.[a-z0-9-]+)+", Pattern.CASE_INSENSITIVE);
+
+    // Browser headers that influence what upstream sends back
+    private static final String[] FORWARDED_HEADERS = {"user-agent", "accept", "accept-language"};
+
+    private final FixtureMode mode;
+    private final FixtureStore store;
+    private final FixtureRecorder recorder = new FixtureRecorder();
+    private final int requestedPort;
+    private final ConcurrentMap<String, Object> recordingLocks = new ConcurrentHashMap<>();
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder missing = new LongAdder();
+    private final LongAdder serveNanos = new LongAdder();
+    private final AtomicLong maxServeNanos = new AtomicLong();
+
+    private ServerSocketChannel serverChannel;
+    private ExecutorService connections;
+    private volatile boolean running;
+
+    /**
+     * Constructor for FixtureServer
+     *
+     * @param mode RECORD or REPLAY
+     * @param store where the fixtures are stored
+     * @param port port to listen on, or 0 for any free port
+     */
+    public FixtureServer(FixtureMode mode, FixtureStore store, int port) {
+        if (mode == FixtureMode.LIVE) {
+            throw new IllegalArgumentException("The fixture server is not used in LIVE mode");
+        }
+        this.mode = mode;
+        this.store = store;
+        this.requestedPort = port;
+    }
+
+    /**
+     * Start listening on the loopback interface
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort));
+        connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fixture-server-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "fixture-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Fixture server (" + mode + ") listening on " + getBaseUrl() + ", fixtures in "
+            + store.getRoot().toAbsolutePath());
+    }
+
+    public FixtureMode getMode() {
+        return mode;
+    }
+
+    public int getPort() {
+        return ((InetSocketAddress) serverChannel.socket().getLocalSocketAddress()).getPort();
+    }
+
+    /**
+     * Base URL of the server, without trailing slash
+     *
+     * @return e.g. "http://127.0.0.1:43123"
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    /**
+     * Translate a live URL into the URL of the same resource on this server
+     *
+     * @param liveUrl e.g. "https://en.wikipedia.org/wiki/Java"
+     * @return e.g. "http://127.0.0.1:43123/en.wikipedia.org/wiki/Java"
+     */
+    public String toLocalUrl(String liveUrl) {
+        URI uri = URI.create(liveUrl);
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        String query = uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery();
+        return getBaseUrl() + "/" + uri.getHost() + path + query;
+    }
+
+    /**
+     * Summary of what the server did, for the run report
+     *
+     * @return human readable summary
+     */
+    public String summary() {
+        long count = served.sum();
+        return String.format("mode: %s%nserved: %d (avg %.3f ms, max %.3f ms server-side)%nrecorded: %d, missing: %d",
+            mode, count, count == 0 ? 0 : serveNanos.sum() / 1_000_000.0 / count, maxServeNanos.get() / 1_000_000.0,
+            recorded.sum(), missing.sum());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            logger.fine("Error closing fixture server: " + e.getMessage());
+        }
+        connections.shutdownNow();
+        store.close();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                connections.execute(() -> serveConnection(channel));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                logger.warning("Fixture server accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Serve requests on a keep-alive connection until the client closes it
+     */
+    private void serveConnection(SocketChannel channel) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_HEADER_BYTES);
+        try (SocketChannel socket = channel) {
+            socket.socket().setTcpNoDelay(true);
+            while (running) {
+                RequestHead request = readRequest(socket, buffer);
+                if (request == null) {
+                    return;
+                }
+                long start = System.nanoTime();
+                handle(socket, request);
+                long elapsed = System.nanoTime() - start;
+                served.increment();
+                serveNanos.add(elapsed);
+                maxServeNanos.accumulateAndGet(elapsed, Math::max);
+                if (request.closeConnection) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            logger.fine("Fixture connection closed: " + e.getMessage());
+        }
+    }
+
+    private void handle(SocketChannel socket, RequestHead request) throws IOException {
+        if (!"GET".equals(request.method) && !"HEAD".equals(request.method)) {
+            // Beacons and other writes are accepted and dropped
+            writeHead(socket, 204, "No Content", null, null, 0);
+            return;
+        }
+
+        String target = request.target;
+        int hostEnd = target.indexOf('/', 1);
+        String host = hostEnd < 0 ? target.substring(1) : target.substring(1, hostEnd);
+        if (!HOST_SEGMENT.matcher(host).matches()) {
+            // Root-relative URL from a recorded page: send the browser to the host it came from
+            String refererHost = hostFromReferer(request.headers.get("referer"));
+            if (refererHost == null) {
+                missing.increment();
+                writeHead(socket, 404, "Not Found", "text/plain", null, 0);
+                return;
+            }
+            writeHead(socket, 302, "Found", null, "/" + refererHost + target, 0);
+            return;
+        }
+        String pathAndQuery = hostEnd < 0 ? "/" : target.substring(hostEnd);
+
+        FixtureStore.Fixture fixture = store.find(host, pathAndQuery);
+        if (fixture == null && mode == FixtureMode.RECORD) {
+            try {
+                fixture = record(host, pathAndQuery, request.headers);
+            } catch (IOException e) {
+                logger.warning("Could not record " + host + pathAndQuery + ": " + e.getMessage());
+                writeHead(socket, 502, "Bad Gateway", "text/plain", null, 0);
+                return;
+            }
+        }
+        if (fixture == null) {
+            missing.increment();
+            logger.warning("No fixture recorded for " + host + pathAndQuery);
+            writeHead(socket, 404, "Not Found", "text/plain", null, 0);
+            return;
+        }
+
+        writeHead(socket, fixture.getStatus(), reason(fixture.getStatus()), fixture.getContentType(),
+            fixture.getLocation(), fixture.getLength());
+        if ("GET".equals(request.method)) {
+            transferBody(fixture, socket);
+        }
+    }
+
+    private FixtureStore.Fixture record(String host, String pathAndQuery, Map<String, String> headers)
+            throws IOException {
+        // Several connections may ask for the same resource; only fetch it once
+        Object lock = recordingLocks.computeIfAbsent(host + pathAndQuery, key -> new Object());
+        synchronized (lock) {
+            FixtureStore.Fixture fixture = store.find(host, pathAndQuery);
+            if (fixture != null) {
+                return fixture;
+            }
+            Map<String, String> forwarded = new HashMap<>();
+            for (String name : FORWARDED_HEADERS) {
+                if (headers.containsKey(name)) {
+                    forwarded.put(name, headers.get(name));
+                }
+            }
+            FixtureRecorder.RecordedResponse response = recorder.fetch(host, pathAndQuery, forwarded);
+            recorded.increment();
+            logger.info("Recorded " + response.getStatus() + " " + host + pathAndQuery);
+            return store.save(host, pathAndQuery, response.getStatus(), response.getContentType(),
+                response.getLocation(), response.getBody());
+        }
+    }
+
+    private static void transferBody(FixtureStore.Fixture fixture, SocketChannel socket) throws IOException {
+        FileChannel body = fixture.getBody();
+        long position = 0;
+        long length = fixture.getLength();
+        while (position < length) {
+            position += body.transferTo(position, length - position, socket);
+        }
+    }
+
+    private static void writeHead(SocketChannel socket, int status, String reason, String contentType,
+                                  String location, long contentLength) throws IOException {
+        StringBuilder head = new StringBuilder();
+        head.append("HTTP/1.1 ").append(status).append(' ').append(reason).append("\r\n");
+        if (contentType != null) {
+            head.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        if (location != null) {
+            head.append("Location: ").append(location).append("\r\n");
+        }
+        head.append("Content-Length: ").append(contentLength).append("\r\n");
+        head.append("Connection: keep-alive\r\n\r\n");
+        ByteBuffer bytes = ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        while (bytes.hasRemaining()) {
+            socket.write(bytes);
+        }
+    }
+
+    /**
+     * Read the next request head from the connection. Any request body is skipped.
+     *
+     * @return the parsed request, or null when the client closed the connection
+     */
+    private static RequestHead readRequest(SocketChannel socket, ByteBuffer buffer) throws IOException {
+        int headEnd;
+        while ((headEnd = indexOfHeadEnd(buffer)) < 0) {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Request head larger than " + MAX_HEADER_BYTES + " bytes");
+            }
+            if (socket.read(buffer) < 0) {
+                return null;
+            }
+        }
+
+        String head = new String(buffer.array(), 0, headEnd, StandardCharsets.ISO_8859_1);
+        String[] lines = head.split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length < 3) {
+            throw new IOException("Malformed request line: " + lines[0]);
+        }
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT), lines[i].substring(colon + 1).trim());
+            }
+        }
+
+        // Drop the head (and any body) from the buffer, keeping bytes of a pipelined next request
+        long bodyLength = Long.parseLong(headers.getOrDefault("content-length", "0"));
+        int consumed = headEnd + 4;
+        buffer.flip();
+        buffer.position(consumed);
+        long inBuffer = Math.min(bodyLength, buffer.remaining());
+        buffer.position(buffer.position() + (int) inBuffer);
+        buffer.compact();
+        long toSkip = bodyLength - inBuffer;
+        while (toSkip > 0) {
+            ByteBuffer discard = ByteBuffer.allocate((int) Math.min(toSkip, MAX_HEADER_BYTES));
+            int read = socket.read(discard);
+            if (read < 0) {
+                return null;
+            }
+            toSkip -= read;
+        }
+
+        boolean close = "close".equalsIgnoreCase(headers.get("connection")) || requestLine[2].equals("HTTP/1.0");
+        return new RequestHead(requestLine[0], requestLine[1], headers, close);
+    }
+
+    private static int indexOfHeadEnd(ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        for (int i = 0; i + 3 < buffer.position(); i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n' && bytes[i + 2] == '\r' && bytes[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String hostFromReferer(String referer) {
+        if (referer == null) {
+            return null;
+        }
+        try {
+            String path = URI.create(referer).getRawPath();
+            if (path == null || path.length() < 2) {
+                return null;
+            }
+            int end = path.indexOf('/', 1);
+            String host = end < 0 ? path.substring(1) : path.substring(1, end);
+            return HOST_SEGMENT.matcher(host).matches() ? host : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String reason(int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 204: return "No Content";
+            case 301: return "Moved Permanently";
+            case 302: return "Found";
+            case 304: return "Not Modified";
+            case 307: return "Temporary Redirect";
+            case 308: return "Permanent Redirect";
+            case 404: return "Not Found";
+            case 502: return "Bad Gateway";
+            default: return "Status";
+        }
+    }
+
+    private static final class RequestHead {
+        private final String method;
+        private final String target;
+        private final Map<String, String> headers;
+        private final boolean closeConnection;
+
+        private RequestHead(String method, String target, Map<String, String> headers, boolean closeConnection) {
+            this.method = method;
+            this.target = target;
+            this.headers = headers;
+            this.closeConnection = closeConnection;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.selenium.fixtures;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Tests for the replay side of the fixture server. These run without a browser or network access.
+ */
+public class FixtureServerTest {
+
+    @TempDir
+    Path fixturesDir;
+
+    private FixtureServer server;
+    private final HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        FixtureStore store = new FixtureStore(fixturesDir);
+        store.save("en.wikipedia.org", "/wiki/Java", 200, "text/html; charset=UTF-8", null,
+            "<html>Java</html>".getBytes(StandardCharsets.UTF_8));
+        server = new FixtureServer(FixtureMode.REPLAY, store, 0);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+    }
+
+    /**
+     * Tests that a recorded response is served with its content type and body
+     */
+    @Test
+    public void testServesRecordedFixture() throws Exception {
+        HttpResponse<String> response = get(server.toLocalUrl("https://en.wikipedia.org/wiki/Java"), null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("text/html; charset=UTF-8", response.headers().firstValue("Content-Type").orElse(null));
+        assertEquals("<html>Java</html>", response.body());
+    }
+
+    /**
+     * Tests that requests which were never recorded are answered with 404 in replay mode
+     */
+    @Test
+    public void testMissingFixtureIsNotFound() throws Exception {
+        HttpResponse<String> response = get(server.toLocalUrl("https://en.wikipedia.org/wiki/Python"), null);
+
+        assertEquals(404, response.statusCode());
+    }
+
+    /**
+     * Tests that root-relative URLs are redirected to the host of the page that referenced them
+     */
+    @Test
+    public void testRootRelativeUrlIsRedirectedToRefererHost() throws Exception {
+        String referer = server.toLocalUrl("https://en.wikipedia.org/wiki/Java");
+        HttpResponse<String> response = get(server.getBaseUrl() + "/wiki/Java", referer);
+
+        assertEquals(302, response.statusCode());
+        assertEquals("/en.wikipedia.org/wiki/Java", response.headers().firstValue("Location").orElse(null));
+    }
+
+    /**
+     * Tests that absolute and protocol-relative Wikimedia URLs are rewritten to fixture server paths
+     */
+    @Test
+    public void testRewritesWikimediaUrls() {
+        assertEquals("<a href=\"/es.wikipedia.org/\">",
+            FixtureRecorder.rewriteUrls("<a href=\"//es.wikipedia.org/\">"));
+        assertEquals("/upload.wikimedia.org/x.png",
+            FixtureRecorder.rewriteUrls("https://upload.wikimedia.org/x.png"));
+        assertEquals("/en.wikipedia.org/wiki/Main_Page",
+            FixtureRecorder.rewriteLocation("en.wikipedia.org", "/wiki/Main_Page"));
+    }
+
+    private HttpResponse<String> get(String url, String referer) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (referer != null) {
+            request.header("Referer", referer);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
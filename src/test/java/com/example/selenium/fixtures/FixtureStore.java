@@ -0,0 +1,222 @@
+package com.example.selenium.fixtures;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Recorded responses on disk. Each response is stored as two files named after a hash of
+ * the request: {@code <hash>.body} with the raw body and {@code <hash>.meta} with the
+ * status line data and headers. Bodies are kept open as read-only FileChannels once they
+ * have been served, so replaying a response does not touch the file system again.
+ */
+public class FixtureStore {
+
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+
+    private final Path root;
+    private final ConcurrentMap<String, Fixture> loaded = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for FixtureStore
+     *
+     * @param root directory the fixtures are stored in
+     */
+    public FixtureStore(Path root) {
+        this.root = root;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Look up a recorded response
+     *
+     * @param host the upstream host, e.g. "en.wikipedia.org"
+     * @param pathAndQuery the request path including the query string
+     * @return the fixture, or null if the request was never recorded
+     */
+    public Fixture find(String host, String pathAndQuery) {
+        String key = key(host, pathAndQuery);
+        Fixture fixture = loaded.get(key);
+        if (fixture != null) {
+            return fixture;
+        }
+        Path meta = metaFile(host, key);
+        if (!Files.exists(meta)) {
+            return null;
+        }
+        return loaded.computeIfAbsent(key, k -> open(host, k));
+    }
+
+    /**
+     * Save a response
+     *
+     * @param host the upstream host
+     * @param pathAndQuery the request path including the query string
+     * @param status the HTTP status code
+     * @param contentType the Content-Type header, may be null
+     * @param location the Location header of a redirect, may be null
+     * @param body the response body
+     * @return the stored fixture
+     * @throws IOException if the files cannot be written
+     */
+    public Fixture save(String host, String pathAndQuery, int status, String contentType, String location,
+                        byte[] body) throws IOException {
+        String key = key(host, pathAndQuery);
+        Path dir = root.resolve(host);
+        Files.createDirectories(dir);
+
+        // Write to temporary files first so a concurrent reader never sees half a fixture
+        Path bodyTemp = Files.createTempFile(dir, key, BODY_SUFFIX);
+        Files.write(bodyTemp, body);
+        Files.move(bodyTemp, dir.resolve(key + BODY_SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+
+        Properties properties = new Properties();
+        properties.setProperty("url", host + pathAndQuery);
+        properties.setProperty("status", Integer.toString(status));
+        if (contentType != null) {
+            properties.setProperty("contentType", contentType);
+        }
+        if (location != null) {
+            properties.setProperty("location", location);
+        }
+        Path metaTemp = Files.createTempFile(dir, key, META_SUFFIX);
+        try (OutputStream out = Files.newOutputStream(metaTemp)) {
+            properties.store(out, null);
+        }
+        Files.move(metaTemp, metaFile(host, key), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+
+        Fixture previous = loaded.remove(key);
+        if (previous != null) {
+            previous.close();
+        }
+        return find(host, pathAndQuery);
+    }
+
+    /**
+     * Close all open body channels
+     */
+    public void close() {
+        for (Fixture fixture : loaded.values()) {
+            fixture.close();
+        }
+        loaded.clear();
+    }
+
+    private Fixture open(String host, String key) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile(host, key))) {
+            properties.load(in);
+            FileChannel body = FileChannel.open(root.resolve(host).resolve(key + BODY_SUFFIX), StandardOpenOption.READ);
+            return new Fixture(
+                Integer.parseInt(properties.getProperty("status", "200")),
+                properties.getProperty("contentType"),
+                properties.getProperty("location"),
+                body,
+                body.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open fixture " + key + " for " + host, e);
+        }
+    }
+
+    private Path metaFile(String host, String key) {
+        return root.resolve(host).resolve(key + META_SUFFIX);
+    }
+
+    /**
+     * Name of the fixture files for a request
+     *
+     * @param host the upstream host
+     * @param pathAndQuery the request path including the query string
+     * @return hex SHA-256 of the request, shortened to keep file names manageable
+     */
+    static String key(String host, String pathAndQuery) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((host + pathAndQuery).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A recorded response
+     */
+    public static class Fixture {
+
+        private final int status;
+        private final String contentType;
+        private final String location;
+        private final FileChannel body;
+        private final long length;
+
+        Fixture(int status, String contentType, String location, FileChannel body, long length) {
+            this.status = status;
+            this.contentType = contentType;
+            this.location = location;
+            this.body = body;
+            this.length = length;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        /**
+         * Channel over the body. Only use positional reads or transferTo, as the channel is
+         * shared between all connections serving this fixture.
+         *
+         * @return the body channel
+         */
+        public FileChannel getBody() {
+            return body;
+        }
+
+        /**
+         * Length of the body in bytes
+         *
+         * @return the body length
+         */
+        public long getLength() {
+            return length;
+        }
+
+        void close() {
+            try {
+                body.close();
+            } catch (IOException e) {
+                // Nothing left to do with a channel that cannot be closed
+            }
+        }
+    }
+}
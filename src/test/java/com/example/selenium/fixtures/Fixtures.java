@@ -0,0 +1,65 @@
+package com.example.selenium.fixtures;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * Entry point for resolving test URLs against the configured fixture mode.
+ *
+ * In LIVE mode URLs are returned unchanged. In RECORD and REPLAY mode the local
+ * {@link FixtureServer} is started on first use and URLs are translated to point at it.
+ */
+public final class Fixtures {
+
+    private static FixtureServer server;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Resolve the URL a test should use for a live Wikipedia URL
+     *
+     * @param liveUrl the URL on the internet
+     * @return the same URL in LIVE mode, otherwise the URL on the local fixture server
+     */
+    public static String url(String liveUrl) {
+        if (mode() == FixtureMode.LIVE) {
+            return liveUrl;
+        }
+        return server().toLocalUrl(liveUrl);
+    }
+
+    /**
+     * Get the configured fixture mode
+     *
+     * @return the fixture mode
+     */
+    public static FixtureMode mode() {
+        return FixtureMode.fromName(TestConfig.fixturesMode());
+    }
+
+    /**
+     * Get the fixture server, starting it if needed
+     *
+     * @return the running fixture server
+     */
+    public static synchronized FixtureServer server() {
+        if (server == null) {
+            FixtureServer newServer = new FixtureServer(mode(),
+                new FixtureStore(Paths.get(TestConfig.fixturesDir())), TestConfig.fixturesPort());
+            try {
+                newServer.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start the fixture server", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(newServer::close, "fixture-server-shutdown"));
+            RunReport.register("Fixture server", newServer::summary);
+            server = newServer;
+        }
+        return server;
+    }
+}
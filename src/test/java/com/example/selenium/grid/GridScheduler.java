@@ -0,0 +1,419 @@
+package com.example.selenium.grid;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.metrics.LatencyHistogram;
+import com.example.selenium.reporting.RunReport;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Schedules browser sessions on a Selenium Grid, set with -Dselenium.grid.url.
+ *
+ * A new session is only requested while the Grid reports a free slot for its browser on a
+ * node that is up and below its max sessions; until then the request waits here instead of in
+ * the Grid's new session queue, where it would count against the Grid's queue timeout. The
+ * {@link com.example.selenium.driver.DriverPool} is sized to the Grid's capacity and keeps
+ * sessions warm as it does locally, and when it hands out an idle session it prefers one on the
+ * node that served the previous test of the same class, so consecutive tests of a class stay
+ * on one node and its warm sessions.
+ *
+ * The run report shows where sessions were placed, and the time tests waited for a session
+ * (queue time) separately from the time they held it (execution time).
+ */
+public final class GridScheduler {
+
+    private static final Logger logger = Logger.getLogger(GridScheduler.class.getName());
+
+    private static final Duration STATUS_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(STATUS_TIMEOUT)
+        .build();
+    private static final Json json = new Json();
+
+    private static volatile GridScheduler instance;
+
+    private final URI gridUri;
+    private final long refreshNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotReleased = lock.newCondition();
+    private final Map<String, Integer> startingByBrowser = new HashMap<>();
+    // The latest status snapshot, when the request for it was sent, and when it was last dropped
+    private GridStatus status;
+    private long statusFetchedNanos;
+    private long statusDroppedNanos;
+
+    private final ConcurrentMap<String, String> nodeByClass = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> sessionsByNode = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> testsByNode = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> nodeUris = new ConcurrentHashMap<>();
+    private final LongAdder sameNode = new LongAdder();
+    private final LongAdder movedNode = new LongAdder();
+    private final LongAdder firstOfClass = new LongAdder();
+    private final LatencyHistogram slotWait = new LatencyHistogram();
+    private final LatencyHistogram queueTime = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+
+    /**
+     * Constructor for GridScheduler
+     *
+     * @param gridUri address of the Grid, e.g. http://localhost:4444
+     * @param refresh how long a status snapshot is used before the Grid is asked again
+     */
+    GridScheduler(URI gridUri, Duration refresh) {
+        this.gridUri = gridUri;
+        this.refreshNanos = refresh.toNanos();
+        this.statusFetchedNanos = System.nanoTime() - 1;
+        this.statusDroppedNanos = statusFetchedNanos;
+    }
+
+    /**
+     * Whether tests run on a Selenium Grid instead of local browsers
+     *
+     * @return true if selenium.grid.url is set
+     */
+    public static boolean isEnabled() {
+        return !TestConfig.gridUrl().isEmpty();
+    }
+
+    /**
+     * Get the scheduler of the Grid set with selenium.grid.url
+     *
+     * @return the JVM-wide scheduler
+     */
+    public static GridScheduler getInstance() {
+        if (instance == null) {
+            synchronized (GridScheduler.class) {
+                if (instance == null) {
+                    GridScheduler scheduler = new GridScheduler(URI.create(TestConfig.gridUrl()),
+                        Duration.ofMillis(TestConfig.gridStatusRefreshMillis()));
+                    RunReport.register("Selenium Grid", scheduler::summary);
+                    instance = scheduler;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Sessions the Grid can run at once, used as the default pool size and parallelism
+     *
+     * @return the capacity, 0 if the Grid cannot be reached
+     */
+    public int getCapacity() {
+        try {
+            return status(false).getCapacity();
+        } catch (IllegalStateException e) {
+            logger.warning(e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Start a session on the Grid once a node has a free slot for its browser
+     *
+     * @param capabilities the browser options
+     * @param slotTimeout how long to wait for a free slot
+     * @return the driver, augmented with the browser's interfaces the Grid supports (e.g. BiDi)
+     */
+    public WebDriver startSession(Capabilities capabilities, Duration slotTimeout) {
+        String browserName = capabilities.getBrowserName();
+        acquireSlot(browserName, slotTimeout.toNanos());
+        try {
+            RemoteWebDriver driver = new RemoteWebDriver(new HttpCommandExecutor(gridUrl()), capabilities);
+            return new Augmenter().augment(driver);
+        } finally {
+            releaseSlot(browserName);
+        }
+    }
+
+    /**
+     * Wait until the Grid has a free slot for a browser that no other new session of this
+     * JVM is about to take
+     *
+     * @param browserName the W3C browser name, e.g. "chrome"
+     * @param timeoutNanos how long to wait
+     */
+    void acquireSlot(String browserName, long timeoutNanos) {
+        long start = System.nanoTime();
+        boolean waited = false;
+        boolean refresh = false;
+        while (true) {
+            // Fetched without the lock, so releases and other requests go on meanwhile
+            GridStatus snapshot = status(refresh);
+            lock.lock();
+            try {
+                if (snapshot != status) {
+                    // A release dropped the snapshot or a newer one arrived while fetching: decide on the current one
+                    refresh = false;
+                    continue;
+                }
+                int starting = startingByBrowser.getOrDefault(browserName, 0);
+                if (snapshot.getFreeSlots(browserName) > starting) {
+                    startingByBrowser.merge(browserName, 1, Integer::sum);
+                    if (waited) {
+                        slotWait.recordNanos(System.nanoTime() - start);
+                    }
+                    return;
+                }
+                long remaining = timeoutNanos - (System.nanoTime() - start);
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Timed out waiting for a free " + browserName
+                        + " slot on the Grid at " + gridUri);
+                }
+                waited = true;
+                refresh = true;
+                slotReleased.awaitNanos(Math.min(remaining, refreshNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a " + browserName + " slot on the Grid", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Record that a session acquired with {@link #acquireSlot} has started or failed to. The
+     * status snapshot is dropped, so the next request sees the Grid with the new session.
+     *
+     * @param browserName the W3C browser name
+     */
+    void releaseSlot(String browserName) {
+        lock.lock();
+        try {
+            startingByBrowser.merge(browserName, -1, Integer::sum);
+            status = null;
+            statusDroppedNanos = System.nanoTime();
+            slotReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Find the node a new session was placed on, from the current status snapshot if it
+     * already lists the session
+     *
+     * @param driver the session's driver
+     * @return the node id, or null if the Grid does not report the session
+     */
+    public String nodeOf(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver) || ((RemoteWebDriver) driver).getSessionId() == null) {
+            return null;
+        }
+        String sessionId = ((RemoteWebDriver) driver).getSessionId().toString();
+        GridStatus snapshot;
+        lock.lock();
+        try {
+            snapshot = status;
+        } finally {
+            lock.unlock();
+        }
+        String nodeId = snapshot != null ? snapshot.nodeOfSession(sessionId) : null;
+        if (nodeId == null) {
+            try {
+                nodeId = status(true).nodeOfSession(sessionId);
+            } catch (IllegalStateException e) {
+                logger.warning(e.getMessage());
+                return null;
+            }
+        }
+        if (nodeId != null) {
+            sessionsByNode.computeIfAbsent(nodeId, id -> new LongAdder()).increment();
+        }
+        return nodeId;
+    }
+
+    /**
+     * Take an idle session for a test, preferring one on the node that served the previous
+     * test of the same class
+     *
+     * @param idle the idle sessions of the browser, most recently released first
+     * @param nodeOf the node a session runs on
+     * @param testClass name of the test class, or null for no preference
+     * @param <T> the session type
+     * @return the session, removed from idle, or null if there is none
+     */
+    public <T> T pollIdle(Deque<T> idle, Function<T, String> nodeOf, String testClass) {
+        String node = testClass == null ? null : nodeByClass.get(testClass);
+        if (node != null) {
+            for (Iterator<T> iterator = idle.iterator(); iterator.hasNext(); ) {
+                T session = iterator.next();
+                if (node.equals(nodeOf.apply(session))) {
+                    iterator.remove();
+                    return session;
+                }
+            }
+        }
+        return idle.pollFirst();
+    }
+
+    /**
+     * Record that a test got a session
+     *
+     * @param testClass name of the test class, or null if the session is not for a test class
+     * @param nodeId the node of the session, null if unknown
+     * @param queueNanos how long the test waited for the session
+     */
+    public void recordCheckout(String testClass, String nodeId, long queueNanos) {
+        queueTime.recordNanos(queueNanos);
+        if (nodeId == null) {
+            return;
+        }
+        testsByNode.computeIfAbsent(nodeId, id -> new LongAdder()).increment();
+        if (testClass == null) {
+            return;
+        }
+        String previous = nodeByClass.put(testClass, nodeId);
+        if (previous == null) {
+            firstOfClass.increment();
+        } else if (previous.equals(nodeId)) {
+            sameNode.increment();
+        } else {
+            movedNode.increment();
+        }
+    }
+
+    /**
+     * Record that a test returned its session
+     *
+     * @param executionNanos how long the test held the session
+     */
+    public void recordRelease(long executionNanos) {
+        executionTime.recordNanos(executionNanos);
+    }
+
+    /**
+     * The Grid's status, fetched again if the snapshot is older than the refresh interval.
+     * Must be called without the lock held: the request is sent outside of it and the new
+     * snapshot swapped in under it, unless a release dropped the snapshot or a newer request
+     * answered in the meantime.
+     *
+     * @param refresh true to fetch it even if the snapshot is recent
+     * @return the status, possibly newer than the current snapshot
+     */
+    private GridStatus status(boolean refresh) {
+        long requestedNanos;
+        lock.lock();
+        try {
+            if (!refresh && status != null && System.nanoTime() - statusFetchedNanos < refreshNanos) {
+                return status;
+            }
+            requestedNanos = System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+
+        GridStatus fetched = fetchStatus();
+        for (GridStatus.Node node : fetched.getNodes()) {
+            nodeUris.put(node.getId(), node.getUri());
+        }
+
+        lock.lock();
+        try {
+            if (requestedNanos - statusDroppedNanos > 0 && requestedNanos - statusFetchedNanos > 0) {
+                status = fetched;
+                statusFetchedNanos = requestedNanos;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return fetched;
+    }
+
+    private GridStatus fetchStatus() {
+        String base = gridUri.toString();
+        HttpRequest request = HttpRequest.newBuilder(URI.create((base.endsWith("/") ? base : base + "/") + "status"))
+            .timeout(STATUS_TIMEOUT)
+            .GET()
+            .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Grid at " + gridUri + " answered /status with " + response.statusCode());
+            }
+            return GridStatus.parse(json.toType(response.body(), Json.MAP_TYPE));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read the status of the Grid at " + gridUri + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the status of the Grid at " + gridUri, e);
+        }
+    }
+
+    private URL gridUrl() {
+        try {
+            return gridUri.toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid Grid URL: " + gridUri, e);
+        }
+    }
+
+    /**
+     * Render placement and timing for the run report
+     *
+     * @return human readable summary
+     */
+    String summary() {
+        StringBuilder summary = new StringBuilder(String.format("grid: %s, capacity: %d sessions%n",
+            gridUri, getCapacity()));
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(testsByNode).entrySet()) {
+            LongAdder started = sessionsByNode.get(entry.getKey());
+            summary.append(String.format("node %s: %d sessions started, %d tests%n",
+                nodeUris.getOrDefault(entry.getKey(), entry.getKey()), started == null ? 0 : started.sum(),
+                entry.getValue().sum()));
+        }
+        summary.append(String.format(
+            "tests on the node of the class's previous test: %d, moved to another node: %d, first of their class: %d%n"
+                + "slot waits: %d (p95 %.0f ms, max %.0f ms)%n"
+                + "queue time: p50 %.0f ms, p95 %.0f ms, max %.0f ms%n"
+                + "execution time: p50 %.0f ms, p95 %.0f ms, max %.0f ms",
+            sameNode.sum(), movedNode.sum(), firstOfClass.sum(),
+            slotWait.getCount(), slotWait.getPercentileMillis(95), slotWait.getMaxMillis(),
+            queueTime.getPercentileMillis(50), queueTime.getPercentileMillis(95), queueTime.getMaxMillis(),
+            executionTime.getPercentileMillis(50), executionTime.getPercentileMillis(95),
+            executionTime.getMaxMillis()));
+        return summary.toString();
+    }
+
+    long getSlotWaits() {
+        return slotWait.getCount();
+    }
+
+    long getTestsOnSameNode() {
+        return sameNode.sum();
+    }
+
+    long getTestsMovedNode() {
+        return movedNode.sum();
+    }
+}
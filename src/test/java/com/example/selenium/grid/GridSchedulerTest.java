@@ -0,0 +1,157 @@
+package com.example.selenium.grid;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.json.Json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tests for the Grid scheduler's capacity accounting and session locality against a fake Grid
+ * status endpoint. These run without a browser or a Grid.
+ */
+public class GridSchedulerTest {
+
+    private HttpServer server;
+    private byte[] status;
+    // When set, each status request is answered only once this many requests have arrived
+    private volatile CountDownLatch statusRequests;
+    private final LongAdder overlappingStatusRequests = new LongAdder();
+    private GridScheduler scheduler;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        try (InputStream in = GridSchedulerTest.class.getResourceAsStream("/grid/status.json")) {
+            status = in.readAllBytes();
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/status", exchange -> {
+            CountDownLatch requests = statusRequests;
+            if (requests != null) {
+                requests.countDown();
+                try {
+                    if (requests.await(5, TimeUnit.SECONDS)) {
+                        overlappingStatusRequests.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, status.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(status);
+            }
+        });
+        server.start();
+        scheduler = new GridScheduler(URI.create("http://127.0.0.1:" + server.getAddress().getPort()),
+            Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Tests that free slots respect both the idle slots of a browser and the node's max
+     * sessions, and that nodes which are not up do not count
+     */
+    @Test
+    public void testStatusCountsFreeSlotsPerBrowser() {
+        GridStatus parsed = GridStatus.parse(new Json().toType(new String(status), Json.MAP_TYPE));
+
+        assertEquals(3, parsed.getCapacity());
+        assertEquals(2, parsed.getFreeSlots("chrome"), "node-a has one chrome slot left, node-b one session");
+        assertEquals(1, parsed.getFreeSlots("firefox"));
+        assertEquals(0, parsed.getFreeSlots("MicrosoftEdge"));
+        assertEquals("node-a", parsed.nodeOfSession("session-1"));
+        assertNull(parsed.nodeOfSession("session-2"));
+        assertEquals(3, scheduler.getCapacity());
+    }
+
+    /**
+     * Tests that a slot being started is not handed out again while the Grid still reports it
+     * as free, and that a waiting request gets it once the start has finished
+     */
+    @Test
+    public void testSlotsAreNotOverbooked() throws InterruptedException {
+        scheduler.acquireSlot("firefox", TimeUnit.SECONDS.toNanos(1));
+        assertThrows(IllegalStateException.class,
+            () -> scheduler.acquireSlot("firefox", TimeUnit.MILLISECONDS.toNanos(200)));
+        assertEquals(0, scheduler.getSlotWaits());
+
+        Thread starter = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler.releaseSlot("firefox");
+        });
+        starter.start();
+        scheduler.acquireSlot("firefox", TimeUnit.SECONDS.toNanos(5));
+        starter.join();
+
+        assertEquals(1, scheduler.getSlotWaits());
+        scheduler.releaseSlot("firefox");
+    }
+
+    /**
+     * Tests that status requests are not made while holding the scheduler's lock: a second
+     * caller reaches the Grid while the first is still waiting for its answer
+     */
+    @Test
+    public void testStatusIsFetchedOutsideTheLock() throws Exception {
+        statusRequests = new CountDownLatch(2);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(scheduler::getCapacity);
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(scheduler::getCapacity);
+
+        assertEquals(3, first.get(10, TimeUnit.SECONDS));
+        assertEquals(3, second.get(10, TimeUnit.SECONDS));
+        assertEquals(2, overlappingStatusRequests.sum(), "Both status requests should have been in flight together");
+    }
+
+    /**
+     * Tests that a class's next test gets an idle session on the node of its previous test
+     */
+    @Test
+    public void testIdleSessionOnPreviousNodeIsPreferred() {
+        scheduler.recordCheckout("SuiteTest", "node-b", 0);
+        Deque<String> idle = new ArrayDeque<>(Arrays.asList("node-a/1", "node-b/2", "node-a/3"));
+
+        String session = scheduler.pollIdle(idle, GridSchedulerTest::node, "SuiteTest");
+        scheduler.recordCheckout("SuiteTest", node(session), 0);
+
+        assertEquals("node-b/2", session);
+        assertEquals("node-a/1", scheduler.pollIdle(idle, GridSchedulerTest::node, "OtherTest"));
+        assertEquals("node-a/3", scheduler.pollIdle(idle, GridSchedulerTest::node, "SuiteTest"));
+        assertEquals(1, scheduler.getTestsOnSameNode());
+        assertEquals(0, scheduler.getTestsMovedNode());
+    }
+
+    private static String node(String session) {
+        return session.substring(0, session.indexOf('/'));
+    }
+}
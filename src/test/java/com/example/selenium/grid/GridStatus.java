@@ -0,0 +1,189 @@
+package com.example.selenium.grid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of a Selenium Grid's /status endpoint: the nodes, how many sessions each may run
+ * and which of their slots are busy.
+ */
+public final class GridStatus {
+
+    private final boolean ready;
+    private final List<Node> nodes;
+
+    private GridStatus(boolean ready, List<Node> nodes) {
+        this.ready = ready;
+        this.nodes = Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Read the response of GET /status
+     *
+     * @param response the decoded JSON response
+     * @return the snapshot
+     * @throws IllegalArgumentException if the response is not a Grid status
+     */
+    static GridStatus parse(Map<String, Object> response) {
+        Map<?, ?> value = asMap(response.get("value"));
+        if (value == null) {
+            throw new IllegalArgumentException("Not a Grid status response: " + response);
+        }
+        List<Node> nodes = new ArrayList<>();
+        if (value.get("nodes") instanceof List) {
+            for (Object node : (List<?>) value.get("nodes")) {
+                if (asMap(node) != null) {
+                    nodes.add(Node.parse(asMap(node)));
+                }
+            }
+        }
+        return new GridStatus(Boolean.TRUE.equals(value.get("ready")), nodes);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Sessions the Grid can run at once on the nodes that are up
+     *
+     * @return the sum of the nodes' max sessions
+     */
+    public int getCapacity() {
+        int capacity = 0;
+        for (Node node : nodes) {
+            if (node.isUp()) {
+                capacity += node.getMaxSessions();
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Sessions of a browser the Grid could start right now
+     *
+     * @param browserName the W3C browser name, e.g. "chrome"
+     * @return free slots for the browser across all nodes that are up
+     */
+    public int getFreeSlots(String browserName) {
+        int free = 0;
+        for (Node node : nodes) {
+            free += node.getFreeSlots(browserName);
+        }
+        return free;
+    }
+
+    /**
+     * Find the node running a session
+     *
+     * @param sessionId the WebDriver session id
+     * @return the node id, or null if no node reports the session
+     */
+    public String nodeOfSession(String sessionId) {
+        for (Node node : nodes) {
+            if (node.sessionIds.contains(sessionId)) {
+                return node.getId();
+            }
+        }
+        return null;
+    }
+
+    private static Map<?, ?> asMap(Object value) {
+        return value instanceof Map ? (Map<?, ?>) value : null;
+    }
+
+    private static int asInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    /**
+     * One Grid node
+     */
+    public static final class Node {
+        private final String id;
+        private final String uri;
+        private final boolean up;
+        private final int maxSessions;
+        private final Map<String, Integer> idleSlotsByBrowser;
+        private final Set<String> sessionIds;
+
+        private Node(String id, String uri, boolean up, int maxSessions, Map<String, Integer> idleSlotsByBrowser,
+                     Set<String> sessionIds) {
+            this.id = id;
+            this.uri = uri;
+            this.up = up;
+            this.maxSessions = maxSessions;
+            this.idleSlotsByBrowser = idleSlotsByBrowser;
+            this.sessionIds = sessionIds;
+        }
+
+        private static Node parse(Map<?, ?> node) {
+            Map<String, Integer> idleSlots = new HashMap<>();
+            Set<String> sessionIds = new HashSet<>();
+            int slotCount = 0;
+            if (node.get("slots") instanceof List) {
+                for (Object slotValue : (List<?>) node.get("slots")) {
+                    Map<?, ?> slot = asMap(slotValue);
+                    if (slot == null) {
+                        continue;
+                    }
+                    slotCount++;
+                    Map<?, ?> session = asMap(slot.get("session"));
+                    Map<?, ?> stereotype = asMap(slot.get("stereotype"));
+                    if (session != null) {
+                        sessionIds.add(String.valueOf(session.get("sessionId")));
+                    } else if (stereotype != null && stereotype.get("browserName") != null) {
+                        idleSlots.merge(String.valueOf(stereotype.get("browserName")), 1, Integer::sum);
+                    }
+                }
+            }
+            int maxSessions = node.containsKey("maxSessions") ? asInt(node.get("maxSessions")) : slotCount;
+            return new Node(String.valueOf(node.get("id")), String.valueOf(node.get("uri")),
+                "UP".equals(node.get("availability")), maxSessions, idleSlots, sessionIds);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+
+        public int getMaxSessions() {
+            return maxSessions;
+        }
+
+        public int getActiveSessions() {
+            return sessionIds.size();
+        }
+
+        /**
+         * Sessions of a browser the node could start right now: an idle slot for the browser
+         * is needed, and the node must be below its max sessions, which may be fewer than its slots
+         *
+         * @param browserName the W3C browser name, e.g. "chrome"
+         * @return the free slots, 0 if the node is not up
+         */
+        public int getFreeSlots(String browserName) {
+            if (!up) {
+                return 0;
+            }
+            int idle = idleSlotsByBrowser.getOrDefault(browserName, 0);
+            return Math.max(0, Math.min(idle, maxSessions - sessionIds.size()));
+        }
+    }
+}
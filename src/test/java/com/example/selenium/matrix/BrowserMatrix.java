@@ -0,0 +1,240 @@
+package com.example.selenium.matrix;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.driver.Browser;
+import com.example.selenium.driver.DriverPool;
+import com.example.selenium.reporting.RunReport;
+import com.example.selenium.rerun.TestLauncher;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs one test class on several browsers at the same time.
+ *
+ * Every browser gets its own thread, which runs the class through the JUnit Platform launcher
+ * with the browser bound to the thread; {@link com.example.selenium.BaseTest} checks out its
+ * sessions for that browser. The browsers run side by side, so the matrix takes about as long
+ * as its slowest browser. Each browser has its own session budget in the {@link DriverPool},
+ * so a browser that starts faster cannot take the slots of the others.
+ */
+public class BrowserMatrix {
+
+    private static final Logger logger = Logger.getLogger(BrowserMatrix.class.getName());
+
+    private static final ThreadLocal<Browser> currentBrowser = new ThreadLocal<>();
+
+    private final List<Browser> browsers;
+    private final Class<?> testClass;
+    private final int sessionsPerBrowser;
+
+    /**
+     * Constructor for BrowserMatrix
+     *
+     * @param browsers the browsers to run the tests on
+     * @param testClass the test class to run on every browser
+     * @param sessionsPerBrowser live sessions each browser may hold, 0 to split the pool evenly
+     */
+    public BrowserMatrix(List<Browser> browsers, Class<?> testClass, int sessionsPerBrowser) {
+        if (browsers.isEmpty()) {
+            throw new IllegalArgumentException("The browser matrix needs at least one browser");
+        }
+        this.browsers = Collections.unmodifiableList(new ArrayList<>(browsers));
+        this.testClass = testClass;
+        this.sessionsPerBrowser = sessionsPerBrowser;
+    }
+
+    /**
+     * Create the matrix configured with selenium.matrix, selenium.matrix.tests and
+     * selenium.matrix.sessionsPerBrowser
+     *
+     * @return the matrix
+     */
+    public static BrowserMatrix fromConfig() {
+        try {
+            return new BrowserMatrix(parseBrowsers(TestConfig.matrix()), Class.forName(TestConfig.matrixTests()),
+                TestConfig.matrixSessionsPerBrowser());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Matrix test class not found: " + TestConfig.matrixTests(), e);
+        }
+    }
+
+    /**
+     * Parse a comma separated list of browsers
+     *
+     * @param names e.g. "chrome, firefox-headless"
+     * @return the browsers, without duplicates
+     */
+    public static List<Browser> parseBrowsers(String names) {
+        List<Browser> browsers = new ArrayList<>();
+        for (String name : names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                Browser browser = Browser.fromName(name);
+                if (!browsers.contains(browser)) {
+                    browsers.add(browser);
+                }
+            }
+        }
+        return browsers;
+    }
+
+    /**
+     * The browser tests on the current thread should use: the matrix browser bound to the
+     * thread, or selenium.browser outside of a matrix run
+     *
+     * @return the browser
+     */
+    public static Browser currentBrowser() {
+        Browser browser = currentBrowser.get();
+        return browser != null ? browser : Browser.fromName(TestConfig.browser());
+    }
+
+    /**
+     * Whether the current thread runs the tests of one browser of a matrix
+     *
+     * @return true on a matrix thread
+     */
+    public static boolean isMatrixThread() {
+        return currentBrowser.get() != null;
+    }
+
+    /**
+     * Run the test class on every browser and wait for all of them
+     *
+     * @return the merged results, also added to the run report
+     */
+    public MatrixReport run() {
+        DriverPool pool = DriverPool.getInstance();
+        int budget = sessionsPerBrowser > 0 ? sessionsPerBrowser : Math.max(1, pool.getMaxSize() / browsers.size());
+        if (budget * browsers.size() > pool.getMaxSize()) {
+            logger.warning("Session budgets of " + budget + " for " + browsers.size() + " browsers exceed the pool"
+                + " size of " + pool.getMaxSize() + "; browsers will wait for each other's sessions");
+        }
+        for (Browser browser : browsers) {
+            pool.setSessionBudget(browser, budget);
+        }
+
+        MatrixReport report = new MatrixReport();
+        RunReport.register("Browser matrix (" + testClass.getSimpleName() + ")", report::summary);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(browsers.size(), runnable -> {
+            Thread thread = new Thread(runnable, "browser-matrix-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<BrowserRun>> runs = new ArrayList<>();
+            for (Browser browser : browsers) {
+                runs.add(executor.submit(() -> runOn(browser)));
+            }
+            for (Future<BrowserRun> run : runs) {
+                report.add(run.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the browser matrix", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Browser matrix run failed", e.getCause());
+        } finally {
+            report.setWallNanos(System.nanoTime() - start);
+            executor.shutdownNow();
+            for (Browser browser : browsers) {
+                pool.setSessionBudget(browser, 0);
+            }
+        }
+        logger.info("Browser matrix finished in " + TimeUnit.NANOSECONDS.toSeconds(report.getWallNanos()) + " s");
+        return report;
+    }
+
+    private BrowserRun runOn(Browser browser) {
+        BrowserRun run = new BrowserRun(browser);
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+            .selectors(selectClass(testClass))
+            // The browser is bound to this thread, so the tests of one browser run on it one by one
+            .configurationParameter("junit.jupiter.execution.parallel.enabled", "false")
+            .build();
+        currentBrowser.set(browser);
+        long start = System.nanoTime();
+        try {
+            TestLauncher.nestedLauncher().execute(request, new OutcomeRecorder(run));
+        } finally {
+            run.setDurationNanos(System.nanoTime() - start);
+            currentBrowser.remove();
+        }
+        return run;
+    }
+
+    /**
+     * Records the outcome of every test of one browser's run
+     */
+    private static final class OutcomeRecorder implements TestExecutionListener {
+
+        private final BrowserRun run;
+
+        private OutcomeRecorder(BrowserRun run) {
+            this.run = run;
+        }
+
+        @Override
+        public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+            if (testIdentifier.isTest()) {
+                run.record(testName(testIdentifier), BrowserRun.Outcome.SKIPPED, null);
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+            if (!testIdentifier.isTest()) {
+                return;
+            }
+            String failure = result.getThrowable().map(OutcomeRecorder::firstLine).orElse(null);
+            switch (result.getStatus()) {
+                case SUCCESSFUL:
+                    run.record(testName(testIdentifier), BrowserRun.Outcome.PASSED, null);
+                    break;
+                case ABORTED:
+                    run.record(testName(testIdentifier), BrowserRun.Outcome.ABORTED, failure);
+                    break;
+                case FAILED:
+                default:
+                    run.record(testName(testIdentifier), BrowserRun.Outcome.FAILED, failure);
+                    break;
+            }
+        }
+
+        private static String testName(TestIdentifier testIdentifier) {
+            TestSource source = testIdentifier.getSource().orElse(null);
+            if (source instanceof MethodSource) {
+                MethodSource method = (MethodSource) source;
+                String className = method.getClassName();
+                return className.substring(className.lastIndexOf('.') + 1) + "." + method.getMethodName();
+            }
+            return testIdentifier.getDisplayName();
+        }
+
+        private static String firstLine(Throwable failure) {
+            String message = String.valueOf(failure.getMessage());
+            int newline = message.indexOf('\n');
+            return failure.getClass().getSimpleName() + ": " + (newline < 0 ? message : message.substring(0, newline));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.selenium.matrix;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.selenium.config.TestConfig;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.logging.Logger;
+
+/**
+ * Runs the matrix test class on every browser of the matrix at once, e.g.
+ * {@code mvn test -Dtest=BrowserMatrixTest -Dselenium.matrix=chrome,firefox,chrome-headless,firefox-headless}.
+ */
+@EnabledIfSystemProperty(named = TestConfig.MATRIX, matches = ".*[a-zA-Z].*")
+public class BrowserMatrixTest {
+
+    private static final Logger logger = Logger.getLogger(BrowserMatrixTest.class.getName());
+
+    /**
+     * Runs the matrix and checks that every test passed on every browser
+     */
+    @Test
+    public void runMatrix() {
+        MatrixReport report = BrowserMatrix.fromConfig().run();
+        logger.info("Browser matrix:\n" + report.summary());
+
+        assertTrue(report.isPassed(), "Tests failed in the browser matrix:\n" + report.summary());
+    }
+}
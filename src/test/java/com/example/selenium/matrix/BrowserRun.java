@@ -0,0 +1,87 @@
+package com.example.selenium.matrix;
+
+import com.example.selenium.driver.Browser;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of the matrix test class on one browser
+ */
+public final class BrowserRun {
+
+    /**
+     * Outcome of one test
+     */
+    public enum Outcome {
+        PASSED,
+        FAILED,
+        ABORTED,
+        SKIPPED
+    }
+
+    private final Browser browser;
+    private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+    private final Map<String, String> failures = new LinkedHashMap<>();
+    private long durationNanos;
+
+    /**
+     * Constructor for BrowserRun
+     *
+     * @param browser the browser the tests ran on
+     */
+    public BrowserRun(Browser browser) {
+        this.browser = browser;
+    }
+
+    /**
+     * Record the outcome of one test
+     *
+     * @param test name of the test, e.g. "WikipediaTest.testChangeLanguageToSpanish"
+     * @param outcome how the test ended
+     * @param failure message of the failure, or null
+     */
+    public synchronized void record(String test, Outcome outcome, String failure) {
+        outcomes.put(test, outcome);
+        if (failure != null) {
+            failures.put(test, failure);
+        }
+    }
+
+    public Browser getBrowser() {
+        return browser;
+    }
+
+    public synchronized Map<String, Outcome> getOutcomes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(outcomes));
+    }
+
+    public synchronized Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+
+    /**
+     * Number of tests with the given outcome
+     *
+     * @param outcome the outcome
+     * @return the count
+     */
+    public synchronized int count(Outcome outcome) {
+        int count = 0;
+        for (Outcome recorded : outcomes.values()) {
+            if (recorded == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+}
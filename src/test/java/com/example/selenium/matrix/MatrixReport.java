@@ -0,0 +1,151 @@
+package com.example.selenium.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The runs of one test class on every browser of the matrix, merged: duration and outcome
+ * counts per browser, and the tests whose outcome is not the same on every browser.
+ */
+public final class MatrixReport {
+
+    private static final String NOT_RUN = "-";
+
+    private final List<BrowserRun> runs = new ArrayList<>();
+    private long wallNanos;
+
+    /**
+     * Add the run of one browser
+     *
+     * @param run the run
+     */
+    public synchronized void add(BrowserRun run) {
+        runs.add(run);
+    }
+
+    public synchronized List<BrowserRun> getRuns() {
+        return Collections.unmodifiableList(new ArrayList<>(runs));
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public void setWallNanos(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * Tests that did not end the same way on every browser, including tests that only ran
+     * on some of them
+     *
+     * @return names of the tests, in the order they first ran
+     */
+    public synchronized List<String> getDifferences() {
+        List<String> differences = new ArrayList<>();
+        for (String test : allTests()) {
+            Set<String> outcomes = new LinkedHashSet<>();
+            for (BrowserRun run : runs) {
+                outcomes.add(outcomeName(run, test));
+            }
+            if (outcomes.size() > 1) {
+                differences.add(test);
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Whether every test passed or was skipped on every browser
+     *
+     * @return true if no test failed or aborted
+     */
+    public synchronized boolean isPassed() {
+        for (BrowserRun run : runs) {
+            if (run.count(BrowserRun.Outcome.FAILED) > 0 || run.count(BrowserRun.Outcome.ABORTED) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sum of the durations of all browser runs, i.e. the time the matrix would take one browser
+     * after the other
+     *
+     * @return the summed duration
+     */
+    public synchronized long getSequentialNanos() {
+        long sum = 0;
+        for (BrowserRun run : runs) {
+            sum += run.getDurationNanos();
+        }
+        return sum;
+    }
+
+    /**
+     * Render the merged report
+     *
+     * @return human readable summary
+     */
+    public synchronized String summary() {
+        if (runs.isEmpty()) {
+            return "no browsers ran";
+        }
+        StringBuilder summary = new StringBuilder(String.format("%-18s %10s %7s %7s %8s%n",
+            "browser", "duration", "passed", "failed", "skipped"));
+        for (BrowserRun run : runs) {
+            summary.append(String.format("%-18s %8.1f s %7d %7d %8d%n", run.getBrowser().getName(),
+                seconds(run.getDurationNanos()), run.count(BrowserRun.Outcome.PASSED),
+                run.count(BrowserRun.Outcome.FAILED) + run.count(BrowserRun.Outcome.ABORTED),
+                run.count(BrowserRun.Outcome.SKIPPED)));
+        }
+        summary.append(String.format("wall time %.1f s for %.1f s of browser time%n",
+            seconds(wallNanos), seconds(getSequentialNanos())));
+
+        List<String> differences = getDifferences();
+        if (differences.isEmpty()) {
+            summary.append("no differences between browsers");
+        } else {
+            summary.append(String.format("differences:%n%-50s", "test"));
+            for (BrowserRun run : runs) {
+                summary.append(String.format(" %-18s", run.getBrowser().getName()));
+            }
+            for (String test : differences) {
+                summary.append(String.format("%n%-50s", test));
+                for (BrowserRun run : runs) {
+                    summary.append(String.format(" %-18s", outcomeName(run, test)));
+                }
+            }
+        }
+        for (BrowserRun run : runs) {
+            for (Map.Entry<String, String> failure : run.getFailures().entrySet()) {
+                summary.append(String.format("%n%s on %s: %s", failure.getKey(), run.getBrowser().getName(),
+                    failure.getValue()));
+            }
+        }
+        return summary.toString();
+    }
+
+    private Set<String> allTests() {
+        Set<String> tests = new LinkedHashSet<>();
+        for (BrowserRun run : runs) {
+            tests.addAll(run.getOutcomes().keySet());
+        }
+        return tests;
+    }
+
+    private static String outcomeName(BrowserRun run, String test) {
+        BrowserRun.Outcome outcome = run.getOutcomes().get(test);
+        return outcome == null ? NOT_RUN : outcome.name();
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
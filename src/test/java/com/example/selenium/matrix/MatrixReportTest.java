@@ -0,0 +1,71 @@
+package com.example.selenium.matrix;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.selenium.driver.Browser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for merging the browser runs of a matrix
+ */
+public class MatrixReportTest {
+
+    /**
+     * Tests that only tests with different outcomes, or missing on a browser, are differences
+     */
+    @Test
+    public void testDifferences() {
+        BrowserRun chrome = new BrowserRun(Browser.CHROME);
+        chrome.record("WikipediaTest.a", BrowserRun.Outcome.PASSED, null);
+        chrome.record("WikipediaTest.b", BrowserRun.Outcome.PASSED, null);
+        chrome.record("WikipediaTest.c", BrowserRun.Outcome.PASSED, null);
+        BrowserRun firefox = new BrowserRun(Browser.FIREFOX_HEADLESS);
+        firefox.record("WikipediaTest.a", BrowserRun.Outcome.PASSED, null);
+        firefox.record("WikipediaTest.b", BrowserRun.Outcome.FAILED, "AssertionFailedError: title");
+
+        MatrixReport report = new MatrixReport();
+        report.add(chrome);
+        report.add(firefox);
+
+        assertEquals(Arrays.asList("WikipediaTest.b", "WikipediaTest.c"), report.getDifferences());
+        assertFalse(report.isPassed(), "A failure on one browser should fail the matrix");
+        assertTrue(report.summary().contains("WikipediaTest.b on firefox-headless: AssertionFailedError: title"),
+            "Summary should list the failure per browser");
+    }
+
+    /**
+     * Tests that identical outcomes on every browser pass without differences
+     */
+    @Test
+    public void testSameOutcomes() {
+        MatrixReport report = new MatrixReport();
+        for (Browser browser : Browser.values()) {
+            BrowserRun run = new BrowserRun(browser);
+            run.record("WikipediaTest.a", BrowserRun.Outcome.PASSED, null);
+            run.record("WikipediaTest.b", BrowserRun.Outcome.SKIPPED, null);
+            run.setDurationNanos(TimeUnit.SECONDS.toNanos(10));
+            report.add(run);
+        }
+        report.setWallNanos(TimeUnit.SECONDS.toNanos(11));
+
+        assertEquals(Collections.emptyList(), report.getDifferences());
+        assertTrue(report.isPassed(), "Passed and skipped tests should pass the matrix");
+        assertEquals(TimeUnit.SECONDS.toNanos(40), report.getSequentialNanos());
+    }
+
+    /**
+     * Tests parsing of browser lists, including headless variants
+     */
+    @Test
+    public void testParseBrowsers() {
+        assertEquals(Arrays.asList(Browser.CHROME, Browser.FIREFOX, Browser.CHROME_HEADLESS),
+            BrowserMatrix.parseBrowsers("chrome, firefox,,Chrome-Headless,chrome"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.reporting.RunReport;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * JVM-wide latency histograms of WebDriver commands, keyed by the page object method that
+ * issued the command and the command itself, e.g. {@code WikipediaHomePage.enterSearchTerm sendKeys}.
+ *
+ * The full table is written to command-latency.txt in the reports directory at the end of the
+ * run; the run report lists the entries that took the most time in total.
+ */
+public final class CommandMetrics {
+
+    private static final Logger logger = Logger.getLogger(CommandMetrics.class.getName());
+
+    public static final String FILE_NAME = "command-latency.txt";
+
+    private static final int RUN_REPORT_ENTRIES = 15;
+
+    private static final ConcurrentMap<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    static {
+        RunReport.register("WebDriver command latency", CommandMetrics::summary);
+    }
+
+    private CommandMetrics() {
+    }
+
+    /**
+     * Wrap a driver so that every command it sends is timed
+     *
+     * @param driver the driver to instrument
+     * @return the instrumented driver
+     */
+    public static WebDriver instrument(WebDriver driver) {
+        return new EventFiringDecorator<>(new CommandTimingListener()).decorate(driver);
+    }
+
+    /**
+     * Find the page object method (or test) issuing a command on the current thread, for
+     * commands sent past the instrumenting decorator
+     *
+     * @return e.g. "WikipediaArticlePage.verifyArticle"
+     */
+    public static String caller() {
+        return CommandTimingListener.caller();
+    }
+
+    /**
+     * Record the duration of a command
+     *
+     * @param caller the page object method (or test) that issued the command
+     * @param command the WebDriver command, e.g. "findElement"
+     * @param nanos the duration in nanoseconds
+     */
+    public static void record(String caller, String command, long nanos) {
+        histograms.computeIfAbsent(new Key(caller, command), key -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    /**
+     * Get a snapshot of all histograms
+     *
+     * @return histograms keyed by "caller command"
+     */
+    public static Map<String, LatencyHistogram> snapshot() {
+        Map<String, LatencyHistogram> snapshot = new TreeMap<>();
+        histograms.forEach((key, histogram) -> snapshot.put(key.toString(), histogram));
+        return snapshot;
+    }
+
+    /**
+     * Write the full latency table and return the top entries for the run report
+     *
+     * @return human readable summary
+     */
+    static String summary() {
+        if (histograms.isEmpty()) {
+            return "no commands recorded";
+        }
+        List<Map.Entry<Key, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingDouble(
+            (Map.Entry<Key, LatencyHistogram> entry) -> entry.getValue().getTotalMillis()).reversed());
+
+        String table = table(entries);
+        try {
+            Path file = RunReport.reportFile(FILE_NAME);
+            Files.write(file, table.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warning("Could not write " + FILE_NAME + ": " + e.getMessage());
+        }
+
+        String top = table(entries.subList(0, Math.min(RUN_REPORT_ENTRIES, entries.size())));
+        return top + "(full table in " + FILE_NAME + ")";
+    }
+
+    private static String table(List<Map.Entry<Key, LatencyHistogram>> entries) {
+        StringBuilder table = new StringBuilder(String.format("%-45s %-22s %7s %9s %9s %9s %9s %10s%n",
+            "caller", "command", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "total ms"));
+        for (Map.Entry<Key, LatencyHistogram> entry : entries) {
+            LatencyHistogram histogram = entry.getValue();
+            table.append(String.format("%-45s %-22s %7d %9.1f %9.1f %9.1f %9.1f %10.1f%n",
+                entry.getKey().caller, entry.getKey().command, histogram.getCount(),
+                histogram.getPercentileMillis(50), histogram.getPercentileMillis(95),
+                histogram.getPercentileMillis(99), histogram.getMaxMillis(), histogram.getTotalMillis()));
+        }
+        return table.toString();
+    }
+
+    private static final class Key {
+        private final String caller;
+        private final String command;
+
+        private Key(String caller, String command) {
+            this.caller = caller;
+            this.command = command;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return caller.equals(key.caller) && command.equals(key.command);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * caller.hashCode() + command.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return caller + " " + command;
+        }
+    }
+}
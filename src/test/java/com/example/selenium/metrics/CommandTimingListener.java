@@ -0,0 +1,113 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.pages.BasePage;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Times every WebDriver, WebElement and helper call made through an instrumented driver and
+ * attributes it to the page object method that issued it.
+ *
+ * Overhead per command is a nanoTime pair, one stack walk and one atomic histogram update,
+ * which is negligible next to the HTTP round trip of the command itself.
+ */
+class CommandTimingListener implements WebDriverListener {
+
+    // Calls that only hand out helper objects and never reach the driver
+    private static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList(
+        "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+        "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"));
+
+    private static final String TEST_PACKAGE = "com.example.selenium.";
+    private static final String[] INFRASTRUCTURE_PACKAGES = {
+        "com.example.selenium.metrics.", "com.example.selenium.driver.", "com.example.selenium.support."
+    };
+
+    private static final StackWalker stackWalker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    // Start times of the calls in progress on each thread; decorated calls can nest
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private void finish(Method method) {
+        Long start = startTimes.get().poll();
+        if (start == null || LOCAL_CALLS.contains(method.getName())) {
+            return;
+        }
+        CommandMetrics.record(caller(), method.getName(), System.nanoTime() - start);
+    }
+
+    /**
+     * Find the page object method that issued the command. Helpers of {@link BasePage} such as
+     * open() and withElement() are skipped in favour of the page method that called them; a
+     * BasePage method called straight from a test, and failing that the test method, is the
+     * fallback.
+     *
+     * @return e.g. "WikipediaHomePage.enterSearchTerm"
+     */
+    static String caller() {
+        return stackWalker.walk(frames -> {
+            Optional<StackWalker.StackFrame> basePageFrame = Optional.empty();
+            Optional<StackWalker.StackFrame> testFrame = Optional.empty();
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> declaringClass = frame.getDeclaringClass();
+                if (declaringClass == BasePage.class) {
+                    if (basePageFrame.isEmpty()) {
+                        basePageFrame = Optional.of(frame);
+                    }
+                } else if (BasePage.class.isAssignableFrom(declaringClass)) {
+                    return describe(frame);
+                } else if (testFrame.isEmpty() && isTestCode(declaringClass.getName())) {
+                    testFrame = Optional.of(frame);
+                }
+            }
+            Optional<StackWalker.StackFrame> fallback = basePageFrame.isPresent() ? basePageFrame : testFrame;
+            return fallback.map(CommandTimingListener::describe).orElse("(unattributed)");
+        });
+    }
+
+    private static boolean isTestCode(String className) {
+        if (!className.startsWith(TEST_PACKAGE)) {
+            return false;
+        }
+        for (String infrastructure : INFRASTRUCTURE_PACKAGES) {
+            if (className.startsWith(infrastructure)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String describe(StackWalker.StackFrame frame) {
+        String methodName = frame.getMethodName();
+        // Lambdas inside a page method are named lambda$enterSearchTerm$0
+        if (methodName.startsWith("lambda$")) {
+            int end = methodName.indexOf('$', "lambda$".length());
+            methodName = end < 0 ? methodName : methodName.substring("lambda$".length(), end);
+        }
+        return frame.getDeclaringClass().getSimpleName() + "." + methodName;
+    }
+}
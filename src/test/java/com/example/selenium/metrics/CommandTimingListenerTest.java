@@ -0,0 +1,104 @@
+package com.example.selenium.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.example.selenium.pages.BasePage;
+import com.example.selenium.waits.DomCondition;
+import com.example.selenium.waits.DomConditions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Tests for attributing commands to page object methods, against a stub driver. These run
+ * without a browser.
+ */
+public class CommandTimingListenerTest {
+
+    /**
+     * Tests that a command sent through a BasePage helper counts for the page method that used the helper
+     */
+    @Test
+    public void testCommandsThroughBasePageHelpersCountForThePageMethod() {
+        AttributionPage page = new AttributionPage(CommandMetrics.instrument(stubDriver()));
+
+        assertEquals("Java", page.readHeading());
+
+        Map<String, LatencyHistogram> snapshot = CommandMetrics.snapshot();
+        assertEquals(1, snapshot.get("AttributionPage.readHeading findElement").getCount(), snapshot.keySet().toString());
+        assertEquals(1, snapshot.get("AttributionPage.readHeading getText").getCount(), snapshot.keySet().toString());
+        assertFalse(snapshot.containsKey("BasePage.withElement findElement"), snapshot.keySet().toString());
+    }
+
+    /**
+     * Tests that a BasePage method called straight from a test still counts for that method
+     */
+    @Test
+    public void testBasePageMethodCalledFromTestCountsForBasePage() {
+        AttributionPage page = new AttributionPage(CommandMetrics.instrument(stubDriver()));
+
+        page.currentUrlAsync().join();
+
+        assertTrue(CommandMetrics.snapshot().containsKey("BasePage.currentUrlAsync getCurrentUrl"),
+            CommandMetrics.snapshot().keySet().toString());
+    }
+
+    private static WebDriver stubDriver() {
+        WebElement heading = (WebElement) Proxy.newProxyInstance(CommandTimingListenerTest.class.getClassLoader(),
+            new Class<?>[] {WebElement.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getText":
+                        return "Java";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+        return (WebDriver) Proxy.newProxyInstance(CommandTimingListenerTest.class.getClassLoader(),
+            new Class<?>[] {WebDriver.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "findElement":
+                        return heading;
+                    case "getCurrentUrl":
+                        return "https://en.wikipedia.org/wiki/Java";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    /**
+     * Page whose only method reads its heading through {@link BasePage#withElement}
+     */
+    private static final class AttributionPage extends BasePage {
+
+        private static final By HEADING = By.id("firstHeading");
+
+        private AttributionPage(WebDriver driver) {
+            super(driver);
+        }
+
+        @Override
+        protected DomCondition<?> readyCondition() {
+            return DomConditions.presenceOfElementLocated(HEADING);
+        }
+
+        private String readHeading() {
+            return withElement(HEADING, WebElement::getText);
+        }
+    }
+}
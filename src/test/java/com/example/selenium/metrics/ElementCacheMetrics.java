@@ -0,0 +1,98 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.reporting.RunReport;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Element lookups served by the page objects' element caches, per page class. Every hit is a
+ * findElement round trip the test did not make.
+ */
+public final class ElementCacheMetrics {
+
+    private static final ConcurrentMap<String, PageStats> statsByPage = new ConcurrentHashMap<>();
+
+    static {
+        RunReport.register("Element cache", ElementCacheMetrics::summary);
+    }
+
+    private ElementCacheMetrics() {
+    }
+
+    /**
+     * Record a lookup answered from the cache
+     *
+     * @param page the page class
+     */
+    public static void recordHit(String page) {
+        stats(page).hits.increment();
+    }
+
+    /**
+     * Record a lookup that had to ask the browser
+     *
+     * @param page the page class
+     * @param cached whether the found element was cached; false when the cache is off
+     */
+    public static void recordMiss(String page, boolean cached) {
+        PageStats stats = stats(page);
+        stats.misses.increment();
+        if (!cached) {
+            stats.uncached.increment();
+        }
+    }
+
+    /**
+     * Record cached handles dropped because the document changed
+     *
+     * @param page the page class
+     * @param handles number of handles dropped
+     */
+    public static void recordInvalidated(String page, int handles) {
+        stats(page).invalidated.add(handles);
+    }
+
+    /**
+     * Record a cached handle that turned out to be stale and was looked up again
+     *
+     * @param page the page class
+     */
+    public static void recordStale(String page) {
+        stats(page).stale.increment();
+    }
+
+    private static PageStats stats(String page) {
+        return statsByPage.computeIfAbsent(page, name -> new PageStats());
+    }
+
+    static String summary() {
+        if (statsByPage.isEmpty()) {
+            return "no cached lookups";
+        }
+        StringBuilder summary = new StringBuilder(String.format("%-30s %8s %8s %10s %12s %8s%n",
+            "page", "hits", "misses", "uncached", "invalidated", "stale"));
+        long hits = 0;
+        long lookups = 0;
+        for (Map.Entry<String, PageStats> entry : new TreeMap<>(statsByPage).entrySet()) {
+            PageStats stats = entry.getValue();
+            hits += stats.hits.sum();
+            lookups += stats.hits.sum() + stats.misses.sum();
+            summary.append(String.format("%-30s %8d %8d %10d %12d %8d%n", entry.getKey(), stats.hits.sum(),
+                stats.misses.sum(), stats.uncached.sum(), stats.invalidated.sum(), stats.stale.sum()));
+        }
+        summary.append(String.format("find round trips saved: %d of %d lookups", hits, lookups));
+        return summary.toString();
+    }
+
+    private static final class PageStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder uncached = new LongAdder();
+        private final LongAdder invalidated = new LongAdder();
+        private final LongAdder stale = new LongAdder();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.selenium.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the percentile math of LatencyHistogram. These run without a browser.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that percentiles of a uniform distribution are reported within the bucket precision
+     */
+    @Test
+    public void testPercentilesOfUniformDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.getPercentileMillis(50), 500 * 0.04);
+        assertEquals(950, histogram.getPercentileMillis(95), 950 * 0.04);
+        assertEquals(990, histogram.getPercentileMillis(99), 990 * 0.04);
+        assertEquals(1000, histogram.getMaxMillis(), 0.001);
+    }
+
+    /**
+     * Tests that bucket boundaries are continuous, so every value lands in the bucket that covers it
+     */
+    @Test
+    public void testBucketBoundariesAreContinuous() {
+        for (long micros : new long[] {0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456, 10_000_000}) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            assertTrue(LatencyHistogram.bucketLowerBound(index) <= micros, "lower bound of " + micros);
+            assertTrue(LatencyHistogram.bucketLowerBound(index + 1) > micros, "upper bound of " + micros);
+        }
+    }
+
+    /**
+     * Tests that merging two histograms keeps all recorded values
+     */
+    @Test
+    public void testMerge() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        second.recordNanos(TimeUnit.MILLISECONDS.toNanos(20));
+
+        first.merge(second);
+
+        assertEquals(2, first.getCount());
+        assertEquals(30, first.getTotalMillis(), 0.001);
+        assertEquals(20, first.getMaxMillis(), 0.001);
+    }
+}
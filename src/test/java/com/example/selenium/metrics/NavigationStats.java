@@ -0,0 +1,150 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Page weight (bytes transferred) and load time per page object navigation.
+ *
+ * Runs with the default profile store their averages as a baseline in the history directory
+ * when the JVM exits; runs with the lean profile report what they saved per navigation against
+ * that baseline.
+ */
+public final class NavigationStats {
+
+    private static final Logger logger = Logger.getLogger(NavigationStats.class.getName());
+
+    public static final String BASELINE_FILE = "navigation-baseline.properties";
+
+    private static final ConcurrentMap<String, PageStats> statsByPage = new ConcurrentHashMap<>();
+
+    static {
+        RunReport.register("Page weight", NavigationStats::summary);
+        Runtime.getRuntime().addShutdownHook(new Thread(NavigationStats::writeBaseline, "navigation-baseline-writer"));
+    }
+
+    private NavigationStats() {
+    }
+
+    /**
+     * Record one navigation
+     *
+     * @param page the page object that navigated
+     * @param bytes bytes transferred for the document and its subresources
+     * @param loadMillis time until the load event
+     */
+    public static void record(String page, long bytes, double loadMillis) {
+        PageStats stats = statsByPage.computeIfAbsent(page, name -> new PageStats());
+        stats.count.increment();
+        stats.bytes.add(bytes);
+        stats.loadMicros.add((long) (loadMillis * 1000));
+    }
+
+    static String summary() {
+        if (statsByPage.isEmpty()) {
+            return "no navigations measured";
+        }
+        Path baselineFile = baselineFile();
+        Properties baseline = load(baselineFile);
+        boolean lean = TestConfig.leanProfile();
+
+        StringBuilder summary = new StringBuilder(String.format("profile: %s%n%-30s %6s %12s %10s %16s %14s%n",
+            TestConfig.profile(), "page", "loads", "avg KB", "avg ms", "KB saved/load", "ms saved/load"));
+        Map<String, PageStats> sorted = new TreeMap<>(statsByPage);
+        for (Map.Entry<String, PageStats> entry : sorted.entrySet()) {
+            String page = entry.getKey();
+            PageStats stats = entry.getValue();
+            double kilobytes = stats.averageBytes() / 1024.0;
+            double millis = stats.averageMillis();
+            String savedKilobytes = "-";
+            String savedMillis = "-";
+            if (lean && baseline.containsKey(page + ".bytes")) {
+                savedKilobytes = String.format("%.1f",
+                    Double.parseDouble(baseline.getProperty(page + ".bytes")) / 1024.0 - kilobytes);
+                savedMillis = String.format("%.1f", Double.parseDouble(baseline.getProperty(page + ".loadMs")) - millis);
+            }
+            summary.append(String.format("%-30s %6d %12.1f %10.1f %16s %14s%n",
+                page, stats.count.sum(), kilobytes, millis, savedKilobytes, savedMillis));
+        }
+
+        if (!lean) {
+            summary.append("baseline updated in ").append(baselineFile).append(" at the end of the run");
+        } else if (baseline.isEmpty()) {
+            summary.append("no baseline yet: run once with the default profile to compare");
+        } else {
+            summary.append("savings against ").append(baselineFile);
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Store the averages of a run with the default profile as the baseline for lean runs
+     */
+    static void writeBaseline() {
+        if (statsByPage.isEmpty() || TestConfig.leanProfile()) {
+            return;
+        }
+        Path baselineFile = baselineFile();
+        Properties baseline = load(baselineFile);
+        statsByPage.forEach((page, stats) -> {
+            baseline.setProperty(page + ".bytes", String.valueOf(stats.averageBytes()));
+            baseline.setProperty(page + ".loadMs", String.valueOf(stats.averageMillis()));
+        });
+        store(baselineFile, baseline);
+    }
+
+    private static Path baselineFile() {
+        return Paths.get(TestConfig.historyDir(), BASELINE_FILE);
+    }
+
+    private static Properties load(Path file) {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                logger.warning("Could not read " + file + ": " + e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    private static void store(Path file, Properties properties) {
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, "Average page weight per page object with the default browser profile");
+            }
+        } catch (IOException e) {
+            logger.warning("Could not write " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static final class PageStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder loadMicros = new LongAdder();
+
+        private long averageBytes() {
+            return bytes.sum() / Math.max(1, count.sum());
+        }
+
+        private double averageMillis() {
+            return loadMicros.sum() / 1000.0 / Math.max(1, count.sum());
+        }
+    }
+}
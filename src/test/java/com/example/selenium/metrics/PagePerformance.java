@@ -0,0 +1,129 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.support.Scripts;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Navigation Timing, Resource Timing, paint and largest contentful paint of one page load,
+ * as reported by the browser. Times are milliseconds since navigation start; -1 means the
+ * browser did not report the value, e.g. LCP in browsers without support for it.
+ */
+public class PagePerformance {
+
+    private final double ttfbMillis;
+    private final double domContentLoadedMillis;
+    private final double loadMillis;
+    private final double firstPaintMillis;
+    private final double firstContentfulPaintMillis;
+    private final double largestContentfulPaintMillis;
+    private final long transferBytes;
+    private final int resourceCount;
+    private final double slowestResourceMillis;
+
+    /**
+     * Constructor for PagePerformance
+     *
+     * @param ttfbMillis time to the first byte of the document
+     * @param domContentLoadedMillis end of the DOMContentLoaded event
+     * @param loadMillis end of the load event
+     * @param firstPaintMillis first paint
+     * @param firstContentfulPaintMillis first contentful paint
+     * @param largestContentfulPaintMillis latest largest contentful paint candidate
+     * @param transferBytes bytes transferred for the document and its subresources
+     * @param resourceCount number of subresources loaded
+     * @param slowestResourceMillis duration of the slowest subresource
+     */
+    public PagePerformance(double ttfbMillis, double domContentLoadedMillis, double loadMillis,
+                           double firstPaintMillis, double firstContentfulPaintMillis,
+                           double largestContentfulPaintMillis, long transferBytes, int resourceCount,
+                           double slowestResourceMillis) {
+        this.ttfbMillis = ttfbMillis;
+        this.domContentLoadedMillis = domContentLoadedMillis;
+        this.loadMillis = loadMillis;
+        this.firstPaintMillis = firstPaintMillis;
+        this.firstContentfulPaintMillis = firstContentfulPaintMillis;
+        this.largestContentfulPaintMillis = largestContentfulPaintMillis;
+        this.transferBytes = transferBytes;
+        this.resourceCount = resourceCount;
+        this.slowestResourceMillis = slowestResourceMillis;
+    }
+
+    /**
+     * Read the performance entries of the current document in one round trip
+     *
+     * @param driver the driver showing the page
+     * @param loadWait how long to wait for the load event first, zero to read what is available now
+     * @return the performance of the current page load
+     */
+    public static PagePerformance capture(WebDriver driver, Duration loadWait) {
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(Scripts.get("page-performance.js"),
+            !loadWait.isZero(), loadWait.toMillis());
+        if (!(result instanceof Map)) {
+            throw new IllegalStateException("Unexpected page performance result: " + result);
+        }
+        Map<?, ?> entries = (Map<?, ?>) result;
+        return new PagePerformance(
+            number(entries, "ttfb"),
+            number(entries, "domContentLoaded"),
+            number(entries, "load"),
+            number(entries, "firstPaint"),
+            number(entries, "firstContentfulPaint"),
+            number(entries, "largestContentfulPaint"),
+            (long) (number(entries, "documentBytes") + number(entries, "resourceBytes")),
+            (int) number(entries, "resourceCount"),
+            number(entries, "slowestResource"));
+    }
+
+    private static double number(Map<?, ?> entries, String key) {
+        Object value = entries.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+
+    public double getTtfbMillis() {
+        return ttfbMillis;
+    }
+
+    public double getDomContentLoadedMillis() {
+        return domContentLoadedMillis;
+    }
+
+    public double getLoadMillis() {
+        return loadMillis;
+    }
+
+    public double getFirstPaintMillis() {
+        return firstPaintMillis;
+    }
+
+    public double getFirstContentfulPaintMillis() {
+        return firstContentfulPaintMillis;
+    }
+
+    public double getLargestContentfulPaintMillis() {
+        return largestContentfulPaintMillis;
+    }
+
+    public long getTransferBytes() {
+        return transferBytes;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    public double getSlowestResourceMillis() {
+        return slowestResourceMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ttfb %.0f ms, DCL %.0f ms, load %.0f ms, FCP %.0f ms, LCP %.0f ms, %d KB in %d resources",
+            ttfbMillis, domContentLoadedMillis, loadMillis, firstContentfulPaintMillis,
+            largestContentfulPaintMillis, transferBytes / 1024, resourceCount);
+    }
+}
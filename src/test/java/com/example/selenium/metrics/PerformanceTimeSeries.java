@@ -0,0 +1,361 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary time series of page performance samples, kept in the history directory
+ * so trends can be compared across builds.
+ *
+ * The file starts with a 4 byte magic number followed by records of roughly 70 bytes: timestamp,
+ * build label, page name, the timings as 32-bit floats, bytes and resource count. Each record
+ * is framed by a marker, its length and a CRC32 of its body, so a record cut short by a killed
+ * JVM is skipped on read wherever it is in the file, and reading resumes at the next intact
+ * record appended after it.
+ */
+public final class PerformanceTimeSeries {
+
+    private static final Logger logger = Logger.getLogger(PerformanceTimeSeries.class.getName());
+
+    public static final String FILE = "page-performance.bin";
+
+    private static final int MAGIC = 0x50505432; // "PPT2"
+    private static final int RECORD_MARKER = 0x50505452; // "PPTR"
+    // Marker and length before the body, CRC32 after it
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    private static final int TRAILER_BYTES = Integer.BYTES;
+    // Builds before the current one that the run report compares against
+    private static final int COMPARED_BUILDS = 10;
+
+    private static final PerformanceTimeSeries DEFAULT = new PerformanceTimeSeries(
+        Paths.get(TestConfig.historyDir(), FILE));
+    private static final Queue<Sample> thisRun = new ConcurrentLinkedQueue<>();
+    private static final long runStart = System.currentTimeMillis();
+
+    static {
+        RunReport.register("Page performance", PerformanceTimeSeries::summary);
+    }
+
+    private final Path file;
+
+    /**
+     * Constructor for PerformanceTimeSeries
+     *
+     * @param file the time series file, created on the first append
+     */
+    public PerformanceTimeSeries(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Record a page load of this run under the configured build label
+     *
+     * @param page the page object that navigated, e.g. "WikipediaHomePage"
+     * @param performance the measured page load
+     */
+    public static void record(String page, PagePerformance performance) {
+        Sample sample = new Sample(System.currentTimeMillis(), TestConfig.perfBuild(), page, performance);
+        thisRun.add(sample);
+        try {
+            DEFAULT.append(sample);
+        } catch (IOException e) {
+            logger.warning("Could not append to " + DEFAULT.file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Append one sample. Each record is written with a single append so concurrent writers
+     * in this JVM never interleave.
+     *
+     * @param sample the sample to store
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void append(Sample sample) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(sample.timestamp);
+        out.writeUTF(sample.build);
+        out.writeUTF(sample.page);
+        PagePerformance performance = sample.performance;
+        out.writeFloat((float) performance.getTtfbMillis());
+        out.writeFloat((float) performance.getDomContentLoadedMillis());
+        out.writeFloat((float) performance.getLoadMillis());
+        out.writeFloat((float) performance.getFirstPaintMillis());
+        out.writeFloat((float) performance.getFirstContentfulPaintMillis());
+        out.writeFloat((float) performance.getLargestContentfulPaintMillis());
+        out.writeFloat((float) performance.getSlowestResourceMillis());
+        out.writeInt((int) Math.min(Integer.MAX_VALUE, performance.getTransferBytes()));
+        out.writeShort(Math.min(Short.MAX_VALUE, performance.getResourceCount()));
+        out.flush();
+        byte[] body = bytes.toByteArray();
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + body.length + TRAILER_BYTES);
+        record.putInt(RECORD_MARKER).putShort((short) body.length).put(body).putInt((int) crc(body, 0, body.length));
+        record.flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        if (Files.isRegularFile(file) && Files.size(file) > 0) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException(file + " is not a page performance time series of this version, move it away");
+                }
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            if (channel.size() == 0) {
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, MAGIC));
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        }
+    }
+
+    /**
+     * Read all samples in the order they were recorded. Damaged records, e.g. cut short by a
+     * killed JVM, are skipped up to the next intact record.
+     *
+     * @return the samples, empty if the file does not exist
+     * @throws IOException if the file cannot be read or is not a time series
+     */
+    public List<Sample> readAll() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Collections.emptyList();
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() < Integer.BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a page performance time series");
+        }
+        List<Sample> samples = new ArrayList<>();
+        int skippedBytes = 0;
+        int position = Integer.BYTES;
+        while (position < data.limit()) {
+            Sample sample = decodeAt(data, position);
+            if (sample == null) {
+                // Not the start of an intact record: look for the next marker one byte further on
+                position++;
+                skippedBytes++;
+                continue;
+            }
+            samples.add(sample);
+            position += HEADER_BYTES + Short.toUnsignedInt(data.getShort(position + Integer.BYTES)) + TRAILER_BYTES;
+        }
+        if (skippedBytes > 0) {
+            logger.warning("Skipped " + skippedBytes + " bytes of damaged records in " + file);
+        }
+        return samples;
+    }
+
+    /**
+     * Decode the record starting at a position, if there is an intact one
+     *
+     * @param data the whole file
+     * @param position where the record's marker should be
+     * @return the sample, or null if no intact record starts there
+     */
+    private static Sample decodeAt(ByteBuffer data, int position) {
+        if (position + HEADER_BYTES + TRAILER_BYTES > data.limit() || data.getInt(position) != RECORD_MARKER) {
+            return null;
+        }
+        int length = Short.toUnsignedInt(data.getShort(position + Integer.BYTES));
+        int bodyStart = position + HEADER_BYTES;
+        if (bodyStart + length + TRAILER_BYTES > data.limit()
+                || (int) crc(data.array(), bodyStart, length) != data.getInt(bodyStart + length)) {
+            return null;
+        }
+        try {
+            return decode(new DataInputStream(new ByteArrayInputStream(data.array(), bodyStart, length)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static long crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return crc.getValue();
+    }
+
+    private static Sample decode(DataInputStream in) throws IOException {
+        long timestamp = in.readLong();
+        String build = in.readUTF();
+        String page = in.readUTF();
+        double ttfb = in.readFloat();
+        double domContentLoaded = in.readFloat();
+        double load = in.readFloat();
+        double firstPaint = in.readFloat();
+        double firstContentfulPaint = in.readFloat();
+        double largestContentfulPaint = in.readFloat();
+        double slowestResource = in.readFloat();
+        long transferBytes = in.readInt();
+        int resourceCount = in.readShort();
+        return new Sample(timestamp, build, page, new PagePerformance(ttfb, domContentLoaded, load, firstPaint,
+            firstContentfulPaint, largestContentfulPaint, transferBytes, resourceCount, slowestResource));
+    }
+
+    static String summary() {
+        if (thisRun.isEmpty()) {
+            return "no page loads measured (enable with -D" + TestConfig.PERF_MONITOR + "=true)";
+        }
+        String build = TestConfig.perfBuild();
+        List<Sample> previous = new ArrayList<>();
+        try {
+            previous = previousBuilds(DEFAULT.readAll(), runStart, COMPARED_BUILDS);
+        } catch (IOException e) {
+            logger.warning("Could not read " + DEFAULT.file + ": " + e.getMessage());
+        }
+
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT, "build: %s, compared against the previous %d builds%n"
+            + "%-30s %6s %9s %9s %9s %9s %12s %12s%n", build, COMPARED_BUILDS,
+            "page", "loads", "ttfb", "FCP", "LCP", "load", "LCP vs prev", "load vs prev"));
+        for (Map.Entry<String, List<Sample>> entry : byPage(thisRun).entrySet()) {
+            List<Sample> current = entry.getValue();
+            List<Sample> before = byPage(previous).getOrDefault(entry.getKey(), Collections.emptyList());
+            double lcp = median(current, PagePerformance::getLargestContentfulPaintMillis);
+            double load = median(current, PagePerformance::getLoadMillis);
+            summary.append(String.format(Locale.ROOT, "%-30s %6d %9s %9s %9s %9s %12s %12s%n",
+                entry.getKey(), current.size(),
+                millis(median(current, PagePerformance::getTtfbMillis)),
+                millis(median(current, PagePerformance::getFirstContentfulPaintMillis)),
+                millis(lcp), millis(load),
+                delta(lcp, median(before, PagePerformance::getLargestContentfulPaintMillis)),
+                delta(load, median(before, PagePerformance::getLoadMillis))));
+        }
+        summary.append("medians in ms, history in ").append(DEFAULT.file);
+        return summary.toString();
+    }
+
+    /**
+     * Samples of the most recent builds recorded before this run. Local runs all share the
+     * build label "local" and are compared as one build.
+     *
+     * @param samples all samples in recording order
+     * @param before only samples recorded before this epoch millisecond are considered
+     * @param builds how many builds to keep
+     * @return the samples of up to that many builds
+     */
+    static List<Sample> previousBuilds(List<Sample> samples, long before, int builds) {
+        Set<String> recent = new LinkedHashSet<>();
+        for (int i = samples.size() - 1; i >= 0 && recent.size() < builds; i--) {
+            if (samples.get(i).timestamp < before) {
+                recent.add(samples.get(i).build);
+            }
+        }
+        List<Sample> selected = new ArrayList<>();
+        for (Sample sample : samples) {
+            if (sample.timestamp < before && recent.contains(sample.build)) {
+                selected.add(sample);
+            }
+        }
+        return selected;
+    }
+
+    private static Map<String, List<Sample>> byPage(Iterable<Sample> samples) {
+        Map<String, List<Sample>> byPage = new TreeMap<>();
+        for (Sample sample : samples) {
+            byPage.computeIfAbsent(sample.page, page -> new ArrayList<>()).add(sample);
+        }
+        return byPage;
+    }
+
+    /**
+     * Median of a metric over the samples that reported it
+     *
+     * @param samples the samples
+     * @param metric the metric to read
+     * @return the median, -1 if no sample reported the metric
+     */
+    static double median(List<Sample> samples, ToDoubleFunction<PagePerformance> metric) {
+        List<Double> values = new ArrayList<>();
+        for (Sample sample : samples) {
+            double value = metric.applyAsDouble(sample.performance);
+            if (value >= 0) {
+                values.add(value);
+            }
+        }
+        if (values.isEmpty()) {
+            return -1;
+        }
+        Collections.sort(values);
+        int middle = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2;
+    }
+
+    private static String millis(double value) {
+        return value < 0 ? "-" : String.format(Locale.ROOT, "%.0f", value);
+    }
+
+    private static String delta(double current, double previous) {
+        if (current < 0 || previous <= 0) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "%+.0f (%+.0f%%)", current - previous, (current - previous) * 100 / previous);
+    }
+
+    /**
+     * One page load recorded in the time series
+     */
+    public static final class Sample {
+        private final long timestamp;
+        private final String build;
+        private final String page;
+        private final PagePerformance performance;
+
+        /**
+         * Constructor for Sample
+         *
+         * @param timestamp when the page was loaded, in epoch milliseconds
+         * @param build the build label the sample belongs to
+         * @param page the page object that navigated
+         * @param performance the measured page load
+         */
+        public Sample(long timestamp, String build, String page, PagePerformance performance) {
+            this.timestamp = timestamp;
+            this.build = build;
+            this.page = page;
+            this.performance = performance;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getBuild() {
+            return build;
+        }
+
+        public String getPage() {
+            return page;
+        }
+
+        public PagePerformance getPerformance() {
+            return performance;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.selenium.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for the on-disk format of PerformanceTimeSeries. These run without a browser.
+ */
+public class PerformanceTimeSeriesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static PagePerformance load(double loadMillis) {
+        return new PagePerformance(50, 300, loadMillis, 120, 130, -1, 250_000, 42, 80);
+    }
+
+    /**
+     * Tests that samples read back with the values they were written with
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        PerformanceTimeSeries series = new PerformanceTimeSeries(tempDir.resolve("perf.bin"));
+        series.append(new PerformanceTimeSeries.Sample(1000, "41", "WikipediaHomePage", load(900)));
+        series.append(new PerformanceTimeSeries.Sample(2000, "42", "WikipediaArticlePage", load(1200)));
+
+        List<PerformanceTimeSeries.Sample> samples = series.readAll();
+
+        assertEquals(2, samples.size());
+        PerformanceTimeSeries.Sample second = samples.get(1);
+        assertEquals(2000, second.getTimestamp());
+        assertEquals("42", second.getBuild());
+        assertEquals("WikipediaArticlePage", second.getPage());
+        assertEquals(1200, second.getPerformance().getLoadMillis(), 0.001);
+        assertEquals(-1, second.getPerformance().getLargestContentfulPaintMillis(), 0.001);
+        assertEquals(250_000, second.getPerformance().getTransferBytes());
+        assertEquals(42, second.getPerformance().getResourceCount());
+    }
+
+    /**
+     * Tests that a record cut short at the end of the file is skipped
+     */
+    @Test
+    public void testTruncatedRecordIsIgnored() throws IOException {
+        Path file = tempDir.resolve("perf.bin");
+        PerformanceTimeSeries series = new PerformanceTimeSeries(file);
+        series.append(new PerformanceTimeSeries.Sample(1000, "41", "WikipediaHomePage", load(900)));
+        Files.write(file, new byte[] {0, 60, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertEquals(1, series.readAll().size());
+    }
+
+    /**
+     * Tests that a record cut short in the middle of the file is skipped and the records
+     * appended after it are still read
+     */
+    @Test
+    public void testTruncatedRecordInTheMiddleIsSkipped() throws IOException {
+        Path file = tempDir.resolve("perf.bin");
+        PerformanceTimeSeries series = new PerformanceTimeSeries(file);
+        series.append(new PerformanceTimeSeries.Sample(1000, "41", "WikipediaHomePage", load(900)));
+
+        // Half of a record, as left behind by a JVM killed while appending
+        Path other = tempDir.resolve("other.bin");
+        new PerformanceTimeSeries(other).append(
+            new PerformanceTimeSeries.Sample(1500, "41", "WikipediaArticlePage", load(1000)));
+        byte[] record = Files.readAllBytes(other);
+        Files.write(file, Arrays.copyOfRange(record, Integer.BYTES, Integer.BYTES + (record.length - Integer.BYTES) / 2),
+            StandardOpenOption.APPEND);
+
+        series.append(new PerformanceTimeSeries.Sample(2000, "42", "WikipediaHomePage", load(1100)));
+        series.append(new PerformanceTimeSeries.Sample(3000, "43", "WikipediaArticlePage", load(1200)));
+
+        List<PerformanceTimeSeries.Sample> samples = series.readAll();
+
+        assertEquals(3, samples.size());
+        assertEquals(1000, samples.get(0).getTimestamp());
+        assertEquals(2000, samples.get(1).getTimestamp());
+        assertEquals(3000, samples.get(2).getTimestamp());
+        assertEquals(1200, samples.get(2).getPerformance().getLoadMillis(), 0.001);
+    }
+
+    /**
+     * Tests that only the most recent builds before the run are compared against
+     */
+    @Test
+    public void testPreviousBuilds() {
+        List<PerformanceTimeSeries.Sample> samples = Arrays.asList(
+            new PerformanceTimeSeries.Sample(1000, "40", "WikipediaHomePage", load(100)),
+            new PerformanceTimeSeries.Sample(2000, "41", "WikipediaHomePage", load(200)),
+            new PerformanceTimeSeries.Sample(3000, "42", "WikipediaHomePage", load(300)),
+            new PerformanceTimeSeries.Sample(4000, "43", "WikipediaHomePage", load(400)));
+
+        List<PerformanceTimeSeries.Sample> previous = PerformanceTimeSeries.previousBuilds(samples, 4000, 2);
+
+        assertEquals(2, previous.size());
+        assertEquals(250, PerformanceTimeSeries.median(previous, PagePerformance::getLoadMillis), 0.001);
+    }
+}
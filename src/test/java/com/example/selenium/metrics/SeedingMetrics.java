@@ -0,0 +1,73 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.reporting.RunReport;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Page loads saved by seeding test state directly instead of clicking through the UI,
+ * per seeded state.
+ */
+public final class SeedingMetrics {
+
+    private static final ConcurrentMap<String, StateStats> statsByState = new ConcurrentHashMap<>();
+
+    static {
+        RunReport.register("State seeding", SeedingMetrics::summary);
+    }
+
+    private SeedingMetrics() {
+    }
+
+    /**
+     * Record one seeded state
+     *
+     * @param state the name of the state
+     * @param replacedNavigations page loads the UI flow would have taken
+     * @param spentNavigations page loads seeding took
+     */
+    public static void record(String state, int replacedNavigations, int spentNavigations) {
+        StateStats stats = statsByState.computeIfAbsent(state, name -> new StateStats());
+        stats.seeds.increment();
+        stats.replaced.add(replacedNavigations);
+        stats.spent.add(spentNavigations);
+    }
+
+    /**
+     * Page loads saved so far across all states
+     *
+     * @return replaced minus spent navigations
+     */
+    public static long navigationsSaved() {
+        long saved = 0;
+        for (StateStats stats : statsByState.values()) {
+            saved += stats.replaced.sum() - stats.spent.sum();
+        }
+        return saved;
+    }
+
+    static String summary() {
+        if (statsByState.isEmpty()) {
+            return "no states seeded";
+        }
+        StringBuilder summary = new StringBuilder(String.format("%-30s %6s %10s %8s %8s%n",
+            "state", "seeds", "UI loads", "spent", "saved"));
+        for (Map.Entry<String, StateStats> entry : new TreeMap<>(statsByState).entrySet()) {
+            StateStats stats = entry.getValue();
+            summary.append(String.format("%-30s %6d %10d %8d %8d%n", entry.getKey(), stats.seeds.sum(),
+                stats.replaced.sum(), stats.spent.sum(), stats.replaced.sum() - stats.spent.sum()));
+        }
+        summary.append("navigations saved in this run: ").append(navigationsSaved());
+        return summary.toString();
+    }
+
+    private static final class StateStats {
+        private final LongAdder seeds = new LongAdder();
+        private final LongAdder replaced = new LongAdder();
+        private final LongAdder spent = new LongAdder();
+    }
+}
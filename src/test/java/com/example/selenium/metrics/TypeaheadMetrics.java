@@ -0,0 +1,87 @@
+package com.example.selenium.metrics;
+
+import com.example.selenium.pages.TypeaheadLatency;
+import com.example.selenium.reporting.RunReport;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keystroke-to-render latency distribution of the typeahead per search term, collected by
+ * WikipediaHomePage#measureTypeaheadLatency
+ */
+public final class TypeaheadMetrics {
+
+    private static final ConcurrentMap<String, TermLatency> latencyByTerm = new ConcurrentHashMap<>();
+
+    static {
+        RunReport.register("Typeahead latency", TypeaheadMetrics::summary);
+    }
+
+    private TypeaheadMetrics() {
+    }
+
+    /**
+     * Add the latencies of one typed term
+     *
+     * @param latency the measured latencies
+     */
+    public static void record(TypeaheadLatency latency) {
+        TermLatency term = latencyByTerm.computeIfAbsent(latency.getTerm(), name -> new TermLatency());
+        for (double millis : latency.getLatenciesMillis()) {
+            term.keystrokes.recordNanos(toNanos(millis));
+        }
+        if (!Double.isNaN(latency.getFinalLatencyMillis())) {
+            term.finalRender.recordNanos(toNanos(latency.getFinalLatencyMillis()));
+        }
+        term.superseded.add(latency.getSuperseded());
+        term.unanswered.add(latency.getUnanswered());
+    }
+
+    /**
+     * Distribution of the time from the last keystroke of a term until the final render
+     *
+     * @param term the search term
+     * @return the histogram, empty if the term was never measured
+     */
+    public static LatencyHistogram finalRenderLatency(String term) {
+        TermLatency latency = latencyByTerm.get(term);
+        return latency == null ? new LatencyHistogram() : latency.finalRender;
+    }
+
+    static String summary() {
+        if (latencyByTerm.isEmpty()) {
+            return "no typeahead latency measured";
+        }
+        StringBuilder summary = new StringBuilder(String.format("%-25s %-10s %6s %8s %8s %8s %8s %11s %11s%n",
+            "term", "latency", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "superseded", "unanswered"));
+        for (Map.Entry<String, TermLatency> entry : new TreeMap<>(latencyByTerm).entrySet()) {
+            TermLatency term = entry.getValue();
+            summary.append(row(entry.getKey(), "keystroke", term.keystrokes))
+                .append(String.format(" %11d %11d%n", term.superseded.sum(), term.unanswered.sum()))
+                .append(row("", "final", term.finalRender)).append('\n');
+        }
+        return summary.toString().trim();
+    }
+
+    private static String row(String term, String kind, LatencyHistogram histogram) {
+        return String.format("%-25s %-10s %6d %8.1f %8.1f %8.1f %8.1f", term, kind, histogram.getCount(),
+            histogram.getPercentileMillis(50), histogram.getPercentileMillis(95), histogram.getPercentileMillis(99),
+            histogram.getMaxMillis());
+    }
+
+    private static long toNanos(double millis) {
+        return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static final class TermLatency {
+        private final LatencyHistogram keystrokes = new LatencyHistogram();
+        private final LatencyHistogram finalRender = new LatencyHistogram();
+        private final LongAdder superseded = new LongAdder();
+        private final LongAdder unanswered = new LongAdder();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.selenium.orchestrator;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.support.HostResources;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides when the next browser task may start. A task is admitted while fewer than the
+ * maximum number of tasks run, the machine has memory for one more browser and the CPU load
+ * is below the limit. Tasks that are not admitted wait in FIFO order; the resources are
+ * re-checked whenever a task finishes and at a fixed interval, since memory and load also
+ * change on their own.
+ *
+ * A browser that was just admitted has not allocated its memory yet, so memory for each
+ * admission within the warm-up period is reserved on top of what the machine reports as used.
+ * One task is always admitted when none runs, so a busy machine slows the run down but never
+ * stalls it.
+ */
+public class AdmissionController {
+
+    private static final long MEGABYTE = 1024L * 1024L;
+    private static final long RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final long DEFAULT_WARMUP_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final int maxConcurrent;
+    private final long memoryPerBrowserBytes;
+    private final double maxCpuLoad;
+    private final long warmupNanos;
+    private final LongSupplier availableMemoryBytes;
+    private final DoubleSupplier cpuLoad;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<Object> waiting = new ArrayDeque<>();
+    private final Deque<Long> recentAdmissions = new ArrayDeque<>();
+    private int running;
+    private int peakRunning;
+
+    /**
+     * Constructor for AdmissionController
+     *
+     * @param maxConcurrent upper bound on concurrently running tasks
+     * @param memoryPerBrowserBytes memory one more browser needs
+     * @param maxCpuLoad machine CPU load between 0 and 1 above which no task is admitted
+     * @param warmupNanos how long the memory of a new admission stays reserved
+     * @param availableMemoryBytes source of the currently available memory
+     * @param cpuLoad source of the current CPU load, negative if unknown
+     */
+    AdmissionController(int maxConcurrent, long memoryPerBrowserBytes, double maxCpuLoad, long warmupNanos,
+                        LongSupplier availableMemoryBytes, DoubleSupplier cpuLoad) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.memoryPerBrowserBytes = memoryPerBrowserBytes;
+        this.maxCpuLoad = maxCpuLoad;
+        this.warmupNanos = warmupNanos;
+        this.availableMemoryBytes = availableMemoryBytes;
+        this.cpuLoad = cpuLoad;
+    }
+
+    /**
+     * Create an admission controller that measures this machine
+     *
+     * @param maxConcurrent upper bound on concurrently running tasks
+     * @return the admission controller
+     */
+    public static AdmissionController forHost(int maxConcurrent) {
+        return new AdmissionController(maxConcurrent, TestConfig.browserMemoryMb() * MEGABYTE,
+            TestConfig.fleetMaxCpuPercent() / 100.0, DEFAULT_WARMUP_NANOS,
+            HostResources::availableMemoryBytes, HostResources::systemCpuLoad);
+    }
+
+    /**
+     * Wait until a task may start
+     *
+     * @throws InterruptedException if interrupted while waiting; the task was not admitted
+     */
+    public void acquire() throws InterruptedException {
+        Object ticket = new Object();
+        lock.lock();
+        try {
+            waiting.addLast(ticket);
+            try {
+                while (waiting.peekFirst() != ticket || !canAdmit()) {
+                    changed.awaitNanos(RECHECK_NANOS);
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(ticket);
+                changed.signalAll();
+                throw e;
+            }
+            waiting.removeFirst();
+            running++;
+            peakRunning = Math.max(peakRunning, running);
+            recentAdmissions.addLast(System.nanoTime());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record that an admitted task finished
+     */
+    public void release() {
+        lock.lock();
+        try {
+            running--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called with the lock held
+     *
+     * @return true if one more task may start now
+     */
+    private boolean canAdmit() {
+        if (running == 0) {
+            return true;
+        }
+        if (running >= maxConcurrent) {
+            return false;
+        }
+        long now = System.nanoTime();
+        while (!recentAdmissions.isEmpty() && now - recentAdmissions.peekFirst() >= warmupNanos) {
+            recentAdmissions.removeFirst();
+        }
+        long reserved = recentAdmissions.size() * memoryPerBrowserBytes;
+        if (availableMemoryBytes.getAsLong() - reserved < memoryPerBrowserBytes) {
+            return false;
+        }
+        double load = cpuLoad.getAsDouble();
+        return load < 0 || load <= maxCpuLoad;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Highest number of tasks that ran at the same time
+     *
+     * @return the peak concurrency
+     */
+    public int getPeakRunning() {
+        lock.lock();
+        try {
+            return peakRunning;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of tasks waiting for admission
+     *
+     * @return the queue length
+     */
+    public int getQueueLength() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
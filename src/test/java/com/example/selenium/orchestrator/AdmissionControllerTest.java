@@ -0,0 +1,85 @@
+package com.example.selenium.orchestrator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests for the admission decisions of AdmissionController. These run without a browser.
+ */
+public class AdmissionControllerTest {
+
+    private static final long BROWSER = 100;
+
+    /**
+     * Starts a thread that acquires and counts down once admitted
+     */
+    private static CountDownLatch acquireInBackground(AdmissionController admission) {
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            try {
+                admission.acquire();
+                admitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return admitted;
+    }
+
+    /**
+     * Tests that no more than the maximum number of tasks run at once
+     */
+    @Test
+    public void testConcurrencyLimit() throws InterruptedException {
+        AdmissionController admission = new AdmissionController(2, BROWSER, 1.0, 0, () -> 10 * BROWSER, () -> 0.1);
+        admission.acquire();
+        admission.acquire();
+
+        CountDownLatch third = acquireInBackground(admission);
+        assertFalse(third.await(300, TimeUnit.MILLISECONDS), "A third task should wait");
+
+        admission.release();
+        assertTrue(third.await(2, TimeUnit.SECONDS), "The third task should start once one finished");
+        assertEquals(2, admission.getPeakRunning());
+    }
+
+    /**
+     * Tests that tasks wait while the machine lacks memory for another browser, but one always runs
+     */
+    @Test
+    public void testWaitsForMemory() throws InterruptedException {
+        AtomicLong available = new AtomicLong(BROWSER / 2);
+        AdmissionController admission = new AdmissionController(4, BROWSER, 1.0, 0, available::get, () -> 0.1);
+        admission.acquire();
+
+        CountDownLatch second = acquireInBackground(admission);
+        assertFalse(second.await(300, TimeUnit.MILLISECONDS), "The second task should wait for memory");
+
+        available.set(2 * BROWSER);
+        assertTrue(second.await(2, TimeUnit.SECONDS), "The second task should start once memory is free");
+    }
+
+    /**
+     * Tests that memory of recently admitted browsers is reserved until they had time to allocate it
+     */
+    @Test
+    public void testReservesMemoryDuringWarmup() throws InterruptedException {
+        AdmissionController admission = new AdmissionController(4, BROWSER, 1.0, TimeUnit.HOURS.toNanos(1),
+            () -> 2 * BROWSER, () -> 0.1);
+        admission.acquire();
+        admission.acquire();
+
+        CountDownLatch third = acquireInBackground(admission);
+        assertFalse(third.await(300, TimeUnit.MILLISECONDS), "Memory of the warming up browsers is reserved");
+        assertEquals(1, admission.getQueueLength());
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.selenium.orchestrator;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.driver.Browser;
+import com.example.selenium.driver.DriverPool;
+import com.example.selenium.driver.DriverScope;
+import com.example.selenium.driver.DriverSession;
+import com.example.selenium.metrics.LatencyHistogram;
+import com.example.selenium.reporting.RunReport;
+import com.example.selenium.support.CurrentTest;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Runs many page object scenarios against a fleet of local browsers.
+ *
+ * Every submitted task gets its own thread: a virtual thread on Java 21+, where blocking on
+ * WebDriver HTTP calls costs almost nothing, or a platform thread on older JVMs. Threads are
+ * cheap, browsers are not, so tasks first pass the {@link AdmissionController}, which only lets
+ * a task start a browser while the machine has memory and CPU to spare. Admitted tasks take a
+ * session from the {@link DriverPool} and return it when done.
+ */
+public class FleetOrchestrator implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(FleetOrchestrator.class.getName());
+
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Browser browser;
+    private final AdmissionController admission;
+    private final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("fleet-task");
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram taskDuration = new LatencyHistogram();
+    private final AtomicLong firstSubmitNanos = new AtomicLong();
+    private final AtomicLong lastCompletionNanos = new AtomicLong();
+
+    /**
+     * Constructor for FleetOrchestrator
+     *
+     * @param browser the browser the tasks run on
+     * @param admission decides when the next task may start a browser
+     */
+    public FleetOrchestrator(Browser browser, AdmissionController admission) {
+        this.browser = browser;
+        this.admission = admission;
+        RunReport.register("Fleet orchestrator", this::summary);
+    }
+
+    /**
+     * Create an orchestrator limited by selenium.fleet.maxBrowsers (default: the pool size),
+     * the free memory and the CPU load of this machine
+     *
+     * @param browser the browser the tasks run on
+     * @return the orchestrator
+     */
+    public static FleetOrchestrator forHost(Browser browser) {
+        int poolSize = DriverPool.getInstance().getMaxSize();
+        int configured = TestConfig.fleetMaxBrowsers();
+        int maxBrowsers = configured > 0 ? Math.min(configured, poolSize) : poolSize;
+        return new FleetOrchestrator(browser, AdmissionController.forHost(maxBrowsers));
+    }
+
+    /**
+     * Queue a scenario. It runs once admission control lets it start a browser.
+     *
+     * @param name name of the scenario, used in logs and failure artifacts
+     * @param task the scenario
+     * @return completes with the outcome of the scenario; never completes exceptionally
+     */
+    public CompletableFuture<TaskResult> submit(String name, FleetTask task) {
+        long submitNanos = System.nanoTime();
+        firstSubmitNanos.compareAndSet(0, submitNanos);
+        submitted.increment();
+        return CompletableFuture.supplyAsync(() -> run(name, task, submitNanos), executor);
+    }
+
+    private TaskResult run(String name, FleetTask task, long submitNanos) {
+        try {
+            admission.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+            return new TaskResult(name, e, System.nanoTime() - submitNanos, 0);
+        }
+        long startNanos = System.nanoTime();
+        long waitNanos = startNanos - submitNanos;
+        queueWait.recordNanos(waitNanos);
+
+        Throwable failure = null;
+        DriverPool pool = DriverPool.getInstance();
+        DriverSession session = null;
+        CurrentTest.set(name);
+        try {
+            session = pool.checkout(browser);
+            DriverScope.bind(session, WAIT_TIMEOUT);
+            task.run();
+        } catch (Exception | AssertionError e) {
+            failure = e;
+        } finally {
+            if (session != null) {
+                DriverScope.unbind();
+                pool.release(session, failure != null);
+            }
+            CurrentTest.clear();
+            admission.release();
+        }
+
+        long durationNanos = System.nanoTime() - startNanos;
+        taskDuration.recordNanos(durationNanos);
+        lastCompletionNanos.accumulateAndGet(System.nanoTime(), Math::max);
+        if (failure == null) {
+            passed.increment();
+        } else {
+            failed.increment();
+            logger.warning("Fleet task " + name + " failed: " + failure);
+        }
+        return new TaskResult(name, failure, waitNanos, durationNanos);
+    }
+
+    /**
+     * Completed tasks per minute, from the first submission to the last completion
+     *
+     * @return the throughput, 0 before any task completed
+     */
+    public double getTasksPerMinute() {
+        long elapsed = lastCompletionNanos.get() - firstSubmitNanos.get();
+        long completed = passed.sum() + failed.sum();
+        return elapsed <= 0 ? 0 : completed * (double) TimeUnit.MINUTES.toNanos(1) / elapsed;
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     * Stop accepting tasks and wait for the submitted ones to finish
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Render the throughput and queueing metrics for the run report
+     *
+     * @return human readable summary
+     */
+    String summary() {
+        return String.format(
+            "threads: %s, browsers: max %d, peak %d%n"
+                + "tasks: %d submitted, %d passed, %d failed, %.1f tasks/min%n"
+                + "queue wait: p50 %.0f ms, p95 %.0f ms, max %.0f ms%n"
+                + "task duration: p50 %.0f ms, p95 %.0f ms, max %.0f ms",
+            VirtualThreads.isAvailable() ? "virtual" : "platform", admission.getMaxConcurrent(),
+            admission.getPeakRunning(), submitted.sum(), passed.sum(), failed.sum(), getTasksPerMinute(),
+            queueWait.getPercentileMillis(50), queueWait.getPercentileMillis(95), queueWait.getMaxMillis(),
+            taskDuration.getPercentileMillis(50), taskDuration.getPercentileMillis(95), taskDuration.getMaxMillis());
+    }
+
+    /**
+     * Outcome of one scenario
+     */
+    public static final class TaskResult {
+        private final String name;
+        private final Throwable failure;
+        private final long queueWaitNanos;
+        private final long durationNanos;
+
+        private TaskResult(String name, Throwable failure, long queueWaitNanos, long durationNanos) {
+            this.name = name;
+            this.failure = failure;
+            this.queueWaitNanos = queueWaitNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isPassed() {
+            return failure == null;
+        }
+
+        /**
+         * The exception or assertion error that failed the scenario
+         *
+         * @return the failure, or null if the scenario passed
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public long getQueueWaitNanos() {
+            return queueWaitNanos;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
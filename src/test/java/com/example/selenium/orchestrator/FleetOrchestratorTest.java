@@ -0,0 +1,49 @@
+package com.example.selenium.orchestrator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.data.TestConstants;
+import com.example.selenium.driver.Browser;
+import com.example.selenium.pages.WikipediaHomePage;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Runs a search scenario many times across a fleet of browsers, e.g.
+ * {@code mvn test -Dtest=FleetOrchestratorTest -Dselenium.fleet.tasks=200 -Dselenium.pool.maxSize=24}.
+ */
+@EnabledIfSystemProperty(named = TestConfig.FLEET_TASKS, matches = "[1-9][0-9]*")
+public class FleetOrchestratorTest {
+
+    private static final Logger logger = Logger.getLogger(FleetOrchestratorTest.class.getName());
+
+    /**
+     * Submits every scenario at once and checks that all of them passed
+     */
+    @Test
+    public void runFleet() {
+        List<CompletableFuture<FleetOrchestrator.TaskResult>> results = new ArrayList<>();
+        try (FleetOrchestrator orchestrator = FleetOrchestrator.forHost(Browser.fromName(TestConfig.browser()))) {
+            for (int i = 0; i < TestConfig.fleetTasks(); i++) {
+                results.add(orchestrator.submit("FleetOrchestratorTest.search-" + i, () -> {
+                    WikipediaHomePage homePage = new WikipediaHomePage().goTo();
+                    homePage.enterSearchTerm(TestConstants.Search.JAVA);
+                    assertTrue(homePage.areDropdownItemsRelevant(TestConstants.Search.JAVA),
+                        "Dropdown items should be relevant to the search term");
+                }));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).join();
+            logger.info("Fleet run finished:\n" + orchestrator.summary());
+        }
+
+        long failed = results.stream().map(CompletableFuture::join).filter(result -> !result.isPassed()).count();
+        assertTrue(failed == 0, failed + " of " + results.size() + " fleet tasks failed");
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.selenium.orchestrator;
+
+/**
+ * A test body run by the {@link FleetOrchestrator}. It runs with a pooled session bound to its
+ * thread, so page objects can be created with their no-argument constructors, e.g.
+ * {@code new WikipediaHomePage().goTo()}.
+ */
+@FunctionalInterface
+public interface FleetTask {
+
+    /**
+     * Run the scenario; throwing fails the task
+     *
+     * @throws Exception on failure
+     */
+    void run() throws Exception;
+}
@@ -0,0 +1,61 @@
+package com.example.selenium.orchestrator;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Creates executors that run each task on a virtual thread when the JVM has them (Java 21+).
+ * The project compiles for Java 11, so the factory method is looked up reflectively; older
+ * JVMs get a cached pool of daemon platform threads instead.
+ */
+public final class VirtualThreads {
+
+    private static final Logger logger = Logger.getLogger(VirtualThreads.class.getName());
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = lookup();
+
+    private VirtualThreads() {
+    }
+
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Whether tasks run on virtual threads in this JVM
+     *
+     * @return true on Java 21 and later
+     */
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Executor that starts a new thread for every task
+     *
+     * @param name prefix of the thread names when falling back to platform threads
+     * @return a virtual thread per task executor, or a cached platform thread pool
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warning("Could not create a virtual thread executor, using platform threads: " + e);
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -1,15 +1,46 @@
 package com.example.selenium.pages;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.driver.AsyncWebDriver;
+import com.example.selenium.driver.DriverSession;
+import com.example.selenium.driver.LeanProfile;
+import com.example.selenium.driver.NavigationEvents;
+import com.example.selenium.driver.ResourceType;
+import com.example.selenium.metrics.NavigationStats;
+import com.example.selenium.metrics.PagePerformance;
+import com.example.selenium.metrics.PerformanceTimeSeries;
+import com.example.selenium.metrics.SeedingMetrics;
+import com.example.selenium.support.Locators;
+import com.example.selenium.support.Scripts;
+import com.example.selenium.waits.DomCondition;
+import com.example.selenium.waits.DomConditions;
+import com.example.selenium.waits.DomWait;
+
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Base Page class with common methods for all pages
@@ -20,8 +51,18 @@ public abstract class BasePage {
 
     private static final Logger logger = Logger.getLogger(BasePage.class.getName());
 
+    private static final Duration NAVIGATION_TIMEOUT = Duration.ofSeconds(10);
+
+    // Small same-origin resource loaded to set cookies and storage where DevTools are not available
+    private static final String SEED_PATH = "/favicon.ico";
+
     protected final WebDriver driver;
     protected final WebDriverWait wait;
+    protected final DomQuery domQuery;
+    protected final DomWait domWait;
+    private final ElementCache elementCache;
+    private AsyncWebDriver asyncDriver;
+    private boolean asyncResolved;
 
     // Locators
     private final By suggestionsDropdownLocator = By.className("suggestions-dropdown");
@@ -37,24 +78,413 @@ public abstract class BasePage {
     public BasePage(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, java.time.Duration.ofSeconds(10)); // Initialize wait with a timeout of 10 seconds
+        this.domQuery = new DomQuery(driver);
+        this.domWait = new DomWait(driver, java.time.Duration.ofSeconds(10));
+        this.elementCache = new ElementCache(driver, getClass().getSimpleName());
     }
 
     /**
-     * Verify the current URL matches the expected URL
+     * The condition that tells this page is usable, e.g. its main input is clickable.
+     * Sessions run with the EAGER (or NONE) page load strategy, so navigation can return
+     * before the page is ready; {@link #waitUntilReady()} waits for this condition instead.
+     *
+     * @return the readiness condition of the page
+     */
+    protected abstract DomCondition<?> readyCondition();
+
+    /**
+     * Wait until the page is usable. Call after anything that navigates to this page.
+     */
+    public void waitUntilReady() {
+        domWait.until(readyCondition());
+    }
+
+    /**
+     * Resource types this page needs even when the lean profile blocks them.
+     * Override in pages whose checks depend on images, fonts or media.
+     *
+     * @return the resource types to load for this page
+     */
+    protected Set<ResourceType> allowedResources() {
+        return EnumSet.noneOf(ResourceType.class);
+    }
+
+    /**
+     * Navigate to a URL with this page's resource allowlist, wait until the page is ready
+     * and record the page weight
+     *
+     * @param url the URL to open
+     */
+    protected void open(String url) {
+        LeanProfile.allow(driver, allowedResources());
+        elementCache.invalidate();
+        noteVisit(url);
+        driver.get(url);
+        waitUntilReady();
+        recordNavigation();
+    }
+
+    /**
+     * Let the session know which origin it is about to load, so its cookies are cleared when
+     * the session goes back to the pool
+     *
+     * @param url the URL about to be loaded
+     */
+    private void noteVisit(String url) {
+        DriverSession session = DriverSession.forDriver(driver);
+        if (session != null) {
+            session.noteVisit(url);
+        }
+    }
+
+    /**
+     * Find an element, reusing the handle this page object found earlier while the document
+     * has not changed since. Repeated lookups of the same element then cost no round trip.
+     *
+     * @param locator the locator of the element
+     * @return the first matching element
+     */
+    protected WebElement findCached(By locator) {
+        return elementCache.find(locator);
+    }
+
+    /**
+     * Apply an action to a cached element, looking the element up again once if its handle
+     * has gone stale
+     *
+     * @param locator the locator of the element
+     * @param action what to do with the element
+     * @param <T> the result type
+     * @return the result of the action
+     */
+    protected <T> T withElement(By locator, Function<WebElement, T> action) {
+        return elementCache.apply(locator, action);
+    }
+
+    /**
+     * Read the current URL without waiting for the answer. Together with the other *Async reads
+     * it lets a page object send independent reads at once and join them where it asserts.
+     *
+     * @return completes with the current URL
+     */
+    public CompletableFuture<String> currentUrlAsync() {
+        AsyncWebDriver async = asyncDriver();
+        return async != null ? async.getCurrentUrl() : CompletableFuture.completedFuture(driver.getCurrentUrl());
+    }
+
+    /**
+     * Read the document title without waiting for the answer
+     *
+     * @return completes with the HTML document title
+     */
+    public CompletableFuture<String> documentTitleAsync() {
+        AsyncWebDriver async = asyncDriver();
+        return async != null ? async.getTitle() : CompletableFuture.completedFuture(driver.getTitle());
+    }
+
+    /**
+     * Read presence, visibility and text of an element without waiting for the answer
+     *
+     * @param locator the locator of the element
+     * @return completes with the state of the first matching element
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<ElementState> inspectAsync(By locator) {
+        AsyncWebDriver async = asyncDriver();
+        if (async == null) {
+            return CompletableFuture.completedFuture(domQuery.inspect(locator));
+        }
+        return async.executeScript(Scripts.get("dom-common.js", "inspect.js"),
+                Collections.singletonList(Locators.toScriptArgument(locator)))
+            .thenApply(states -> ElementState.fromScriptResult(((List<Map<String, Object>>) states).get(0)));
+    }
+
+    /**
+     * Wait for the results of reads sent with the *Async methods. Failures of the reads are
+     * thrown as they would have been by the blocking call.
+     *
+     * @param reads the reads to wait for
+     */
+    protected static void joinAll(CompletableFuture<?>... reads) {
+        try {
+            CompletableFuture.allOf(reads).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The non-blocking client of this page's session, found on first use
+     *
+     * @return the client, or null if the *Async reads have to fall back to blocking calls
+     */
+    private AsyncWebDriver asyncDriver() {
+        if (!asyncResolved) {
+            asyncDriver = TestConfig.pipelinedReads() ? AsyncWebDriver.forDriver(driver) : null;
+            asyncResolved = true;
+        }
+        return asyncDriver;
+    }
+
+    /**
+     * Put the browser straight into a state instead of clicking through the UI, then wait until
+     * this page is ready. On Chrome the state's cookies and localStorage entries are injected over
+     * the DevTools protocol before the page loads, so seeding costs one page load. Other browsers
+     * first load a small resource of the state's origin to set them through WebDriver.
+     *
+     * Tests that cover the UI flow itself should keep using the clicks.
+     *
+     * @param state the state to start in
+     */
+    public void seed(PageState state) {
+        int spentNavigations = 1;
+        HasCdp cdp = devTools();
+        String storageScriptId = null;
+        if (state.hasBrowserState() && cdp != null) {
+            for (Map.Entry<String, String> cookie : state.getCookies().entrySet()) {
+                Map<String, Object> parameters = new LinkedHashMap<>();
+                parameters.put("name", cookie.getKey());
+                parameters.put("value", cookie.getValue());
+                parameters.put("url", state.getUrl());
+                cdp.executeCdpCommand("Network.setCookie", parameters);
+            }
+            if (!state.getLocalStorage().isEmpty()) {
+                storageScriptId = (String) cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", storageScript(state))).get("identifier");
+            }
+        } else if (state.hasBrowserState()) {
+            noteVisit(state.getOrigin());
+            driver.get(state.getOrigin() + SEED_PATH);
+            spentNavigations++;
+            for (Map.Entry<String, String> cookie : state.getCookies().entrySet()) {
+                driver.manage().addCookie(new Cookie(cookie.getKey(), cookie.getValue()));
+            }
+            ((JavascriptExecutor) driver).executeScript(
+                "for (var key in arguments[0]) { window.localStorage.setItem(key, arguments[0][key]); }",
+                state.getLocalStorage());
+        }
+
+        try {
+            open(state.getUrl());
+        } finally {
+            if (storageScriptId != null) {
+                cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("identifier", storageScriptId));
+            }
+        }
+        SeedingMetrics.record(state.getName(), state.getReplacedNavigations(), spentNavigations);
+    }
+
+    /**
+     * Script that fills localStorage before any script of the state's page runs
+     *
+     * @param state the state to seed
+     * @return JavaScript source for Page.addScriptToEvaluateOnNewDocument
+     */
+    private static String storageScript(PageState state) {
+        Json json = new Json();
+        return "if (location.origin === " + json.toJson(state.getOrigin()) + ") {"
+            + " var entries = " + json.toJson(state.getLocalStorage()) + ";"
+            + " for (var key in entries) { window.localStorage.setItem(key, entries[key]); } }";
+    }
+
+    /**
+     * The DevTools connection of this page's browser, if it has one
+     *
+     * @return the Chrome DevTools interface, or null for other browsers
+     */
+    private HasCdp devTools() {
+        DriverSession session = DriverSession.forDriver(driver);
+        WebDriver rawDriver = session != null ? session.getRawDriver() : driver;
+        return rawDriver instanceof HasCdp ? (HasCdp) rawDriver : null;
+    }
+
+    /**
+     * Wait until the browser has settled on a document whose URL the predicate accepts, e.g.
+     * after a click that navigates. With BiDi navigation events the wait returns when the
+     * browser reports the document's DOM content loaded; otherwise the URL is polled. Never
+     * fails: callers assert on the URL or title afterwards and report what they found.
+     *
+     * @param expectedUrl accepts the URL of the expected document
+     */
+    protected void awaitNavigation(Predicate<String> expectedUrl) {
+        NavigationEvents events = NavigationEvents.forDriver(driver);
+        try {
+            if (events != null) {
+                events.awaitSettled(driver.getWindowHandle(), expectedUrl, NAVIGATION_TIMEOUT);
+            } else {
+                new WebDriverWait(driver, NAVIGATION_TIMEOUT).until(d -> expectedUrl.test(d.getCurrentUrl()));
+            }
+        } catch (TimeoutException e) {
+            logger.fine("Expected navigation did not happen, current URL: " + driver.getCurrentUrl());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait until the document title matches, e.g. after a click that navigates to a page whose
+     * URL is not known up front. A settled document is not enough on its own: right after the
+     * click the old document still counts as settled until the browser reports the navigation
+     * started, so the title is re-read until it matches or the navigation timeout passes. Never
+     * fails: callers assert on the returned title.
+     *
+     * @param expectedTitle accepts the title of the expected document
+     * @return the last title read
+     */
+    protected String awaitDocumentTitle(Predicate<String> expectedTitle) {
+        awaitNavigation(url -> true);
+        String title = driver.getTitle();
+        if (expectedTitle.test(title)) {
+            return title;
+        }
+        try {
+            return new WebDriverWait(driver, NAVIGATION_TIMEOUT).until(d -> {
+                String current = d.getTitle();
+                return expectedTitle.test(current) ? current : null;
+            });
+        } catch (TimeoutException e) {
+            logger.fine("Expected document title did not appear, current title: " + driver.getTitle());
+            return driver.getTitle();
+        }
+    }
+
+    /**
+     * Verify the current URL matches the expected URL, waiting for a navigation to it first.
+     * With selenium.perf.monitor the
+     * navigation that led here is recorded to the page performance time series.
      *
      * @param expectedUrl the expected URL
      */
     public void verifyUrl(String expectedUrl) {
+        awaitNavigation(expectedUrl::equals);
         String actualUrl = driver.getCurrentUrl();
         assertTrue(actualUrl.equals(expectedUrl), "URL should match the expected URL");
+        if (TestConfig.perfMonitor()) {
+            recordNavigation();
+        }
+    }
+
+    /**
+     * Read the performance entries of the current page load, waiting for the load event
+     *
+     * @return Navigation Timing, paint and LCP of the current page
+     */
+    public PagePerformance getPagePerformance() {
+        return PagePerformance.capture(driver, Duration.ofMillis(TestConfig.perfLoadWaitMillis()));
+    }
+
+    /**
+     * Verify the page's load event finished within the budget
+     *
+     * @param budget the maximum time from navigation start to the end of the load event
+     */
+    public void assertLoadWithin(Duration budget) {
+        PagePerformance performance = getPagePerformance();
+        assertTrue(performance.getLoadMillis() >= 0, "Page should finish loading: " + performance);
+        assertTrue(performance.getLoadMillis() <= budget.toMillis(),
+            "Page should load within " + budget.toMillis() + " ms: " + performance);
+    }
+
+    /**
+     * Verify the largest contentful paint happened within the budget
+     *
+     * @param budget the maximum time from navigation start to the largest contentful paint
+     */
+    public void assertLargestContentfulPaintWithin(Duration budget) {
+        PagePerformance performance = getPagePerformance();
+        assertTrue(performance.getLargestContentfulPaintMillis() >= 0,
+            "Browser should report the largest contentful paint: " + performance);
+        assertTrue(performance.getLargestContentfulPaintMillis() <= budget.toMillis(),
+            "Largest contentful paint should happen within " + budget.toMillis() + " ms: " + performance);
+    }
+
+    /**
+     * Record the page weight of the page load that just happened and, with selenium.perf.monitor,
+     * its full performance entries. Sessions use the EAGER page load strategy, so the page is
+     * usually still loading here. Only the perf monitor waits for the load event, up to
+     * selenium.perf.loadWaitMs; otherwise the timing available right now is read, so navigation
+     * does not block on the full load. A load whose event has not fired yet is not recorded,
+     * since its bytes and timing would be incomplete.
+     */
+    protected void recordNavigation() {
+        String page = getClass().getSimpleName();
+        try {
+            Duration loadWait = TestConfig.perfMonitor()
+                ? Duration.ofMillis(TestConfig.perfLoadWaitMillis()) : Duration.ZERO;
+            PagePerformance performance = PagePerformance.capture(driver, loadWait);
+            if (performance.getLoadMillis() < 0) {
+                logger.fine("Load event of " + page + " has not fired, not recording its page weight");
+                return;
+            }
+            NavigationStats.record(page, performance.getTransferBytes(), performance.getLoadMillis());
+            if (TestConfig.perfMonitor()) {
+                PerformanceTimeSeries.record(page, performance);
+            }
+        } catch (RuntimeException e) {
+            logger.fine("Could not measure navigation to " + page + ": " + e.getMessage());
+        }
     }
 
     /**
-     * Get all search suggestions from the dropdown
+     * Get all search suggestions from the dropdown.
+     * Titles and descriptions of all suggestions are read with a single batched query.
      * 
      * @return List of Strings containing the suggestion texts (title and description)
      */
     public List<String> getSearchSuggestions() {
+        try {
+            List<String> suggestions = readSearchSuggestions();
+            logger.info("Found " + suggestions.size() + " suggestion links");
+            
+            // Log all suggestions together at INFO level with new lines
+            logger.info("List of suggestions: \n" + String.join("\n", suggestions));
+            
+            return suggestions;
+        } catch (Exception e) {
+            logger.warning("Error getting search suggestions: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>(); // Return empty list on error
+        }
+    }
+
+    /**
+     * Read all search suggestions from the dropdown in one batched query, for callers that read
+     * many dropdowns such as the relevance sweep: suggestions are only logged at FINE, and
+     * failures are not caught.
+     *
+     * @return the suggestion texts (title and description)
+     * @throws org.openqa.selenium.WebDriverException if the dropdown does not appear or cannot be read
+     */
+    public List<String> readSearchSuggestions() {
+        domWait.until(DomConditions.visibilityOfElementLocated(suggestionsDropdownLocator));
+
+        // Read title and description of every suggestion link in one round trip
+        Map<String, By> fields = new LinkedHashMap<>();
+        fields.put("title", suggestionTitleLocator);
+        fields.put("description", suggestionDescriptionLocator);
+        List<Map<String, String>> rows = domQuery.extractAll(suggestionLinksLocator, fields);
+
+        List<String> suggestions = new ArrayList<>();
+        for (Map<String, String> row : rows) {
+            String fullSuggestion = formatSuggestion(row.get("title"), row.get("description"));
+            suggestions.add(fullSuggestion);
+            logger.fine("Found suggestion: " + fullSuggestion);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Get all search suggestions by looking up each suggestion element individually.
+     * Costs roughly 1 + 4N WebDriver round trips for N suggestions; kept as the baseline
+     * for comparing against {@link #getSearchSuggestions()}.
+     * 
+     * @return List of Strings containing the suggestion texts (title and description)
+     */
+    public List<String> getSearchSuggestionsPerElement() {
         try {
             // Wait for the suggestions dropdown to appear
             wait.until(ExpectedConditions.visibilityOfElementLocated(suggestionsDropdownLocator));
@@ -66,63 +496,78 @@ public abstract class BasePage {
             // Extract text from each suggestion
             List<String> suggestions = new ArrayList<>();
             for (WebElement link : suggestionLinks) {
-                // Get title
-                WebElement titleElement = link.findElement(suggestionTitleLocator);
-                String title = titleElement.getText();
-                
-                // Get description
-                WebElement descElement = link.findElement(suggestionDescriptionLocator);
-                String description = descElement.getText();
-                
-                // Combine title and description
-                String fullSuggestion = title + " - " + description;
-                suggestions.add(fullSuggestion);
-                
-                // For debugging
-                logger.fine("Found suggestion: " + fullSuggestion);
+                String title = link.findElement(suggestionTitleLocator).getText();
+                String description = link.findElement(suggestionDescriptionLocator).getText();
+                suggestions.add(formatSuggestion(title, description));
             }
-            
-            // Log all suggestions together at INFO level with new lines
-            logger.info("List of suggestions: \n" + String.join("\n", suggestions));
-            
             return suggestions;
         } catch (Exception e) {
             logger.warning("Error getting search suggestions: " + e.getMessage());
-            e.printStackTrace();
             return new ArrayList<>(); // Return empty list on error
         }
     }
 
     /**
-     * Check if dropdown items are relevant to the search term
-     * 
+     * Combine title and description of a suggestion
+     *
+     * @param title the suggestion title
+     * @param description the suggestion description
+     * @return the combined suggestion text
+     */
+    private static String formatSuggestion(String title, String description) {
+        return (title == null ? "" : title) + " - " + (description == null ? "" : description);
+    }
+
+    /**
+     * Count how many of the current dropdown items mention the search term
+     *
      * @param searchTerm The search term to check relevance against
-     * @return true if dropdown items are relevant to the search term
+     * @return the number of suggestions and how many of them are relevant
      */
-    public boolean areDropdownItemsRelevant(String searchTerm) {
-        List<String> suggestions = getSearchSuggestions();
-        
-        // Log the number of suggestions found
-        logger.info("Total suggestions found: " + suggestions.size());
-        
+    public RelevanceResult evaluateRelevance(String searchTerm) {
+        return relevanceOf(searchTerm, getSearchSuggestions());
+    }
+
+    /**
+     * Count how many of the current dropdown items mention the search term, without logging
+     * the suggestions and without hiding failures; see {@link #readSearchSuggestions()}
+     *
+     * @param searchTerm The search term to check relevance against
+     * @return the number of suggestions and how many of them are relevant
+     * @throws org.openqa.selenium.WebDriverException if the dropdown cannot be read
+     */
+    public RelevanceResult readRelevance(String searchTerm) {
+        return relevanceOf(searchTerm, readSearchSuggestions());
+    }
+
+    private static RelevanceResult relevanceOf(String searchTerm, List<String> suggestions) {
         // Check if suggestions are relevant to the search term
         int relevantCount = 0;
+        String lowerCaseSearchTerm = searchTerm.toLowerCase();
         for (String suggestion : suggestions) {
-            String lowerCaseSuggestion = suggestion.toLowerCase();
-            String lowerCaseSearchTerm = searchTerm.toLowerCase();
-            
-            if (lowerCaseSuggestion.contains(lowerCaseSearchTerm)) {
+            if (suggestion.toLowerCase().contains(lowerCaseSearchTerm)) {
                 relevantCount++;
             }
         }
+        return new RelevanceResult(searchTerm, suggestions.size(), relevantCount);
+    }
+
+    /**
+     * Check if dropdown items are relevant to the search term
+     * 
+     * @param searchTerm The search term to check relevance against
+     * @return true if dropdown items are relevant to the search term
+     */
+    public boolean areDropdownItemsRelevant(String searchTerm) {
+        RelevanceResult result = evaluateRelevance(searchTerm);
         
-        // Calculate percentage of relevant suggestions
-        double relevancePercentage = (double) relevantCount / suggestions.size();
-        logger.info("Relevant suggestions: " + relevantCount + "/" + suggestions.size() + 
-                   " (" + (relevancePercentage * 100) + "%)");
+        // Log the number of suggestions found
+        logger.info("Total suggestions found: " + result.getSuggestionCount());
+        logger.info("Relevant suggestions: " + result.getRelevantCount() + "/" + result.getSuggestionCount() + 
+                   " (" + (result.getRelevance() * 100) + "%)");
         
         // Return true if at least 70% of suggestions are relevant
-        return relevancePercentage >= 0.7;
+        return result.isRelevant();
     }
 
     /**
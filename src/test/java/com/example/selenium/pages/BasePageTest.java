@@ -0,0 +1,111 @@
+package com.example.selenium.pages;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import com.example.selenium.BaseTest;
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.waits.DomCondition;
+import com.example.selenium.waits.DomConditions;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for page object navigation against a local page whose load event is held back by the
+ * test. The browser has to reach the test's loopback server, so these do not run on a Grid.
+ */
+@DisabledIfSystemProperty(named = TestConfig.GRID_URL, matches = ".+")
+public class BasePageTest extends BaseTest {
+
+    private final CountDownLatch releaseScript = new CountDownLatch(1);
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        // An async script delays the load event but not DOMContentLoaded, and no profile blocks scripts
+        server.createContext("/page", exchange -> respond(exchange, "text/html",
+            "<html><head><script async src=\"/slow.js\"></script></head>"
+                + "<body><h1 id=\"ready\">Ready</h1></body></html>"));
+        server.createContext("/slow.js", exchange -> {
+            try {
+                releaseScript.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "application/javascript", "window.slowScriptRan = true;");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        releaseScript.countDown();
+        server.stop(0);
+    }
+
+    /**
+     * Tests that open() returns once the page is ready, while the load event is still pending
+     */
+    @Test
+    public void testOpenReturnsBeforeLoadEvent() {
+        assumeFalse(TestConfig.perfMonitor(), "The perf monitor waits for the load event on purpose");
+        assumeFalse("normal".equalsIgnoreCase(TestConfig.pageLoadStrategy()),
+            "The NORMAL page load strategy waits for the load event in driver.get()");
+
+        long start = System.nanoTime();
+        new SlowLoadPage(getDriver()).open(baseUrl + "/page");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Object readyState = ((JavascriptExecutor) getDriver()).executeScript("return document.readyState;");
+        assertNotEquals("complete", readyState, "The load event should not have fired yet");
+        assertTrue(elapsedMillis < TestConfig.perfLoadWaitMillis(),
+            "open() should not wait for the load event, took " + elapsedMillis + " ms");
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Page that is ready as soon as its heading is parsed
+     */
+    private static final class SlowLoadPage extends BasePage {
+
+        private SlowLoadPage(WebDriver driver) {
+            super(driver);
+        }
+
+        @Override
+        protected DomCondition<?> readyCondition() {
+            return DomConditions.presenceOfElementLocated(By.id("ready"));
+        }
+    }
+}
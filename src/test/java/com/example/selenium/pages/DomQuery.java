@@ -0,0 +1,96 @@
+package com.example.selenium.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import com.example.selenium.support.Locators;
+import com.example.selenium.support.Scripts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched DOM queries for page objects.
+ *
+ * Every findElement/getText/isDisplayed call is a separate HTTP round trip to the driver.
+ * The methods in this class evaluate all lookups inside the browser with a single
+ * executeScript call and return plain data, so reading N items costs one round trip
+ * instead of several per item.
+ */
+public class DomQuery {
+
+    private final WebDriver driver;
+
+    /**
+     * Constructor for DomQuery
+     *
+     * @param driver WebDriver instance
+     */
+    public DomQuery(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Extract text fields from every element matching a locator
+     *
+     * @param itemLocator locator of the repeated items, e.g. the suggestion links
+     * @param fields field name mapped to a locator resolved relative to each item
+     * @return one map of field name to text per item, in document order; missing fields are null
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, String>> extractAll(By itemLocator, Map<String, By> fields) {
+        Map<String, Object> fieldArguments = new LinkedHashMap<>();
+        for (Map.Entry<String, By> field : fields.entrySet()) {
+            fieldArguments.put(field.getKey(), Locators.toScriptArgument(field.getValue()));
+        }
+        Object result = execute(Scripts.get("dom-common.js", "extract-all.js"),
+            Locators.toScriptArgument(itemLocator), fieldArguments);
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (Object row : (List<Object>) result) {
+            Map<String, String> values = new LinkedHashMap<>();
+            ((Map<String, Object>) row).forEach((name, value) -> values.put(name, value == null ? null : value.toString()));
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    /**
+     * Read the state of several elements at once
+     *
+     * @param locators locators of the elements to inspect
+     * @return the state of the first element matching each locator, in the same order
+     */
+    @SuppressWarnings("unchecked")
+    public List<ElementState> inspect(By... locators) {
+        List<Object> locatorArguments = new ArrayList<>();
+        for (By locator : locators) {
+            locatorArguments.add(Locators.toScriptArgument(locator));
+        }
+        Object result = execute(Scripts.get("dom-common.js", "inspect.js"), locatorArguments);
+
+        List<ElementState> states = new ArrayList<>();
+        for (Object state : (List<Object>) result) {
+            states.add(ElementState.fromScriptResult((Map<String, Object>) state));
+        }
+        return Collections.unmodifiableList(states);
+    }
+
+    /**
+     * Read the state of a single element
+     *
+     * @param locator locator of the element
+     * @return the state of the first matching element
+     */
+    public ElementState inspect(By locator) {
+        return inspect(new By[] {locator}).get(0);
+    }
+
+    private Object execute(String script, Object... args) {
+        return ((JavascriptExecutor) driver).executeScript(script, args);
+    }
+}
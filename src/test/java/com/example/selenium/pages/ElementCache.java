@@ -0,0 +1,120 @@
+package com.example.selenium.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.driver.NavigationEvents;
+import com.example.selenium.metrics.ElementCacheMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Element handles found by one page object, keyed by locator, so repeated lookups of the same
+ * element do not each cost a findElement round trip.
+ *
+ * The cache is dropped when the document generation reported by the session's
+ * {@link NavigationEvents} changes, i.e. on every navigation and every DOM mutation the page
+ * reports over WebDriver BiDi; checking the generation needs no round trip. Without BiDi
+ * mutation reports every lookup goes to the browser.
+ *
+ * The cache is best-effort: mutation reports arrive asynchronously, so a lookup right after a
+ * re-render can still be served the handle found before it. Reads through a handle are live,
+ * so this only matters when the element was replaced or another element now matches the
+ * locator first. A replaced element's handle is stale, and {@link #apply} looks it up again
+ * once; callers that must see a newly inserted first match should not use the cache.
+ *
+ * The cache belongs to the top-level window the page object first looked up an element in,
+ * and like page objects it is not meant to be shared between threads.
+ */
+class ElementCache {
+
+    private final WebDriver driver;
+    private final String page;
+    private final NavigationEvents events;
+    private final Map<By, WebElement> elements = new HashMap<>();
+    private String context;
+    private long generation = -1;
+
+    /**
+     * Constructor for ElementCache
+     *
+     * @param driver the page object's driver
+     * @param page name of the page object class, for the run report
+     */
+    ElementCache(WebDriver driver, String page) {
+        this.driver = driver;
+        this.page = page;
+        NavigationEvents sessionEvents = TestConfig.elementCache() ? NavigationEvents.forDriver(driver) : null;
+        this.events = sessionEvents != null && sessionEvents.isTrackingMutations() ? sessionEvents : null;
+    }
+
+    /**
+     * Find the first element matching a locator, from the cache if the document has not changed
+     * since it was found
+     *
+     * @param locator the locator
+     * @return the element
+     * @throws org.openqa.selenium.NoSuchElementException if no element matches
+     */
+    WebElement find(By locator) {
+        if (events == null) {
+            ElementCacheMetrics.recordMiss(page, false);
+            return driver.findElement(locator);
+        }
+        if (context == null) {
+            context = driver.getWindowHandle();
+        }
+        // Read the generation before looking up, so a change during the lookup drops the result
+        long current = events.getDocumentGeneration(context);
+        if (current != generation) {
+            if (!elements.isEmpty()) {
+                ElementCacheMetrics.recordInvalidated(page, elements.size());
+                elements.clear();
+            }
+            generation = current;
+        }
+        WebElement cached = elements.get(locator);
+        if (cached != null) {
+            ElementCacheMetrics.recordHit(page);
+            return cached;
+        }
+        ElementCacheMetrics.recordMiss(page, true);
+        WebElement element = driver.findElement(locator);
+        elements.put(locator, element);
+        return element;
+    }
+
+    /**
+     * Apply an action to the element matching a locator, looking the element up again once if
+     * the cached handle is stale
+     *
+     * @param locator the locator
+     * @param action what to do with the element
+     * @param <T> the result type
+     * @return the result of the action
+     */
+    <T> T apply(By locator, Function<WebElement, T> action) {
+        try {
+            return action.apply(find(locator));
+        } catch (StaleElementReferenceException e) {
+            ElementCacheMetrics.recordStale(page);
+            elements.remove(locator);
+            return action.apply(find(locator));
+        }
+    }
+
+    /**
+     * Drop all handles, e.g. before the page object navigates
+     */
+    void invalidate() {
+        if (!elements.isEmpty()) {
+            ElementCacheMetrics.recordInvalidated(page, elements.size());
+            elements.clear();
+        }
+    }
+}
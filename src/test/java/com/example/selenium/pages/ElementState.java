@@ -0,0 +1,57 @@
+package com.example.selenium.pages;
+
+import java.util.Map;
+
+/**
+ * Snapshot of an element read in the browser by {@link DomQuery#inspect(org.openqa.selenium.By...)}
+ */
+public class ElementState {
+
+    private final boolean present;
+    private final boolean displayed;
+    private final String text;
+
+    /**
+     * Constructor for ElementState
+     *
+     * @param present whether a matching element exists
+     * @param displayed whether the element is visible
+     * @param text the visible text of the element, or null if it is not present
+     */
+    public ElementState(boolean present, boolean displayed, String text) {
+        this.present = present;
+        this.displayed = displayed;
+        this.text = text;
+    }
+
+    /**
+     * Create an ElementState from the map returned by inspect.js
+     *
+     * @param result the script result for one element
+     * @return the element state
+     */
+    static ElementState fromScriptResult(Map<String, Object> result) {
+        Object text = result.get("text");
+        return new ElementState(
+            Boolean.TRUE.equals(result.get("present")),
+            Boolean.TRUE.equals(result.get("displayed")),
+            text == null ? null : text.toString());
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementState[present=" + present + ", displayed=" + displayed + ", text=" + text + "]";
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.selenium.pages;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A state a test wants to start in, described by what the browser needs to be in it: the URL
+ * of the page and the cookies and localStorage entries the UI flow would have left behind.
+ * {@link BasePage#seed(PageState)} puts the browser into the state directly instead of
+ * clicking through the flow.
+ *
+ * Instances are immutable; the with* methods return a copy.
+ */
+public final class PageState {
+
+    private final String name;
+    private final String url;
+    private final int replacedNavigations;
+    private final Map<String, String> cookies;
+    private final Map<String, String> localStorage;
+
+    private PageState(String name, String url, int replacedNavigations,
+                      Map<String, String> cookies, Map<String, String> localStorage) {
+        this.name = name;
+        this.url = url;
+        this.replacedNavigations = replacedNavigations;
+        this.cookies = Collections.unmodifiableMap(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+    }
+
+    /**
+     * Describe a state reached through the UI with the given number of page loads
+     *
+     * @param name name of the state in the run report, e.g. "spanish-wikipedia"
+     * @param url the page the state is on
+     * @param replacedNavigations page loads the UI flow to this state takes
+     * @return the state without cookies or storage
+     */
+    public static PageState of(String name, String url, int replacedNavigations) {
+        return new PageState(name, url, replacedNavigations, new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * Add a cookie for the state's host
+     *
+     * @param cookieName the cookie name
+     * @param value the cookie value
+     * @return a copy of this state with the cookie
+     */
+    public PageState withCookie(String cookieName, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(cookies);
+        copy.put(cookieName, value);
+        return new PageState(name, url, replacedNavigations, copy, localStorage);
+    }
+
+    /**
+     * Add a localStorage entry for the state's origin
+     *
+     * @param key the storage key
+     * @param value the storage value
+     * @return a copy of this state with the entry
+     */
+    public PageState withLocalStorage(String key, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(localStorage);
+        copy.put(key, value);
+        return new PageState(name, url, replacedNavigations, cookies, copy);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getReplacedNavigations() {
+        return replacedNavigations;
+    }
+
+    public Map<String, String> getCookies() {
+        return cookies;
+    }
+
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    /**
+     * Whether anything besides the URL has to be set up
+     *
+     * @return true if the state has cookies or storage entries
+     */
+    public boolean hasBrowserState() {
+        return !cookies.isEmpty() || !localStorage.isEmpty();
+    }
+
+    /**
+     * Scheme, host and port of the state's URL
+     *
+     * @return e.g. "https://es.wikipedia.org"
+     */
+    public String getOrigin() {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + url + ")";
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.selenium.pages;
+
+/**
+ * How relevant the typeahead suggestions for a search term are: the share of suggestions
+ * that contain the term
+ */
+public class RelevanceResult {
+
+    // Share of suggestions that must contain the search term
+    public static final double RELEVANCE_THRESHOLD = 0.7;
+
+    private final String searchTerm;
+    private final int suggestionCount;
+    private final int relevantCount;
+
+    /**
+     * Constructor for RelevanceResult
+     *
+     * @param searchTerm the term that was typed
+     * @param suggestionCount number of suggestions shown
+     * @param relevantCount number of suggestions containing the term
+     */
+    public RelevanceResult(String searchTerm, int suggestionCount, int relevantCount) {
+        this.searchTerm = searchTerm;
+        this.suggestionCount = suggestionCount;
+        this.relevantCount = relevantCount;
+    }
+
+    public String getSearchTerm() {
+        return searchTerm;
+    }
+
+    public int getSuggestionCount() {
+        return suggestionCount;
+    }
+
+    public int getRelevantCount() {
+        return relevantCount;
+    }
+
+    /**
+     * Share of suggestions that contain the search term
+     *
+     * @return between 0 and 1, or 0 if there were no suggestions
+     */
+    public double getRelevance() {
+        return suggestionCount == 0 ? 0 : (double) relevantCount / suggestionCount;
+    }
+
+    /**
+     * Whether enough suggestions contain the search term
+     *
+     * @return true if at least 70% of the suggestions are relevant
+     */
+    public boolean isRelevant() {
+        return getRelevance() >= RELEVANCE_THRESHOLD;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.selenium.pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keystroke-to-render latencies of one typed term, derived from the in-page timestamps of
+ * the typeahead probe.
+ *
+ * The latency of a keystroke is the time until the dropdown next re-rendered. A keystroke
+ * followed by another one before any render is counted as superseded (the typeahead skipped
+ * it, e.g. because of debouncing); one that never got a render is counted as unanswered.
+ */
+public class TypeaheadLatency {
+
+    private final String term;
+    private final int keystrokes;
+    private final List<Double> latenciesMillis;
+    private final int superseded;
+    private final int unanswered;
+    private final double finalLatencyMillis;
+
+    private TypeaheadLatency(String term, int keystrokes, List<Double> latenciesMillis, int superseded,
+            int unanswered, double finalLatencyMillis) {
+        this.term = term;
+        this.keystrokes = keystrokes;
+        this.latenciesMillis = latenciesMillis;
+        this.superseded = superseded;
+        this.unanswered = unanswered;
+        this.finalLatencyMillis = finalLatencyMillis;
+    }
+
+    /**
+     * Match keystrokes to renders
+     *
+     * @param term the typed term
+     * @param keys keystroke timestamps in milliseconds (performance.now()), ascending
+     * @param renders dropdown render timestamps in milliseconds, ascending
+     * @return the latencies of the term
+     */
+    public static TypeaheadLatency fromSamples(String term, List<Double> keys, List<Double> renders) {
+        List<Double> latencies = new ArrayList<>();
+        int superseded = 0;
+        int unanswered = 0;
+        double finalLatency = Double.NaN;
+        int render = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            double key = keys.get(i);
+            while (render < renders.size() && renders.get(render) < key) {
+                render++;
+            }
+            if (render == renders.size()) {
+                unanswered++;
+                continue;
+            }
+            double renderedAt = renders.get(render);
+            boolean last = i == keys.size() - 1;
+            if (!last && renderedAt > keys.get(i + 1)) {
+                superseded++;
+                continue;
+            }
+            latencies.add(renderedAt - key);
+            if (last) {
+                finalLatency = renderedAt - key;
+            }
+        }
+        return new TypeaheadLatency(term, keys.size(), Collections.unmodifiableList(latencies), superseded,
+            unanswered, finalLatency);
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public int getKeystrokes() {
+        return keystrokes;
+    }
+
+    /**
+     * Latencies of the keystrokes that got their own render
+     *
+     * @return latencies in milliseconds, in typing order
+     */
+    public List<Double> getLatenciesMillis() {
+        return latenciesMillis;
+    }
+
+    public int getSuperseded() {
+        return superseded;
+    }
+
+    public int getUnanswered() {
+        return unanswered;
+    }
+
+    /**
+     * Time from the last keystroke until the dropdown showed the suggestions for the full term
+     *
+     * @return latency in milliseconds, or NaN if the dropdown never rendered after the last keystroke
+     */
+    public double getFinalLatencyMillis() {
+        return finalLatencyMillis;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.selenium.pages;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests for matching keystrokes to dropdown renders. These run without a browser.
+ */
+public class TypeaheadLatencyTest {
+
+    /**
+     * Tests that each keystroke is matched with the first render after it
+     */
+    @Test
+    public void testLatencyIsTimeToNextRender() {
+        TypeaheadLatency latency = TypeaheadLatency.fromSamples("Jav",
+            Arrays.asList(0.0, 100.0, 200.0), Arrays.asList(-50.0, 40.0, 150.0, 260.0));
+
+        assertEquals(Arrays.asList(40.0, 50.0, 60.0), latency.getLatenciesMillis());
+        assertEquals(60.0, latency.getFinalLatencyMillis(), 0.001);
+        assertEquals(0, latency.getSuperseded());
+    }
+
+    /**
+     * Tests that keystrokes overtaken by the next keystroke and keystrokes without any render are counted
+     */
+    @Test
+    public void testSupersededAndUnansweredKeystrokes() {
+        TypeaheadLatency superseded = TypeaheadLatency.fromSamples("Ja",
+            Arrays.asList(0.0, 100.0), Collections.singletonList(180.0));
+        assertEquals(1, superseded.getSuperseded());
+        assertEquals(Collections.singletonList(80.0), superseded.getLatenciesMillis());
+
+        TypeaheadLatency unanswered = TypeaheadLatency.fromSamples("Ja",
+            Arrays.asList(0.0, 100.0), Collections.singletonList(50.0));
+        assertEquals(1, unanswered.getUnanswered());
+        assertTrue(Double.isNaN(unanswered.getFinalLatencyMillis()));
+    }
+}
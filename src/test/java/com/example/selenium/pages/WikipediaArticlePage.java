@@ -5,8 +5,15 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.data.TestConstants;
+import com.example.selenium.driver.DriverScope;
+import com.example.selenium.waits.DomCondition;
+import com.example.selenium.waits.DomConditions;
+
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 /**
@@ -14,6 +21,13 @@ import java.util.regex.Pattern;
  */
 public class WikipediaArticlePage extends BasePage {
 
+    /**
+     * The Spanish main page, reached in the UI by loading the homepage and picking Español
+     * from the language list
+     */
+    public static final PageState SPANISH_WIKIPEDIA =
+        PageState.of("spanish-wikipedia", TestConstants.Urls.SPANISH_WIKIPEDIA, 2);
+
     private final WebDriverWait wait;
 
     // Locators
@@ -30,12 +44,39 @@ public class WikipediaArticlePage extends BasePage {
         this.wait = wait;
     }
 
+    /**
+     * Constructor for the WikipediaArticlePage using the browser session of the current test thread
+     */
+    public WikipediaArticlePage() {
+        this(DriverScope.driver(), DriverScope.await());
+    }
+
+    /**
+     * An article is ready once its title is in the DOM
+     *
+     * @return the readiness condition of an article page
+     */
+    @Override
+    protected DomCondition<?> readyCondition() {
+        return DomConditions.presenceOfElementLocated(pageTitleLocator);
+    }
+
+    /**
+     * Open the Spanish main page directly, without going through the homepage's language list
+     *
+     * @return this page object for method chaining
+     */
+    public WikipediaArticlePage seedSpanishWikipedia() {
+        seed(SPANISH_WIKIPEDIA);
+        return this;
+    }
+
     /**
      * Verify the page title element is displayed
      */
     public void verifyPageTitleIsDisplayed() {
-        WebElement pageTitle = driver.findElement(pageTitleLocator);
-        assertTrue(pageTitle.isDisplayed(), "Page title element should be displayed");
+        boolean displayed = withElement(pageTitleLocator, WebElement::isDisplayed);
+        assertTrue(displayed, "Page title element should be displayed");
     }
 
     /**
@@ -44,41 +85,95 @@ public class WikipediaArticlePage extends BasePage {
      * @param expectedTitleText the expected title text
      */
     public void verifyPageTitleText(String expectedTitleText) {
-        WebElement pageTitle = driver.findElement(pageTitleLocator);
-        String actualTitleText = pageTitle.getText();
+        String actualTitleText = withElement(pageTitleLocator, WebElement::getText);
         assertTrue(actualTitleText.equals(expectedTitleText), "Page title text should match '" + expectedTitleText + "'");
     }
     
     /**
-     * Verify the HTML document title matches the expected value
+     * Verify the page title element is displayed and its text matches the expected text.
+     * Both checks are made from a single batched query.
+     *
+     * @param expectedTitleText the expected title text
+     */
+    public void verifyPageTitle(String expectedTitleText) {
+        ElementState pageTitle = domQuery.inspect(pageTitleLocator);
+        assertTrue(pageTitle.isPresent(), "Page title element should be present");
+        assertTrue(pageTitle.isDisplayed(), "Page title element should be displayed");
+        assertTrue(expectedTitleText.equals(pageTitle.getText()), 
+                  "Page title text should match '" + expectedTitleText + "', but was '" + pageTitle.getText() + "'");
+    }
+    
+    /**
+     * Read the state of the page title element without waiting for the answer
+     *
+     * @return completes with presence, visibility and text of the title
+     */
+    public CompletableFuture<ElementState> pageTitleAsync() {
+        return inspectAsync(pageTitleLocator);
+    }
+
+    /**
+     * Verify the browser shows the expected article: its URL, the title element and the document
+     * title. The three reads are sent at once and joined before asserting, so the check costs
+     * about one round trip instead of three. With selenium.perf.monitor the navigation that led
+     * here is recorded, as in {@link #verifyUrl}.
+     *
+     * @param expectedUrl the expected URL
+     * @param expectedTitleText the expected text of the title element
+     * @param expectedDocumentTitle the expected HTML document title
+     */
+    public void verifyArticle(String expectedUrl, String expectedTitleText, String expectedDocumentTitle) {
+        awaitNavigation(expectedUrl::equals);
+        CompletableFuture<String> url = currentUrlAsync();
+        CompletableFuture<ElementState> pageTitle = pageTitleAsync();
+        CompletableFuture<String> documentTitle = documentTitleAsync();
+        joinAll(url, pageTitle, documentTitle);
+
+        assertTrue(url.join().equals(expectedUrl), "URL should match the expected URL, but was '" + url.join() + "'");
+        assertTrue(pageTitle.join().isPresent(), "Page title element should be present");
+        assertTrue(pageTitle.join().isDisplayed(), "Page title element should be displayed");
+        assertTrue(expectedTitleText.equals(pageTitle.join().getText()),
+                  "Page title text should match '" + expectedTitleText + "', but was '" + pageTitle.join().getText() + "'");
+        assertTrue(documentTitle.join().equals(expectedDocumentTitle),
+                  "Document title should match '" + expectedDocumentTitle + "', but was '" + documentTitle.join() + "'");
+        if (TestConfig.perfMonitor()) {
+            recordNavigation();
+        }
+    }
+
+    /**
+     * Verify the HTML document title matches the expected value, waiting for a navigation in
+     * flight to reach a document with that title
      *
      * @param expectedDocumentTitle the expected document title
      */
     public void verifyDocumentTitle(String expectedDocumentTitle) {
-        String actualTitle = driver.getTitle();
+        String actualTitle = awaitDocumentTitle(expectedDocumentTitle::equals);
         assertTrue(actualTitle.equals(expectedDocumentTitle), 
                   "Document title should match '" + expectedDocumentTitle + "', but was '" + actualTitle + "'");
     }
     
     /**
-     * Verify the current URL contains the expected text
+     * Verify the current URL contains the expected text, waiting for a navigation to such a URL
      *
      * @param expectedUrlFragment text that should be contained in the URL
      */
     public void verifyUrlContains(String expectedUrlFragment) {
+        awaitNavigation(url -> url.contains(expectedUrlFragment));
         String currentUrl = driver.getCurrentUrl();
         assertTrue(currentUrl.contains(expectedUrlFragment), 
                   "URL should contain '" + expectedUrlFragment + "', but was '" + currentUrl + "'");
     }
     
     /**
-     * Verify the current URL matches a regex pattern
+     * Verify the current URL matches a regex pattern, waiting for a navigation to such a URL
      *
      * @param urlPattern regex pattern that the URL should match
      */
     public void verifyUrlMatchesPattern(String urlPattern) {
-        String currentUrl = driver.getCurrentUrl();
         Pattern pattern = Pattern.compile(urlPattern);
+        awaitNavigation(url -> pattern.matcher(url).matches());
+        String currentUrl = driver.getCurrentUrl();
         assertTrue(pattern.matcher(currentUrl).matches(), 
                   "URL should match pattern '" + urlPattern + "', but was '" + currentUrl + "'");
     }
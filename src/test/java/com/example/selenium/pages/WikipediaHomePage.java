@@ -1,12 +1,30 @@
 package com.example.selenium.pages;
 
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 import com.example.selenium.data.TestConstants;
+import com.example.selenium.driver.DriverScope;
+import com.example.selenium.driver.ResourceType;
+import com.example.selenium.metrics.TypeaheadMetrics;
+import com.example.selenium.support.Locators;
+import com.example.selenium.support.Scripts;
+import com.example.selenium.waits.DomCondition;
+import com.example.selenium.waits.DomConditions;
+import com.example.selenium.waits.DomWait;
 
 /**
  * Page Object representing the Wikipedia homepage
@@ -22,6 +40,17 @@ public class WikipediaHomePage extends BasePage {
     private static final By suggestionsDropdown = By.className("suggestions-dropdown");
     private static final By languageListButton = By.id("js-lang-list-button");
     private static final By languageLists = By.id("js-lang-lists");
+    // The typeahead re-creates the dropdown on every render, so a marked dropdown is a stale one
+    private static final By freshSuggestionsDropdown = By.cssSelector(".suggestions-dropdown:not([data-stale])");
+
+    // The typeahead probe counts the dropdown as settled after this long without re-rendering
+    private static final long PROBE_QUIET_MILLIS = 300;
+    private static final long PROBE_MAX_WAIT_MILLIS = 5000;
+
+    // Clears the search box and marks the current dropdown stale in one round trip
+    private static final String RESET_SEARCH_SCRIPT =
+        "document.querySelectorAll('.suggestions-dropdown').forEach(function (e) { e.setAttribute('data-stale', ''); });"
+        + "var input = document.getElementById('searchInput'); input.value = ''; return input;";
 
     /**
      * Constructor for the Wikipedia Homepage
@@ -34,13 +63,40 @@ public class WikipediaHomePage extends BasePage {
         this.wait = wait;
     }
 
+    /**
+     * Constructor for the Wikipedia Homepage using the browser session of the current test thread
+     */
+    public WikipediaHomePage() {
+        this(DriverScope.driver(), DriverScope.await());
+    }
+
+    /**
+     * The homepage is ready once the search box can be used
+     *
+     * @return the readiness condition of the homepage
+     */
+    @Override
+    protected DomCondition<?> readyCondition() {
+        return DomConditions.elementToBeClickable(searchInput);
+    }
+
+    /**
+     * The logo check in {@link #getWikipediaLogoText()} needs images even in the lean profile
+     *
+     * @return the resource types to load for the homepage
+     */
+    @Override
+    protected Set<ResourceType> allowedResources() {
+        return EnumSet.of(ResourceType.IMAGE);
+    }
+
     /**
      * Navigate to Wikipedia homepage
      *
      * @return this page object for method chaining
      */
     public WikipediaHomePage goTo() {
-        driver.get(TestConstants.Urls.WIKIPEDIA_HOME);
+        open(TestConstants.Urls.WIKIPEDIA_HOME);
         return this;
     }
 
@@ -51,9 +107,12 @@ public class WikipediaHomePage extends BasePage {
      * @return this page object for method chaining
      */
     public WikipediaHomePage enterSearchTerm(String searchTerm) {
-        WebElement searchBox = wait.until(ExpectedConditions.elementToBeClickable(searchInput));
-        searchBox.clear();
-        searchBox.sendKeys(searchTerm);
+        domWait.until(DomConditions.elementToBeClickable(searchInput));
+        withElement(searchInput, searchBox -> {
+            searchBox.clear();
+            searchBox.sendKeys(searchTerm);
+            return searchBox;
+        });
 
         // Wait for suggestions dropdown to appear
         waitForSuggestionsDropdown();
@@ -61,11 +120,74 @@ public class WikipediaHomePage extends BasePage {
         return this;
     }
 
+    /**
+     * Replace the search term without reloading the page and wait for the suggestions of the
+     * new term. Used to type many terms on one loaded homepage.
+     *
+     * @param searchTerm the term to type
+     * @param timeout how long to wait for suggestions
+     * @return true if suggestions for the term were rendered, false if none appeared in time
+     */
+    public boolean retypeSearchTerm(String searchTerm, Duration timeout) {
+        WebElement searchBox = (WebElement) ((JavascriptExecutor) driver).executeScript(RESET_SEARCH_SCRIPT);
+        searchBox.sendKeys(searchTerm);
+        try {
+            new DomWait(driver, timeout).until(DomConditions.visibilityOfElementLocated(freshSuggestionsDropdown));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Type a term one character at a time and measure how long the dropdown takes to re-render
+     * after each keystroke. Timestamps are taken in the page with performance.now(); typing is a
+     * single actions sequence and the samples are collected in one round trip at the end.
+     *
+     * @param searchTerm the term to type
+     * @param keyInterval pause between keystrokes, i.e. the simulated typing speed
+     * @return the keystroke-to-render latencies of the term
+     */
+    @SuppressWarnings("unchecked")
+    public TypeaheadLatency measureTypeaheadLatency(String searchTerm, Duration keyInterval) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        WebElement searchBox = (WebElement) js.executeScript(RESET_SEARCH_SCRIPT);
+        js.executeScript(Scripts.get("dom-common.js", "typeahead-probe-install.js"),
+            searchBox, Locators.toScriptArgument(suggestionsDropdown));
+
+        Actions typing = new Actions(driver).click(searchBox);
+        for (int i = 0; i < searchTerm.length(); i++) {
+            if (i > 0) {
+                typing.pause(keyInterval);
+            }
+            typing.sendKeys(String.valueOf(searchTerm.charAt(i)));
+        }
+        typing.perform();
+
+        Map<String, Object> samples = (Map<String, Object>) js.executeAsyncScript(
+            Scripts.get("typeahead-probe-collect.js"), PROBE_QUIET_MILLIS, PROBE_MAX_WAIT_MILLIS);
+        if (samples.containsKey("error")) {
+            throw new IllegalStateException("Typeahead probe failed: " + samples.get("error"));
+        }
+        TypeaheadLatency latency = TypeaheadLatency.fromSamples(searchTerm,
+            toMillis((List<Object>) samples.get("keys")), toMillis((List<Object>) samples.get("renders")));
+        TypeaheadMetrics.record(latency);
+        return latency;
+    }
+
+    private static List<Double> toMillis(List<Object> timestamps) {
+        List<Double> millis = new ArrayList<>(timestamps.size());
+        for (Object timestamp : timestamps) {
+            millis.add(((Number) timestamp).doubleValue());
+        }
+        return millis;
+    }
+
     /**
      * Wait for the suggestions dropdown to appear
      */
     private void waitForSuggestionsDropdown() {
-        wait.until(ExpectedConditions.visibilityOfElementLocated(suggestionsDropdown));
+        domWait.until(DomConditions.visibilityOfElementLocated(suggestionsDropdown));
     }
 
     /**
@@ -74,8 +196,10 @@ public class WikipediaHomePage extends BasePage {
      * @return WikipediaArticlePage instance
      */
     public WikipediaArticlePage clickSearch() {
-        wait.until(ExpectedConditions.elementToBeClickable(searchButton)).click();
-        return new WikipediaArticlePage(driver, wait);
+        domWait.until(DomConditions.elementToBeClickable(searchButton)).click();
+        WikipediaArticlePage articlePage = new WikipediaArticlePage(driver, wait);
+        articlePage.waitUntilReady();
+        return articlePage;
     }
 
     /**
@@ -94,7 +218,18 @@ public class WikipediaHomePage extends BasePage {
      * @return the text associated with the Wikipedia logo
      */
     public String getWikipediaLogoText() {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(wikipediaLogo)).getText();
+        return domWait.until(DomConditions.visibilityOfElementLocated(wikipediaLogo)).getText();
+    }
+
+    /**
+     * Read the text of the Wikipedia logo without waiting for the answer. Unlike
+     * {@link #getWikipediaLogoText()} it does not wait for the logo to become visible, so use it
+     * on a page that is ready.
+     *
+     * @return completes with the logo text, or null if the logo is missing
+     */
+    public CompletableFuture<String> getWikipediaLogoTextAsync() {
+        return inspectAsync(wikipediaLogo).thenApply(ElementState::getText);
     }
 
     /**
@@ -120,7 +255,7 @@ public class WikipediaHomePage extends BasePage {
      * @return WebElement of the specific suggestion
      */
     public WebElement getSuggestionLink(String title, String description) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(getSuggestionLinkLocator(title, description)));
+        return domWait.until(DomConditions.visibilityOfElementLocated(getSuggestionLinkLocator(title, description)));
     }
     
     /**
@@ -129,8 +264,8 @@ public class WikipediaHomePage extends BasePage {
      * @return this page object for method chaining
      */
     public WikipediaHomePage clickLanguageListButton() {
-        wait.until(ExpectedConditions.elementToBeClickable(languageListButton)).click();
-        wait.until(ExpectedConditions.visibilityOfElementLocated(languageLists));
+        domWait.until(DomConditions.elementToBeClickable(languageListButton)).click();
+        domWait.until(DomConditions.visibilityOfElementLocated(languageLists));
         return this;
     }
     
@@ -142,7 +277,7 @@ public class WikipediaHomePage extends BasePage {
      */
     public WikipediaHomePage selectLanguage(String languageName) {
         By languageLink = By.xpath(String.format("//a[contains(text(), '%s')]", languageName));
-        wait.until(ExpectedConditions.elementToBeClickable(languageLink)).click();
+        domWait.until(DomConditions.elementToBeClickable(languageLink)).click();
         return this;
     }
 }
\ No newline at end of file
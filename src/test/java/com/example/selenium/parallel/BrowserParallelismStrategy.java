@@ -0,0 +1,85 @@
+package com.example.selenium.parallel;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.driver.DriverPool;
+import com.example.selenium.grid.GridScheduler;
+import com.example.selenium.support.HostResources;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * JUnit parallel execution strategy that runs as many tests at once as the machine can hold
+ * browsers, see {@link HostResources#browserCapacity()}, or on a Selenium Grid as many as the
+ * driver pool holds, i.e. the Grid's capacity. Registered in junit-platform.properties
+ * and used once parallel execution is switched on with
+ * {@code -Djunit.jupiter.execution.parallel.enabled=true}.
+ */
+public class BrowserParallelismStrategy implements ParallelExecutionConfigurationStrategy {
+
+    private static final Logger logger = Logger.getLogger(BrowserParallelismStrategy.class.getName());
+
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        if (GridScheduler.isEnabled()) {
+            int parallelism = Math.max(1, DriverPool.getInstance().getMaxSize());
+            logger.info("Running tests with parallelism " + parallelism + " (Selenium Grid at " + TestConfig.gridUrl() + ")");
+            return new BrowserParallelism(parallelism);
+        }
+        int parallelism = HostResources.browserCapacity();
+        logger.info("Running tests with parallelism " + parallelism + " ("
+            + HostResources.availableProcessors() + " cores, "
+            + HostResources.availableMemoryBytes() / (1024 * 1024) + " MB available)");
+        return new BrowserParallelism(parallelism);
+    }
+
+    /**
+     * Fixed-size configuration: every worker drives one browser, so the pool must not
+     * grow beyond the parallelism even when workers block on WebDriver calls.
+     */
+    private static final class BrowserParallelism implements ParallelExecutionConfiguration {
+
+        private final int parallelism;
+
+        private BrowserParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return KEEP_ALIVE_SECONDS;
+        }
+
+        @Override
+        public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+            return pool -> true;
+        }
+    }
+}
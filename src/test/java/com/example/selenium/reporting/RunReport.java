@@ -0,0 +1,99 @@
+package com.example.selenium.reporting;
+
+import com.example.selenium.config.TestConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Collects the summary sections contributed by the framework components (driver pool,
+ * instrumentation, etc.) and writes them to a single report file when the JVM exits.
+ */
+public final class RunReport {
+
+    private static final Logger logger = Logger.getLogger(RunReport.class.getName());
+
+    public static final String FILE_NAME = "run-report.txt";
+
+    private static final Map<String, Supplier<String>> sections = new LinkedHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(RunReport::write, "run-report-writer"));
+    }
+
+    private RunReport() {
+    }
+
+    /**
+     * Register a report section. The supplier is only invoked when the report is written,
+     * so it should read the latest state of the component it describes.
+     *
+     * @param title the section heading
+     * @param section supplier of the section body
+     */
+    public static void register(String title, Supplier<String> section) {
+        synchronized (sections) {
+            sections.put(title, section);
+        }
+    }
+
+    /**
+     * Resolve a file inside the reports directory, creating the directory if needed
+     *
+     * @param fileName name of the report file
+     * @return path to the report file
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path reportFile(String fileName) throws IOException {
+        Path dir = Paths.get(TestConfig.reportsDir());
+        Files.createDirectories(dir);
+        return dir.resolve(fileName);
+    }
+
+    /**
+     * Render all registered sections
+     *
+     * @return the report text
+     */
+    public static String render() {
+        StringBuilder report = new StringBuilder();
+        synchronized (sections) {
+            for (Map.Entry<String, Supplier<String>> entry : sections.entrySet()) {
+                report.append("== ").append(entry.getKey()).append(" ==\n");
+                try {
+                    report.append(entry.getValue().get());
+                } catch (RuntimeException e) {
+                    report.append("(section failed: ").append(e.getMessage()).append(")");
+                }
+                report.append("\n\n");
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write the report to the reports directory
+     */
+    static void write() {
+        synchronized (sections) {
+            if (sections.isEmpty()) {
+                return;
+            }
+        }
+        String report = render();
+        try {
+            Path file = reportFile(FILE_NAME);
+            Files.write(file, report.getBytes(StandardCharsets.UTF_8));
+            logger.info("Run report written to " + file.toAbsolutePath() + "\n" + report);
+        } catch (IOException e) {
+            logger.warning("Could not write run report: " + e.getMessage());
+        }
+    }
+}
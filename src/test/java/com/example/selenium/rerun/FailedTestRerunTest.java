@@ -0,0 +1,38 @@
+package com.example.selenium.rerun;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Reruns the tests that failed earlier in the run, one by one, on the sessions the driver
+ * pool kept warm. A test that passes on rerun passes here and counts as flaky in the
+ * {@link FlakinessHistory}; a test that fails again fails here with both failures.
+ *
+ * Ordered after all other classes by {@link RunLastClassOrderer}. Disable the rerun with
+ * -Dselenium.rerun.failed=false. Runs with parallel execution do not defer failures, see
+ * {@link RerunPlanListener}, so there is nothing to rerun.
+ */
+@Isolated
+public class FailedTestRerunTest {
+
+    private static final Logger logger = Logger.getLogger(FailedTestRerunTest.class.getName());
+
+    @TestFactory
+    public Stream<DynamicTest> rerunFailedTests() {
+        return RerunQueue.close().stream().map(test -> dynamicTest(test.getName(), () -> {
+            Throwable failure = TestLauncher.run(test.getTestClass(), test.getMethodName(), TestLauncher.Lane.RERUN);
+            if (failure != null) {
+                AssertionError error = new AssertionError(test.getName() + " failed again on rerun: " + failure, failure);
+                error.addSuppressed(test.getFailure());
+                throw error;
+            }
+            logger.info(test.getName() + " passed on rerun, it is flaky");
+        }));
+    }
+}
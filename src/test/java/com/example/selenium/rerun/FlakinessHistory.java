@@ -0,0 +1,262 @@
+package com.example.selenium.rerun;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * Flakiness score of every test across runs, used to quarantine chronically flaky tests.
+ *
+ * A run of a test is flaky when it failed and then passed on rerun. The score is an
+ * exponentially weighted average of flaky runs, so it rises quickly for a test that starts
+ * flaking and decays again once the test is stable. Tests that fail consistently are not flaky;
+ * they count as failed and lower the score like passes do. Outcomes of the current run are
+ * merged into flakiness.properties in the history directory when the JVM exits.
+ */
+public final class FlakinessHistory {
+
+    private static final Logger logger = Logger.getLogger(FlakinessHistory.class.getName());
+
+    public static final String FILE_NAME = "flakiness.properties";
+
+    // Weight of the latest run in the score
+    static final double SMOOTHING = 0.2;
+
+    /**
+     * Final outcome of one run of a test
+     */
+    public enum Outcome {
+        PASSED,
+        FLAKY,
+        FAILED
+    }
+
+    private static final ConcurrentMap<String, List<Outcome>> currentRun = new ConcurrentHashMap<>();
+    private static volatile Map<String, Stats> previousRuns;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FlakinessHistory::write, "flakiness-history-writer"));
+        RunReport.register("Flaky tests", FlakinessHistory::summary);
+    }
+
+    private FlakinessHistory() {
+    }
+
+    /**
+     * Record the final outcome of a test in this run
+     *
+     * @param test the test name, e.g. "WikipediaTest.testChangeLanguageToSpanish"
+     * @param outcome how the test ended
+     */
+    public static void record(String test, Outcome outcome) {
+        List<Outcome> outcomes = currentRun.computeIfAbsent(test, name -> Collections.synchronizedList(new ArrayList<>()));
+        outcomes.add(outcome);
+    }
+
+    /**
+     * Whether a test is quarantined: listed in selenium.quarantine.tests, or its score from
+     * previous runs reached selenium.quarantine.scorePercent after at least
+     * selenium.quarantine.minRuns runs
+     *
+     * @param test the test name
+     * @return true if the test should run in the quarantine lane
+     */
+    public static boolean isQuarantined(String test) {
+        return manualQuarantine().contains(test) || isQuarantined(previousRuns().get(test),
+            TestConfig.quarantineScorePercent() / 100.0, TestConfig.quarantineMinRuns());
+    }
+
+    static boolean isQuarantined(Stats stats, double threshold, int minRuns) {
+        return stats != null && stats.runs >= minRuns && stats.score >= threshold;
+    }
+
+    private static Set<String> manualQuarantine() {
+        Set<String> tests = new HashSet<>();
+        for (String test : TestConfig.quarantineTests().split(",")) {
+            if (!test.trim().isEmpty()) {
+                tests.add(test.trim());
+            }
+        }
+        return tests;
+    }
+
+    /**
+     * Scores as they were when the run started
+     *
+     * @return stats per test name
+     */
+    private static Map<String, Stats> previousRuns() {
+        if (previousRuns == null) {
+            synchronized (FlakinessHistory.class) {
+                if (previousRuns == null) {
+                    previousRuns = load(file());
+                }
+            }
+        }
+        return previousRuns;
+    }
+
+    static Map<String, Stats> load(Path file) {
+        Map<String, Stats> history = new TreeMap<>();
+        if (!Files.isRegularFile(file)) {
+            return history;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warning("Could not read " + file + ": " + e.getMessage());
+            return history;
+        }
+        for (String test : properties.stringPropertyNames()) {
+            Stats stats = Stats.parse(properties.getProperty(test));
+            if (stats == null) {
+                logger.warning("Ignoring invalid flakiness entry for " + test + " in " + file);
+            } else {
+                history.put(test, stats);
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Merge outcomes into stored stats
+     *
+     * @param history stats per test, updated in place
+     * @param outcomes outcomes of one run per test
+     */
+    static void merge(Map<String, Stats> history, Map<String, List<Outcome>> outcomes) {
+        outcomes.forEach((test, testOutcomes) -> {
+            Stats stats = history.computeIfAbsent(test, name -> new Stats(0, 0, 0, 0));
+            synchronized (testOutcomes) {
+                for (Outcome outcome : testOutcomes) {
+                    stats.add(outcome);
+                }
+            }
+        });
+    }
+
+    static void write() {
+        if (currentRun.isEmpty()) {
+            return;
+        }
+        Path file = file();
+        Map<String, Stats> history = load(file);
+        merge(history, currentRun);
+
+        Properties properties = new Properties();
+        history.forEach((test, stats) -> properties.setProperty(test, stats.format()));
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "flakiness", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Flakiness score, runs, flaky runs and failed runs per test");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Could not write " + file + ": " + e.getMessage());
+        }
+    }
+
+    static String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, List<Outcome>> entry : new TreeMap<>(currentRun).entrySet()) {
+            List<Outcome> outcomes;
+            synchronized (entry.getValue()) {
+                outcomes = new ArrayList<>(entry.getValue());
+            }
+            if (outcomes.contains(Outcome.FLAKY) || outcomes.contains(Outcome.FAILED)) {
+                Stats stats = previousRuns().get(entry.getKey());
+                summary.append(String.format("%-55s %-14s score before run: %s%n", entry.getKey(), outcomes,
+                    stats == null ? "-" : String.format("%.2f", stats.score)));
+            }
+        }
+        if (summary.length() == 0) {
+            summary.append("no flaky or failed tests in this run\n");
+        }
+        summary.append("quarantined: ");
+        List<String> quarantined = new ArrayList<>(manualQuarantine());
+        for (String test : previousRuns().keySet()) {
+            if (!quarantined.contains(test) && isQuarantined(test)) {
+                quarantined.add(test);
+            }
+        }
+        summary.append(quarantined.isEmpty() ? "none" : String.join(", ", quarantined));
+        return summary.toString();
+    }
+
+    private static Path file() {
+        return Paths.get(TestConfig.historyDir(), FILE_NAME);
+    }
+
+    /**
+     * Flakiness of one test across runs
+     */
+    static final class Stats {
+        private double score;
+        private long runs;
+        private long flaky;
+        private long failed;
+
+        Stats(double score, long runs, long flaky, long failed) {
+            this.score = score;
+            this.runs = runs;
+            this.flaky = flaky;
+            this.failed = failed;
+        }
+
+        static Stats parse(String value) {
+            String[] fields = value.trim().split("\\s+");
+            if (fields.length != 4) {
+                return null;
+            }
+            try {
+                return new Stats(Double.parseDouble(fields[0]), Long.parseLong(fields[1]),
+                    Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return String.format(Locale.ROOT, "%.4f %d %d %d", score, runs, flaky, failed);
+        }
+
+        void add(Outcome outcome) {
+            runs++;
+            if (outcome == Outcome.FLAKY) {
+                flaky++;
+            } else if (outcome == Outcome.FAILED) {
+                failed++;
+            }
+            score = score * (1 - SMOOTHING) + (outcome == Outcome.FLAKY ? SMOOTHING : 0);
+        }
+
+        double getScore() {
+            return score;
+        }
+
+        long getRuns() {
+            return runs;
+        }
+    }
+}
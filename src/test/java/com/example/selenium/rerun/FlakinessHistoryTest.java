@@ -0,0 +1,72 @@
+package com.example.selenium.rerun;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for the flakiness score that decides which tests are quarantined. These run without a browser.
+ */
+public class FlakinessHistoryTest {
+
+    @TempDir
+    Path historyDir;
+
+    /**
+     * Tests that flaky runs raise the score past the threshold and stable runs lower it again,
+     * while tests that fail every time are not counted as flaky
+     */
+    @Test
+    public void testScoreFollowsFlakyRuns() {
+        Map<String, FlakinessHistory.Stats> history = new HashMap<>();
+        List<FlakinessHistory.Outcome> flakyRuns = Arrays.asList(FlakinessHistory.Outcome.PASSED,
+            FlakinessHistory.Outcome.FLAKY, FlakinessHistory.Outcome.PASSED, FlakinessHistory.Outcome.FLAKY,
+            FlakinessHistory.Outcome.FLAKY);
+        List<FlakinessHistory.Outcome> brokenRuns = Collections.nCopies(5, FlakinessHistory.Outcome.FAILED);
+        Map<String, List<FlakinessHistory.Outcome>> run = new HashMap<>();
+        run.put("SuiteTest.flaky", flakyRuns);
+        run.put("SuiteTest.broken", brokenRuns);
+        FlakinessHistory.merge(history, run);
+
+        FlakinessHistory.Stats flaky = history.get("SuiteTest.flaky");
+        assertEquals(5, flaky.getRuns());
+        assertTrue(FlakinessHistory.isQuarantined(flaky, 0.3, 5), "Score was " + flaky.getScore());
+        assertFalse(FlakinessHistory.isQuarantined(flaky, 0.3, 6), "Quarantined before the minimum number of runs");
+        assertFalse(FlakinessHistory.isQuarantined(history.get("SuiteTest.broken"), 0.3, 5));
+
+        FlakinessHistory.merge(history, Collections.singletonMap("SuiteTest.flaky",
+            Collections.nCopies(5, FlakinessHistory.Outcome.PASSED)));
+        assertFalse(FlakinessHistory.isQuarantined(flaky, 0.3, 5), "Score was " + flaky.getScore());
+    }
+
+    /**
+     * Tests that stored stats are read back and invalid entries are skipped
+     */
+    @Test
+    public void testLoadSkipsInvalidEntries() throws IOException {
+        Path file = historyDir.resolve(FlakinessHistory.FILE_NAME);
+        Files.write(file, Arrays.asList(
+            "SuiteTest.stable=0.0000 12 0 1",
+            "SuiteTest.flaky=" + new FlakinessHistory.Stats(0.45, 8, 4, 0).format(),
+            "SuiteTest.corrupt=not a score"));
+
+        Map<String, FlakinessHistory.Stats> history = FlakinessHistory.load(file);
+
+        assertEquals(2, history.size());
+        assertEquals(12, history.get("SuiteTest.stable").getRuns());
+        assertEquals(0.45, history.get("SuiteTest.flaky").getScore(), 1e-9);
+        assertTrue(FlakinessHistory.load(historyDir.resolve("missing.properties")).isEmpty());
+    }
+}
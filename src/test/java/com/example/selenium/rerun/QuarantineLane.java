@@ -0,0 +1,118 @@
+package com.example.selenium.rerun;
+
+import com.example.selenium.reporting.RunReport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Runs quarantined tests beside the main run instead of in it.
+ *
+ * The lane is a single low-priority thread, so it holds at most one browser session at a time
+ * and never competes with the main run for more. A quarantined test that fails is retried once
+ * right away. Results are reported and scored, but never fail the build: the test is known to
+ * be flaky, and its outcome says little about the change under test. At the end of the run the
+ * lane gets a short grace period; tests that have not finished by then are abandoned rather
+ * than made to extend the run.
+ */
+public final class QuarantineLane {
+
+    private static final Logger logger = Logger.getLogger(QuarantineLane.class.getName());
+
+    private static final LongAdder passed = new LongAdder();
+    private static final LongAdder flaky = new LongAdder();
+    private static final LongAdder failed = new LongAdder();
+    private static final List<String> submitted = new ArrayList<>();
+    private static final List<String> unfinished = new ArrayList<>();
+    private static ExecutorService executor;
+
+    static {
+        RunReport.register("Quarantine lane", QuarantineLane::summary);
+    }
+
+    private QuarantineLane() {
+    }
+
+    /**
+     * Queue a quarantined test in the lane
+     *
+     * @param testClass the test class
+     * @param methodName the test method
+     * @param testName name of the test in reports
+     */
+    public static synchronized void submit(Class<?> testClass, String methodName, String testName) {
+        if (submitted.contains(testName)) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "quarantine-lane");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        submitted.add(testName);
+        logger.info(testName + " is quarantined, running it in the quarantine lane");
+        executor.execute(() -> run(testClass, methodName, testName));
+    }
+
+    private static void run(Class<?> testClass, String methodName, String testName) {
+        if (TestLauncher.run(testClass, methodName, TestLauncher.Lane.QUARANTINE) == null) {
+            passed.increment();
+            return;
+        }
+        Throwable failure = TestLauncher.run(testClass, methodName, TestLauncher.Lane.RERUN);
+        if (failure == null) {
+            flaky.increment();
+            logger.info("Quarantined test " + testName + " passed on retry");
+        } else {
+            failed.increment();
+            logger.warning("Quarantined test " + testName + " failed twice: " + failure);
+        }
+    }
+
+    /**
+     * Stop accepting tests and give the queued ones a grace period to finish
+     *
+     * @param grace how long to wait for the lane after the main run finished
+     */
+    public static void awaitCompletion(Duration grace) {
+        ExecutorService lane;
+        synchronized (QuarantineLane.class) {
+            lane = executor;
+            executor = null;
+        }
+        if (lane == null) {
+            return;
+        }
+        lane.shutdown();
+        try {
+            if (!lane.awaitTermination(grace.toMillis(), TimeUnit.MILLISECONDS)) {
+                List<Runnable> abandoned = lane.shutdownNow();
+                synchronized (QuarantineLane.class) {
+                    unfinished.add(abandoned.size() + " test(s) not started, 1 running");
+                }
+                logger.warning("Quarantine lane did not finish within " + grace.getSeconds() + " s, abandoning it");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lane.shutdownNow();
+        }
+    }
+
+    static synchronized String summary() {
+        if (submitted.isEmpty()) {
+            return "no quarantined tests ran";
+        }
+        return String.format("tests: %s%npassed: %d, passed on retry: %d, failed: %d%s",
+            String.join(", ", submitted), passed.sum(), flaky.sum(), failed.sum(),
+            unfinished.isEmpty() ? "" : ", unfinished: " + String.join(", ", unfinished));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.selenium.rerun;
+
+import com.example.selenium.config.TestConfig;
+
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Opens the {@link RerunQueue} when a run starts that includes {@link FailedTestRerunTest},
+ * and waits for the {@link QuarantineLane} when the run ends. Registered through
+ * META-INF/services; runs nested through {@link TestLauncher#nestedLauncher()} do not see it.
+ *
+ * Parallel runs fail right away instead of deferring failures: there the class order only
+ * decides when classes are submitted, and the rerun could start, and close the queue, while
+ * other classes are still running.
+ */
+public class RerunPlanListener implements TestExecutionListener {
+
+    private static final Logger logger = Logger.getLogger(RerunPlanListener.class.getName());
+
+    private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        boolean rerun = TestConfig.rerunFailed() && includesRerun(testPlan);
+        if (rerun && testPlan.getConfigurationParameters().getBoolean(PARALLEL_ENABLED).orElse(false)) {
+            logger.info("Tests run in parallel, failed tests are not rerun");
+            rerun = false;
+        }
+        RerunQueue.setOpen(rerun);
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        RerunQueue.close();
+        QuarantineLane.awaitCompletion(Duration.ofSeconds(TestConfig.quarantineGraceSeconds()));
+    }
+
+    private static boolean includesRerun(TestPlan testPlan) {
+        for (TestIdentifier root : testPlan.getRoots()) {
+            for (TestIdentifier identifier : testPlan.getDescendants(root)) {
+                TestSource source = identifier.getSource().orElse(null);
+                if (source instanceof ClassSource
+                        && ((ClassSource) source).getClassName().equals(FailedTestRerunTest.class.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.selenium.rerun;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests that failed in the main run and wait to be rerun by {@link FailedTestRerunTest}.
+ *
+ * Failures are only deferred while the rerun is sure to happen: the rerun class must be part
+ * of a run without parallel execution, and once it has started, later failures fail right
+ * away. No failure is hidden by a rerun that never comes.
+ */
+public final class RerunQueue {
+
+    private static final List<FailedTest> queue = new ArrayList<>();
+    private static boolean open;
+
+    private RerunQueue() {
+    }
+
+    /**
+     * Start or stop accepting failed tests, when the run starts
+     *
+     * @param rerunScheduled whether the run includes the rerun
+     */
+    static synchronized void setOpen(boolean rerunScheduled) {
+        open = rerunScheduled;
+    }
+
+    /**
+     * Queue a failed test for the rerun
+     *
+     * @param test the failed test
+     * @return true if the test will be rerun, false if its failure has to stand
+     */
+    public static synchronized boolean defer(FailedTest test) {
+        if (!open) {
+            return false;
+        }
+        queue.add(test);
+        return true;
+    }
+
+    /**
+     * Stop accepting failed tests and take the queued ones
+     *
+     * @return the tests to rerun, in the order they failed
+     */
+    static synchronized List<FailedTest> close() {
+        open = false;
+        List<FailedTest> tests = new ArrayList<>(queue);
+        queue.clear();
+        return Collections.unmodifiableList(tests);
+    }
+
+    /**
+     * A test that failed in the main run
+     */
+    public static final class FailedTest {
+        private final Class<?> testClass;
+        private final String methodName;
+        private final Throwable failure;
+
+        /**
+         * Constructor for FailedTest
+         *
+         * @param testClass the test class
+         * @param methodName the test method
+         * @param failure why the test failed in the main run
+         */
+        public FailedTest(Class<?> testClass, String methodName, Throwable failure) {
+            this.testClass = testClass;
+            this.methodName = methodName;
+            this.failure = failure;
+        }
+
+        public Class<?> getTestClass() {
+            return testClass;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        /**
+         * Name used for a test in reports
+         *
+         * @return e.g. "WikipediaTest.testChangeLanguageToSpanish"
+         */
+        public String getName() {
+            return testClass.getSimpleName() + "." + methodName;
+        }
+    }
+}
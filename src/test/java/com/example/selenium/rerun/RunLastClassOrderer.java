@@ -0,0 +1,23 @@
+package com.example.selenium.rerun;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Keeps the discovered order of test classes but moves {@link FailedTestRerunTest} to the
+ * end, so it reruns the failures of all other classes.
+ */
+public class RunLastClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        context.getClassDescriptors().sort(Comparator.comparing(RunLastClassOrderer::isRerun));
+    }
+
+    private static boolean isRerun(ClassDescriptor descriptor) {
+        return descriptor.getTestClass() == FailedTestRerunTest.class;
+    }
+}
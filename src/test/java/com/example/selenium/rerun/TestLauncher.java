@@ -0,0 +1,90 @@
+package com.example.selenium.rerun;
+
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+/**
+ * Runs single tests again inside the running JVM, where the driver pool still holds warm
+ * sessions and the driver binaries are resolved.
+ */
+public final class TestLauncher {
+
+    /**
+     * Why a test is running on the current thread
+     */
+    public enum Lane {
+        /** The regular run */
+        MAIN,
+        /** First attempt of a quarantined test in the quarantine lane */
+        QUARANTINE,
+        /** Rerun of a test that failed */
+        RERUN
+    }
+
+    private static final ThreadLocal<Lane> currentLane = new ThreadLocal<>();
+
+    private TestLauncher() {
+    }
+
+    /**
+     * The lane of the test running on the current thread
+     *
+     * @return the lane, MAIN outside of {@link #run}
+     */
+    public static Lane currentLane() {
+        Lane lane = currentLane.get();
+        return lane != null ? lane : Lane.MAIN;
+    }
+
+    /**
+     * A launcher for runs nested in the current one. It registers none of the listeners and
+     * filters found on the class path, which belong to the outer run: the shard filter must not
+     * drop the nested tests, and listeners must not mistake the nested plan for the whole run.
+     *
+     * @return a new launcher
+     */
+    public static Launcher nestedLauncher() {
+        return LauncherFactory.create(LauncherConfig.builder()
+            .enableTestExecutionListenerAutoRegistration(false)
+            .enablePostDiscoveryFilterAutoRegistration(false)
+            .build());
+    }
+
+    /**
+     * Run one test method on the current thread
+     *
+     * @param testClass the test class
+     * @param methodName the test method
+     * @param lane the lane the test runs in
+     * @return the failure, or null if the test passed
+     */
+    public static Throwable run(Class<?> testClass, String methodName, Lane lane) {
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+            .selectors(selectMethod(testClass, methodName))
+            .configurationParameter("junit.jupiter.execution.parallel.enabled", "false")
+            .build();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        Lane previous = currentLane.get();
+        currentLane.set(lane);
+        try {
+            nestedLauncher().execute(request, listener);
+        } finally {
+            currentLane.set(previous);
+        }
+        TestExecutionSummary summary = listener.getSummary();
+        if (!summary.getFailures().isEmpty()) {
+            return summary.getFailures().get(0).getException();
+        }
+        if (summary.getTestsSucceededCount() == 0) {
+            return new IllegalStateException(testClass.getSimpleName() + "." + methodName + " did not run");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.selenium.sharding;
+
+import com.example.selenium.config.TestConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * How long each test took in previous runs, used by the {@link ShardPlanner}.
+ *
+ * Durations of the current run are collected in memory and merged into
+ * test-durations.properties in the history directory when the JVM exits. Each stored value is
+ * an exponentially weighted average, so one slow run does not reshuffle every shard.
+ */
+public final class DurationHistory {
+
+    private static final Logger logger = Logger.getLogger(DurationHistory.class.getName());
+
+    public static final String FILE_NAME = "test-durations.properties";
+
+    // Weight of the latest run in the stored average
+    private static final double SMOOTHING = 0.5;
+
+    private static final ConcurrentMap<String, Sample> currentRun = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DurationHistory::write, "duration-history-writer"));
+    }
+
+    private DurationHistory() {
+    }
+
+    /**
+     * Record how long a test took, including its setup and teardown
+     *
+     * @param test the test name, e.g. "WikipediaTest.testWikipediaHomepage"
+     * @param nanos the duration in nanoseconds
+     */
+    public static void record(String test, long nanos) {
+        currentRun.computeIfAbsent(test, name -> new Sample()).add(nanos);
+    }
+
+    /**
+     * Load the stored durations
+     *
+     * @return average duration in milliseconds per test name
+     */
+    public static Map<String, Double> load() {
+        return load(file());
+    }
+
+    static Map<String, Double> load(Path file) {
+        Map<String, Double> durations = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warning("Could not read " + file + ": " + e.getMessage());
+            return durations;
+        }
+        for (String test : properties.stringPropertyNames()) {
+            try {
+                durations.put(test, Double.parseDouble(properties.getProperty(test)));
+            } catch (NumberFormatException e) {
+                logger.warning("Ignoring invalid duration for " + test + " in " + file);
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Merge the durations of this run into the history file
+     */
+    static void write() {
+        if (currentRun.isEmpty()) {
+            return;
+        }
+        Path file = file();
+        Map<String, Double> durations = load(file);
+        currentRun.forEach((test, sample) -> durations.merge(test, sample.averageMillis(),
+            (previous, latest) -> previous * (1 - SMOOTHING) + latest * SMOOTHING));
+
+        Properties properties = new Properties();
+        durations.forEach((test, millis) -> properties.setProperty(test, String.format("%.0f", millis)));
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "durations", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Average test duration in milliseconds");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Could not write " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Path file() {
+        return Paths.get(TestConfig.historyDir(), FILE_NAME);
+    }
+
+    private static final class Sample {
+        private long count;
+        private long totalNanos;
+
+        private synchronized void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+        }
+
+        private synchronized double averageMillis() {
+            return (double) totalNanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.selenium.sharding;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.reporting.RunReport;
+import com.example.selenium.rerun.FailedTestRerunTest;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Keeps only the tests of one shard, e.g. {@code -Dselenium.shard.total=4 -Dselenium.shard.index=2}
+ * on the third of four CI agents. Registered with the JUnit Platform through
+ * META-INF/services, so it applies to every test run without changes to the test classes.
+ *
+ * The plan is made from the {@link DurationHistory} rather than from the discovered tests: the
+ * {@link ShardPlanner} gives every JVM with the same history the same shards, whatever each of
+ * them happens to discover. Tests without history are spread by name. Tests of other shards are
+ * removed before execution rather than reported as skipped.
+ *
+ * {@link FailedTestRerunTest} stays on every shard, since it reruns the failures of the shard
+ * it runs on.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+
+    private static final Logger logger = Logger.getLogger(ShardFilter.class.getName());
+
+    private final LongAdder selectedPlanned = new LongAdder();
+    private final LongAdder selectedUnplanned = new LongAdder();
+    private Map<String, Integer> plannedShards;
+    private String planSummary;
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        int total = TestConfig.shardTotal();
+        if (total <= 1) {
+            return FilterResult.included("sharding disabled");
+        }
+        Optional<String> test = testName(descriptor);
+        if (!test.isPresent()) {
+            return FilterResult.included("not a test method");
+        }
+        if (runsOnEveryShard(descriptor)) {
+            return FilterResult.included("runs on every shard");
+        }
+
+        int index = TestConfig.shardIndex();
+        Integer planned = plannedShards(total, index).get(test.get());
+        int shard = planned != null ? planned : ShardPlanner.shardForUnplanned(test.get(), total);
+        if (shard != index) {
+            return FilterResult.excluded("planned for shard " + shard);
+        }
+        (planned != null ? selectedPlanned : selectedUnplanned).increment();
+        return FilterResult.included("planned for shard " + index);
+    }
+
+    private synchronized Map<String, Integer> plannedShards(int total, int index) {
+        if (plannedShards != null) {
+            return plannedShards;
+        }
+        if (index < 0 || index >= total) {
+            throw new IllegalArgumentException(TestConfig.SHARD_INDEX + " must be between 0 and " + (total - 1)
+                + ", was " + index);
+        }
+        Map<String, Double> durations = DurationHistory.load();
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(durations.keySet(), durations, total);
+        plannedShards = new HashMap<>();
+        for (ShardPlanner.Shard shard : shards) {
+            for (String test : shard.getTests()) {
+                plannedShards.put(test, shard.getIndex());
+            }
+        }
+
+        double totalMillis = shards.stream().mapToDouble(ShardPlanner.Shard::getEstimatedMillis).sum();
+        double slowestMillis = shards.stream().mapToDouble(ShardPlanner.Shard::getEstimatedMillis).max().orElse(0);
+        planSummary = String.format("shard %d of %d, estimated %.1f s%n"
+                + "ideal per shard: %.1f s, slowest shard: %.1f s (+%.1f%%) over %d tests with history",
+            index, total, shards.get(index).getEstimatedMillis() / 1000, totalMillis / total / 1000,
+            slowestMillis / 1000, totalMillis == 0 ? 0 : (slowestMillis / (totalMillis / total) - 1) * 100,
+            durations.size());
+        logger.info(planSummary);
+        RunReport.register("Sharding", () -> planSummary + String.format(
+            "%nselected: %d planned tests, %d tests without history (assigned by name)",
+            selectedPlanned.sum(), selectedUnplanned.sum()));
+        return plannedShards;
+    }
+
+    /**
+     * Whether a test belongs on every shard instead of one, like the rerun of failed tests
+     *
+     * @param descriptor a discovered test method
+     * @return true to keep the test on every shard
+     */
+    static boolean runsOnEveryShard(TestDescriptor descriptor) {
+        return descriptor.getSource()
+            .filter(source -> source instanceof MethodSource)
+            .map(source -> ((MethodSource) source).getClassName().equals(FailedTestRerunTest.class.getName()))
+            .orElse(false);
+    }
+
+    /**
+     * Name of a test method in the duration history
+     *
+     * @param descriptor a discovered test or container
+     * @return e.g. "WikipediaTest.testWikipediaHomepage", or empty for classes and engines
+     */
+    static Optional<String> testName(TestDescriptor descriptor) {
+        boolean leaf = descriptor.getType().isTest() || descriptor.getChildren().isEmpty();
+        if (!leaf || !descriptor.getSource().isPresent() || !(descriptor.getSource().get() instanceof MethodSource)) {
+            return Optional.empty();
+        }
+        MethodSource source = (MethodSource) descriptor.getSource().get();
+        String className = source.getClassName();
+        String simpleName = className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+        return Optional.of(simpleName + "." + source.getMethodName());
+    }
+}
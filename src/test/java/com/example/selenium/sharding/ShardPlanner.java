@@ -0,0 +1,118 @@
+package com.example.selenium.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Splits tests into shards of similar total duration using longest-processing-time-first:
+ * tests are taken from the longest to the shortest and each goes to the shard with the least
+ * work so far. The longest shard is guaranteed to be within 4/3 of the best possible split,
+ * and in practice is close to total / shards when no single test dominates.
+ *
+ * The plan only depends on the test names and the durations, so every JVM that plans the same
+ * suite with the same history picks the same shards.
+ */
+public final class ShardPlanner {
+
+    // Estimate for tests without history when there is no history at all
+    static final double DEFAULT_DURATION_MILLIS = 1000;
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * Plan the shards
+     *
+     * @param tests names of all tests in the suite
+     * @param durations known durations in milliseconds per test name
+     * @param shardCount number of shards
+     * @return the shards, indexed from 0
+     */
+    public static List<Shard> plan(Collection<String> tests, Map<String, Double> durations, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1, was " + shardCount);
+        }
+        double unknownEstimate = estimateForUnknown(durations);
+        List<String> sorted = new ArrayList<>(tests);
+        sorted.sort(Comparator.comparingDouble((String test) -> durations.getOrDefault(test, unknownEstimate))
+            .reversed()
+            .thenComparing(Comparator.naturalOrder()));
+
+        List<Shard> shards = new ArrayList<>();
+        PriorityQueue<Shard> byLoad = new PriorityQueue<>(
+            Comparator.comparingDouble(Shard::getEstimatedMillis).thenComparingInt(Shard::getIndex));
+        for (int i = 0; i < shardCount; i++) {
+            Shard shard = new Shard(i);
+            shards.add(shard);
+            byLoad.add(shard);
+        }
+        for (String test : sorted) {
+            Shard least = byLoad.poll();
+            least.add(test, durations.getOrDefault(test, unknownEstimate));
+            byLoad.add(least);
+        }
+        return shards;
+    }
+
+    /**
+     * Shard of a test that is not part of the plan, e.g. a test added since the durations were
+     * recorded. Depends on the name only, so every JVM agrees on it.
+     *
+     * @param test the test name
+     * @param shardCount number of shards
+     * @return the shard index
+     */
+    public static int shardForUnplanned(String test, int shardCount) {
+        return Math.floorMod(test.hashCode(), shardCount);
+    }
+
+    /**
+     * Estimate for tests that have no recorded duration: the median of the known ones
+     *
+     * @param durations known durations in milliseconds
+     * @return estimated duration in milliseconds
+     */
+    static double estimateForUnknown(Map<String, Double> durations) {
+        if (durations.isEmpty()) {
+            return DEFAULT_DURATION_MILLIS;
+        }
+        List<Double> values = new ArrayList<>(durations.values());
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    /**
+     * One shard of the plan
+     */
+    public static final class Shard {
+        private final int index;
+        private final List<String> tests = new ArrayList<>();
+        private double estimatedMillis;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        private void add(String test, double millis) {
+            tests.add(test);
+            estimatedMillis += millis;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public List<String> getTests() {
+            return Collections.unmodifiableList(tests);
+        }
+
+        public double getEstimatedMillis() {
+            return estimatedMillis;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.selenium.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Tests for the longest-processing-time-first shard planning. These run without a browser.
+ */
+public class ShardPlannerTest {
+
+    /**
+     * Tests that every test is planned exactly once and the slowest shard stays close to total / shards
+     */
+    @Test
+    public void testShardsAreBalanced() {
+        Random random = new Random(42);
+        Map<String, Double> durations = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            durations.put("SuiteTest.test" + i, 500 + random.nextDouble() * 9500);
+        }
+
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(durations.keySet(), durations, 4);
+
+        Set<String> planned = new HashSet<>();
+        double total = 0;
+        double slowest = 0;
+        for (ShardPlanner.Shard shard : shards) {
+            planned.addAll(shard.getTests());
+            total += shard.getEstimatedMillis();
+            slowest = Math.max(slowest, shard.getEstimatedMillis());
+        }
+        assertEquals(durations.keySet(), planned);
+        assertTrue(slowest <= total / 4 * 1.02, "slowest shard " + slowest + " vs ideal " + total / 4);
+    }
+
+    /**
+     * Tests that the plan does not depend on the order in which tests were discovered
+     */
+    @Test
+    public void testPlanIsDeterministic() {
+        Map<String, Double> durations = new HashMap<>();
+        durations.put("A.one", 100.0);
+        durations.put("A.two", 100.0);
+        durations.put("B.three", 300.0);
+        List<String> tests = new ArrayList<>(List.of("A.one", "A.two", "B.three", "C.unknown"));
+        List<String> reversed = new ArrayList<>(tests);
+        Collections.reverse(reversed);
+
+        List<ShardPlanner.Shard> first = ShardPlanner.plan(tests, durations, 2);
+        List<ShardPlanner.Shard> second = ShardPlanner.plan(reversed, durations, 2);
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(first.get(i).getTests(), second.get(i).getTests());
+        }
+    }
+
+    /**
+     * Tests that tests without history are estimated with the median of the known durations
+     */
+    @Test
+    public void testUnknownTestsUseMedianEstimate() {
+        Map<String, Double> durations = new HashMap<>();
+        durations.put("A.fast", 100.0);
+        durations.put("A.medium", 2000.0);
+        durations.put("A.slow", 9000.0);
+
+        assertEquals(2000.0, ShardPlanner.estimateForUnknown(durations), 0.001);
+        assertEquals(ShardPlanner.DEFAULT_DURATION_MILLIS, ShardPlanner.estimateForUnknown(new HashMap<>()), 0.001);
+    }
+}
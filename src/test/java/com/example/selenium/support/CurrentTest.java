@@ -0,0 +1,40 @@
+package com.example.selenium.support;
+
+/**
+ * Name of the test running on the current thread, used to attribute metrics to tests
+ */
+public final class CurrentTest {
+
+    private static final String NO_TEST = "(no test)";
+
+    private static final ThreadLocal<String> name = new ThreadLocal<>();
+
+    private CurrentTest() {
+    }
+
+    /**
+     * Set the name of the test starting on the current thread
+     *
+     * @param testName e.g. "WikipediaTest.testChangeLanguageToSpanish"
+     */
+    public static void set(String testName) {
+        name.set(testName);
+    }
+
+    /**
+     * Clear the name once the test has finished
+     */
+    public static void clear() {
+        name.remove();
+    }
+
+    /**
+     * Get the name of the test running on the current thread
+     *
+     * @return the test name, or "(no test)" outside of a test
+     */
+    public static String get() {
+        String testName = name.get();
+        return testName == null ? NO_TEST : testName;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.selenium.support;
+
+import com.example.selenium.config.TestConfig;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Information about the machine the tests run on, used to decide how many browsers it can hold
+ */
+public final class HostResources {
+
+    private static final Logger logger = Logger.getLogger(HostResources.class.getName());
+
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    private HostResources() {
+    }
+
+    /**
+     * Number of processors available to the JVM
+     *
+     * @return the processor count
+     */
+    public static int availableProcessors() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Memory that can be given to new processes without swapping. On Linux this is
+     * MemAvailable from /proc/meminfo (which counts reclaimable page cache), elsewhere
+     * the free physical memory reported by the JVM.
+     *
+     * @return available memory in bytes
+     */
+    @SuppressWarnings("deprecation")
+    public static long availableMemoryBytes() {
+        if (Files.isReadable(MEMINFO)) {
+            try {
+                List<String> lines = Files.readAllLines(MEMINFO);
+                for (String line : lines) {
+                    if (line.startsWith("MemAvailable:")) {
+                        // Format: "MemAvailable:   12345678 kB"
+                        String kilobytes = line.substring("MemAvailable:".length()).replace("kB", "").trim();
+                        return Long.parseLong(kilobytes) * 1024L;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.fine("Could not read " + MEMINFO + ": " + e.getMessage());
+            }
+        }
+        return operatingSystem().getFreePhysicalMemorySize();
+    }
+
+    /**
+     * Recent CPU load of the whole machine
+     *
+     * @return load between 0 and 1, or a negative value if it is not available
+     */
+    @SuppressWarnings("deprecation")
+    public static double systemCpuLoad() {
+        return operatingSystem().getSystemCpuLoad();
+    }
+
+    /**
+     * Number of browsers this machine can run at the same time: one per available core,
+     * limited by how many browsers fit into the available memory. The estimated memory per
+     * browser and an optional hard cap can be configured.
+     *
+     * @return the number of concurrent browsers, at least 1
+     */
+    public static int browserCapacity() {
+        long memoryPerBrowser = TestConfig.browserMemoryMb() * MEGABYTE;
+        long byMemory = availableMemoryBytes() / memoryPerBrowser;
+        int capacity = (int) Math.max(1, Math.min(availableProcessors(), byMemory));
+        int configuredMax = TestConfig.parallelMax();
+        if (configuredMax > 0) {
+            capacity = Math.min(capacity, configuredMax);
+        }
+        return capacity;
+    }
+
+    private static com.sun.management.OperatingSystemMXBean operatingSystem() {
+        return (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.selenium.support;
+
+import org.openqa.selenium.By;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts Selenium locators into a form that can be passed to scripts running in the browser
+ */
+public final class Locators {
+
+    private Locators() {
+    }
+
+    /**
+     * Convert a locator into its {using, value} pair, as understood by dom-common.js
+     *
+     * @param locator a standard Selenium locator
+     * @return map with the locator strategy and value
+     */
+    public static Map<String, Object> toScriptArgument(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the browser: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        Map<String, Object> argument = new HashMap<>();
+        argument.put("using", parameters.using());
+        argument.put("value", parameters.value());
+        return argument;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.selenium.support;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads process information from /proc on Linux, e.g. to measure the memory of a browser
+ * and all the renderer, GPU and utility processes it started. All methods return -1 or an
+ * empty result where /proc is not available or a process has exited.
+ */
+public final class ProcessTree {
+
+    private static final Path PROC = Paths.get("/proc");
+
+    private ProcessTree() {
+    }
+
+    /**
+     * Whether process information can be read on this machine
+     *
+     * @return true on Linux with /proc mounted
+     */
+    public static boolean isSupported() {
+        return Files.isDirectory(PROC.resolve("self"));
+    }
+
+    /**
+     * Find the process whose command line contains an argument, skipping processes that
+     * also contain the exclusion. Used to find a Chrome browser process by its user data dir
+     * while skipping the renderers, which carry the same argument and a --type=.
+     *
+     * @param argument the command line argument to look for
+     * @param excludedPrefix processes with an argument starting with this are skipped, or null
+     * @return the pid, or -1 if no such process runs
+     */
+    public static long findByArgument(String argument, String excludedPrefix) {
+        for (long pid : pids()) {
+            List<String> arguments = commandLine(pid);
+            if (arguments.contains(argument)
+                    && (excludedPrefix == null || arguments.stream().noneMatch(a -> a.startsWith(excludedPrefix)))) {
+                return pid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Resident set size of a process and all of its descendants
+     *
+     * @param rootPid the pid of the root process
+     * @return total RSS in bytes, or -1 if the root process does not exist
+     */
+    public static long treeRssBytes(long rootPid) {
+        long rootRss = rssBytes(rootPid);
+        if (rootRss < 0) {
+            return -1;
+        }
+        Map<Long, List<Long>> children = childrenByParent();
+        long total = 0;
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.add(rootPid);
+        while (!pending.isEmpty()) {
+            long pid = pending.poll();
+            total += Math.max(0, pid == rootPid ? rootRss : rssBytes(pid));
+            pending.addAll(children.getOrDefault(pid, Collections.emptyList()));
+        }
+        return total;
+    }
+
+    /**
+     * Resident set size of a single process, from VmRSS in /proc/[pid]/status
+     *
+     * @param pid the process id
+     * @return RSS in bytes, or -1 if the process does not exist
+     */
+    static long rssBytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(Long.toString(pid)).resolve("status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    // Format: "VmRSS:     123456 kB"
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim()) * 1024L;
+                }
+            }
+            return 0; // kernel threads and zombies have no VmRSS
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static List<String> commandLine(long pid) {
+        List<String> arguments = new ArrayList<>();
+        try {
+            byte[] raw = Files.readAllBytes(PROC.resolve(Long.toString(pid)).resolve("cmdline"));
+            int start = 0;
+            for (int i = 0; i < raw.length; i++) {
+                if (raw[i] == 0) {
+                    arguments.add(new String(raw, start, i - start, StandardCharsets.UTF_8));
+                    start = i + 1;
+                }
+            }
+        } catch (IOException e) {
+            // The process exited while scanning
+        }
+        return arguments;
+    }
+
+    /**
+     * Parent-to-children map of all running processes, from /proc/[pid]/stat
+     *
+     * @return child pids per parent pid
+     */
+    private static Map<Long, List<Long>> childrenByParent() {
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (long pid : pids()) {
+            try {
+                String stat = new String(Files.readAllBytes(PROC.resolve(Long.toString(pid)).resolve("stat")),
+                    StandardCharsets.UTF_8);
+                // Format: "pid (comm) state ppid ..."; comm may contain spaces and parentheses
+                String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+                children.computeIfAbsent(Long.parseLong(fields[1]), parent -> new ArrayList<>()).add(pid);
+            } catch (IOException | RuntimeException e) {
+                // The process exited while scanning
+            }
+        }
+        return children;
+    }
+
+    private static List<Long> pids() {
+        List<Long> pids = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(PROC)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (!name.isEmpty() && name.chars().allMatch(Character::isDigit)) {
+                    pids.add(Long.parseLong(name));
+                }
+            }
+        } catch (IOException e) {
+            // Not Linux
+        }
+        return pids;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.selenium.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads the JavaScript snippets in src/test/resources/scripts that are executed in the browser
+ */
+public final class Scripts {
+
+    private static final String SCRIPTS_DIR = "/scripts/";
+
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private Scripts() {
+    }
+
+    /**
+     * Load one or more scripts and join them into a single script body, e.g.
+     * {@code Scripts.get("dom-common.js", "inspect.js")} to make the shared helpers
+     * available to the inspect script.
+     *
+     * @param names file names inside the scripts directory
+     * @return the script source
+     */
+    public static String get(String... names) {
+        return cache.computeIfAbsent(String.join(",", names), key -> {
+            StringBuilder source = new StringBuilder();
+            for (String name : names) {
+                source.append(read(name)).append('\n');
+            }
+            return source.toString();
+        });
+    }
+
+    private static String read(String name) {
+        try (InputStream in = Scripts.class.getResourceAsStream(SCRIPTS_DIR + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Script not found: " + SCRIPTS_DIR + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read script " + name, e);
+        }
+    }
+}
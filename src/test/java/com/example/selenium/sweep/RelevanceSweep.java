@@ -0,0 +1,238 @@
+package com.example.selenium.sweep;
+
+import com.example.selenium.driver.Browser;
+import com.example.selenium.driver.DriverPool;
+import com.example.selenium.driver.DriverSession;
+import com.example.selenium.pages.RelevanceResult;
+import com.example.selenium.pages.WikipediaHomePage;
+import com.example.selenium.reporting.RunReport;
+import com.example.selenium.support.CurrentTest;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Checks typeahead relevance for every term of a corpus file.
+ *
+ * Each worker checks out one session, loads the homepage once and then only clears and
+ * retypes the search box for every term it takes from the shared corpus reader. Terms are
+ * read and results written one line at a time, so the corpus can be arbitrarily large.
+ */
+public class RelevanceSweep {
+
+    private static final Logger logger = Logger.getLogger(RelevanceSweep.class.getName());
+
+    private static final int WAIT_SECONDS = 10;
+
+    private final Path corpus;
+    private final int sessions;
+    private final Path output;
+    private final Duration termTimeout;
+    private final Browser browser;
+
+    private BufferedReader termReader;
+
+    /**
+     * Constructor for RelevanceSweep
+     *
+     * @param corpus file with one search term per line; blank lines and lines starting with # are skipped
+     * @param sessions number of browser sessions to use
+     * @param output file the results are streamed to
+     * @param termTimeout how long to wait for the suggestions of one term
+     * @param browser the browser to run
+     */
+    public RelevanceSweep(Path corpus, int sessions, Path output, Duration termTimeout, Browser browser) {
+        this.corpus = corpus;
+        this.sessions = sessions;
+        this.output = output;
+        this.termTimeout = termTimeout;
+        this.browser = browser;
+    }
+
+    /**
+     * Run the sweep until the corpus is exhausted
+     *
+     * @return per-session statistics
+     * @throws IOException if the corpus cannot be read or the output written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public List<SessionStats> run() throws IOException, InterruptedException {
+        List<SessionStats> stats = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            stats.add(new SessionStats(i));
+        }
+        RunReport.register("Relevance sweep", () -> summary(stats));
+
+        ExecutorService workers = Executors.newFixedThreadPool(sessions);
+        try (BufferedReader reader = Files.newBufferedReader(corpus, StandardCharsets.UTF_8);
+             SweepResultWriter writer = new SweepResultWriter(output)) {
+            termReader = reader;
+            List<Future<?>> futures = new ArrayList<>();
+            for (SessionStats sessionStats : stats) {
+                futures.add(workers.submit(() -> work(sessionStats, writer)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.warning("Sweep worker stopped: " + e.getCause());
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        logger.info("Relevance sweep finished:\n" + summary(stats));
+        return stats;
+    }
+
+    private void work(SessionStats stats, SweepResultWriter writer) {
+        CurrentTest.set("RelevanceSweep.session-" + stats.index);
+        DriverPool pool = DriverPool.getInstance();
+        DriverSession session = pool.checkout(browser);
+        boolean sessionFailed = false;
+        long start = System.nanoTime();
+        try {
+            WikipediaHomePage page = openHomePage(session);
+            String term;
+            while ((term = nextTerm()) != null) {
+                long termStart = System.nanoTime();
+                try {
+                    boolean rendered = page.retypeSearchTerm(term, termTimeout);
+                    RelevanceResult result = rendered ? page.readRelevance(term) : new RelevanceResult(term, 0, 0);
+                    writer.write(result, term, stats.index, millisSince(termStart), null);
+                    stats.record(result);
+                } catch (WebDriverException e) {
+                    writer.write(null, term, stats.index, millisSince(termStart), firstLine(e.getMessage()));
+                    stats.errors++;
+                    // The page may be in any state now; start over from a freshly loaded homepage
+                    page = openHomePage(session);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            sessionFailed = true;
+            stats.stopped = true;
+            throw e;
+        } finally {
+            stats.elapsedNanos = System.nanoTime() - start;
+            pool.release(session, sessionFailed);
+            CurrentTest.clear();
+        }
+    }
+
+    private WikipediaHomePage openHomePage(DriverSession session) {
+        WikipediaHomePage page = new WikipediaHomePage(session.getDriver(),
+            new WebDriverWait(session.getDriver(), Duration.ofSeconds(WAIT_SECONDS)));
+        return page.goTo();
+    }
+
+    private synchronized String nextTerm() throws IOException {
+        String line;
+        while ((line = termReader.readLine()) != null) {
+            String term = line.trim();
+            if (!term.isEmpty() && !term.startsWith("#")) {
+                return term;
+            }
+        }
+        return null;
+    }
+
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e6;
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+
+    private String summary(List<SessionStats> stats) {
+        StringBuilder summary = new StringBuilder(String.format("%-8s %8s %8s %8s %8s %10s%n",
+            "session", "terms", "passed", "empty", "errors", "terms/s"));
+        long terms = 0;
+        double maxSeconds = 0;
+        for (SessionStats session : stats) {
+            double seconds = session.elapsedNanos / 1e9;
+            maxSeconds = Math.max(maxSeconds, seconds);
+            terms += session.terms;
+            summary.append(String.format("%-8s %8d %8d %8d %8d %10.2f%n", session.index + (session.stopped ? "*" : ""),
+                session.terms, session.passed, session.empty, session.errors,
+                seconds == 0 ? 0 : session.terms / seconds));
+        }
+        summary.append(String.format("total: %d terms, %.2f terms/s, results in %s", terms,
+            maxSeconds == 0 ? 0 : terms / maxSeconds, output));
+        return summary.toString();
+    }
+
+    /**
+     * Progress of one sweep session. Only its worker thread writes to it.
+     */
+    public static final class SessionStats {
+        private final int index;
+        private volatile long terms;
+        private volatile long passed;
+        private volatile long empty;
+        private volatile long errors;
+        private volatile long elapsedNanos;
+        private volatile boolean stopped;
+
+        private SessionStats(int index) {
+            this.index = index;
+        }
+
+        private void record(RelevanceResult result) {
+            terms++;
+            if (result.getSuggestionCount() == 0) {
+                empty++;
+            } else if (result.isRelevant()) {
+                passed++;
+            }
+        }
+
+        public long getTerms() {
+            return terms;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Whether the session stopped before the corpus was exhausted
+         *
+         * @return true if the worker died
+         */
+        public boolean isStopped() {
+            return stopped;
+        }
+
+        /**
+         * Throughput of this session
+         *
+         * @return terms per second
+         */
+        public double getTermsPerSecond() {
+            return elapsedNanos == 0 ? 0 : terms / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
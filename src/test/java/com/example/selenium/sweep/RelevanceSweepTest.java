@@ -0,0 +1,43 @@
+package com.example.selenium.sweep;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.selenium.config.TestConfig;
+import com.example.selenium.driver.Browser;
+import com.example.selenium.driver.DriverPool;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Runs the typeahead relevance sweep over a corpus file, e.g.
+ * {@code mvn test -Dtest=RelevanceSweepTest -Dselenium.sweep.corpus=src/test/resources/sweep/terms-sample.txt}.
+ */
+@EnabledIfSystemProperty(named = TestConfig.SWEEP_CORPUS, matches = ".+")
+public class RelevanceSweepTest {
+
+    /**
+     * Sweeps every term of the corpus and checks that all sessions got through it
+     */
+    @Test
+    public void sweepCorpus() throws Exception {
+        int sessions = TestConfig.sweepSessions() > 0 ? TestConfig.sweepSessions() : DriverPool.getInstance().getMaxSize();
+        RelevanceSweep sweep = new RelevanceSweep(Paths.get(TestConfig.sweepCorpus()), sessions,
+            Paths.get(TestConfig.sweepOutput()), Duration.ofMillis(TestConfig.sweepTermTimeoutMillis()),
+            Browser.fromName(TestConfig.browser()));
+
+        List<RelevanceSweep.SessionStats> stats = sweep.run();
+
+        long terms = 0;
+        for (RelevanceSweep.SessionStats session : stats) {
+            assertFalse(session.isStopped(), "A sweep session stopped before the corpus was exhausted");
+            terms += session.getTerms();
+        }
+        assertTrue(terms > 0, "The corpus should contain at least one term");
+    }
+}
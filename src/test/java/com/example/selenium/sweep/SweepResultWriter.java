@@ -0,0 +1,115 @@
+package com.example.selenium.sweep;
+
+import com.example.selenium.pages.RelevanceResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Streams relevance sweep results to a file as they arrive, one line per term, so a sweep
+ * over a large corpus never holds its results in memory. Writes CSV when the file name
+ * ends in ".csv" and JSON lines otherwise. Safe to use from several worker threads.
+ */
+public class SweepResultWriter implements Closeable {
+
+    // Flush regularly so a long sweep can be followed (and survives a crash)
+    private static final int FLUSH_EVERY_LINES = 100;
+
+    private final BufferedWriter writer;
+    private final boolean csv;
+    private int unflushedLines;
+
+    /**
+     * Constructor for SweepResultWriter
+     *
+     * @param file the file to write, replaced if it exists
+     * @throws IOException if the file cannot be created
+     */
+    public SweepResultWriter(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.csv = file.getFileName().toString().toLowerCase().endsWith(".csv");
+        if (csv) {
+            writer.write("term,session,suggestions,relevant,relevance,passed,millis,error\n");
+        }
+    }
+
+    /**
+     * Write the result of one term
+     *
+     * @param result the relevance result, or null if the term failed
+     * @param term the search term
+     * @param session index of the session that typed the term
+     * @param millis time spent on the term
+     * @param error error message if the term failed, otherwise null
+     * @throws IOException if writing fails
+     */
+    public synchronized void write(RelevanceResult result, String term, int session, double millis, String error)
+            throws IOException {
+        int suggestions = result == null ? 0 : result.getSuggestionCount();
+        int relevant = result == null ? 0 : result.getRelevantCount();
+        double relevance = result == null ? 0 : result.getRelevance();
+        boolean passed = result != null && result.isRelevant();
+        if (csv) {
+            writer.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%.3f,%b,%.1f,%s%n", csvField(term), session,
+                suggestions, relevant, relevance, passed, millis, error == null ? "" : csvField(error)));
+        } else {
+            writer.write(String.format(Locale.ROOT, "{\"term\":%s,\"session\":%d,\"suggestions\":%d,\"relevant\":%d,"
+                    + "\"relevance\":%.3f,\"passed\":%b,\"millis\":%.1f,\"error\":%s}%n", jsonString(term), session,
+                suggestions, relevant, relevance, passed, millis, error == null ? "null" : jsonString(error)));
+        }
+        if (++unflushedLines >= FLUSH_EVERY_LINES) {
+            writer.flush();
+            unflushedLines = 0;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static String jsonString(String value) {
+        StringBuilder json = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.selenium.waits;
+
+import org.openqa.selenium.By;
+
+import java.util.function.Function;
+
+/**
+ * A condition that {@link DomWait} evaluates inside the browser. Create instances through
+ * {@link DomConditions}, in the same way as Selenium's ExpectedConditions.
+ *
+ * @param <T> type of the value returned once the condition holds
+ */
+public class DomCondition<T> {
+
+    private final String type;
+    private final By locator;
+    private final String description;
+    private final Function<Object, T> resultMapper;
+
+    /**
+     * Constructor for DomCondition
+     *
+     * @param type condition name understood by await-condition.js
+     * @param locator locator of the element the condition is about
+     * @param description description used in timeout messages
+     * @param resultMapper converts the script result into the returned value
+     */
+    DomCondition(String type, By locator, String description, Function<Object, T> resultMapper) {
+        this.type = type;
+        this.locator = locator;
+        this.description = description;
+        this.resultMapper = resultMapper;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    By getLocator() {
+        return locator;
+    }
+
+    T map(Object scriptResult) {
+        return resultMapper.apply(scriptResult);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.selenium.waits;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Factory methods for {@link DomCondition}s, mirroring the ExpectedConditions API
+ */
+public final class DomConditions {
+
+    private DomConditions() {
+    }
+
+    /**
+     * An element is present in the DOM
+     *
+     * @param locator used to find the element
+     * @return condition returning the element once it is present
+     */
+    public static DomCondition<WebElement> presenceOfElementLocated(By locator) {
+        return new DomCondition<>("presence", locator, "presence of element located by: " + locator,
+            result -> (WebElement) result);
+    }
+
+    /**
+     * An element is present in the DOM and visible
+     *
+     * @param locator used to find the element
+     * @return condition returning the element once it is visible
+     */
+    public static DomCondition<WebElement> visibilityOfElementLocated(By locator) {
+        return new DomCondition<>("visibility", locator, "visibility of element located by " + locator,
+            result -> (WebElement) result);
+    }
+
+    /**
+     * An element is visible and enabled, so it can be clicked
+     *
+     * @param locator used to find the element
+     * @return condition returning the element once it is clickable
+     */
+    public static DomCondition<WebElement> elementToBeClickable(By locator) {
+        return new DomCondition<>("clickable", locator, "element to be clickable: " + locator,
+            result -> (WebElement) result);
+    }
+
+    /**
+     * An element is either absent or not visible
+     *
+     * @param locator used to find the element
+     * @return condition returning true once the element is invisible
+     */
+    public static DomCondition<Boolean> invisibilityOfElementLocated(By locator) {
+        return new DomCondition<>("invisibility", locator, "element to no longer be visible: " + locator,
+            result -> Boolean.TRUE);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.selenium.waits;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import com.example.selenium.support.Locators;
+import com.example.selenium.support.Scripts;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-driven alternative to WebDriverWait.
+ *
+ * WebDriverWait polls: every check is a round trip and the condition is noticed up to one
+ * polling interval after it became true. DomWait instead sends a single async script that
+ * watches the page with a MutationObserver and returns as soon as the condition holds.
+ */
+public class DomWait {
+
+    private final WebDriver driver;
+    private final Duration timeout;
+
+    /**
+     * Constructor for DomWait
+     *
+     * @param driver WebDriver instance
+     * @param timeout how long to wait before giving up
+     */
+    public DomWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Wait until the condition holds
+     *
+     * @param condition the condition to wait for
+     * @param <T> type of the value returned by the condition
+     * @return the value of the condition, e.g. the element that became visible
+     * @throws TimeoutException if the condition does not hold within the timeout
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T until(DomCondition<T> condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        String script = Scripts.get("dom-common.js", "await-condition.js");
+        RuntimeException lastError = null;
+
+        while (true) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw timeout(condition, lastError);
+            }
+            Map<String, Object> result;
+            try {
+                result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(script,
+                    condition.getType(), Locators.toScriptArgument(condition.getLocator()), remainingMillis);
+            } catch (ScriptTimeoutException e) {
+                // The session's script timeout is shorter than this wait
+                throw timeout(condition, e);
+            } catch (JavascriptException e) {
+                // The page navigated while waiting; observe the new document
+                lastError = e;
+                continue;
+            }
+
+            if (result.containsKey("error")) {
+                throw new IllegalArgumentException("Cannot evaluate " + condition + ": " + result.get("error"));
+            }
+            if (!Boolean.TRUE.equals(result.get("satisfied"))) {
+                throw timeout(condition, null);
+            }
+            double inPageMillis = ((Number) result.get("elapsedMs")).doubleValue();
+            WaitMetrics.record(System.nanoTime() - start, inPageMillis);
+            return condition.map(result.get("value"));
+        }
+    }
+
+    private TimeoutException timeout(DomCondition<?> condition, Throwable cause) {
+        return new TimeoutException("Expected condition failed: waiting for " + condition
+            + " (tried for " + timeout.getSeconds() + " second(s) with a DOM observer)", cause);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.selenium.waits;
+
+import com.example.selenium.reporting.RunReport;
+import com.example.selenium.support.CurrentTest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estimates the time and round trips {@link DomWait} saves per test compared with a
+ * polling WebDriverWait.
+ *
+ * A polling wait checks immediately and then every polling interval, so it notices a
+ * condition that became true after t ms at the next multiple of the interval, and each
+ * check is a findElement plus a state query. DomWait notices it at t.
+ */
+public final class WaitMetrics {
+
+    // WebDriverWait's default polling interval
+    static final long POLLING_INTERVAL_MILLIS = 500;
+
+    // A polling visibility check is a findElement plus an isDisplayed call
+    private static final int ROUND_TRIPS_PER_POLL = 2;
+
+    private static final ConcurrentMap<String, TestWaits> waitsByTest = new ConcurrentHashMap<>();
+
+    static {
+        RunReport.register("Event-driven waits", WaitMetrics::summary);
+    }
+
+    private WaitMetrics() {
+    }
+
+    /**
+     * Record a finished wait for the current test
+     *
+     * @param actualNanos time the wait took on the Java side
+     * @param inPageMillis time until the condition held, measured in the page
+     */
+    static void record(long actualNanos, double inPageMillis) {
+        long polls = (long) Math.ceil(inPageMillis / POLLING_INTERVAL_MILLIS);
+        double pollingMillis = polls * POLLING_INTERVAL_MILLIS;
+        TestWaits waits = waitsByTest.computeIfAbsent(CurrentTest.get(), name -> new TestWaits());
+        waits.count.increment();
+        waits.actualMicros.add(actualNanos / 1000);
+        waits.savedMicros.add((long) ((pollingMillis - inPageMillis) * 1000));
+        waits.roundTripsSaved.add(Math.max(0, (polls + 1) * ROUND_TRIPS_PER_POLL - 1));
+    }
+
+    static String summary() {
+        if (waitsByTest.isEmpty()) {
+            return "no event-driven waits recorded";
+        }
+        StringBuilder summary = new StringBuilder(String.format("%-55s %6s %12s %16s %18s%n",
+            "test", "waits", "waited ms", "est. saved ms", "round trips saved"));
+        double totalSaved = 0;
+        Map<String, TestWaits> sorted = new TreeMap<>(waitsByTest);
+        for (Map.Entry<String, TestWaits> entry : sorted.entrySet()) {
+            TestWaits waits = entry.getValue();
+            double savedMillis = waits.savedMicros.sum() / 1000.0;
+            totalSaved += savedMillis;
+            summary.append(String.format("%-55s %6d %12.1f %16.1f %18d%n", entry.getKey(), waits.count.sum(),
+                waits.actualMicros.sum() / 1000.0, savedMillis, waits.roundTripsSaved.sum()));
+        }
+        summary.append(String.format("estimated total saved: %.1f ms (vs. %d ms polling)",
+            totalSaved, POLLING_INTERVAL_MILLIS));
+        return summary.toString();
+    }
+
+    private static final class TestWaits {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder actualMicros = new LongAdder();
+        private final LongAdder savedMicros = new LongAdder();
+        private final LongAdder roundTripsSaved = new LongAdder();
+    }
+}
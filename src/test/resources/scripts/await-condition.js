@@ -0,0 +1,70 @@
+// Async script: waits inside the page until a condition on an element holds.
+// arguments[0]: condition ('presence', 'visibility', 'clickable' or 'invisibility')
+// arguments[1]: locator
+// arguments[2]: timeout in milliseconds
+// The condition is checked immediately, on every DOM mutation, and every 50 ms for changes
+// that are not DOM mutations (stylesheets loading, layout). None of this costs a round trip.
+var condition = arguments[0];
+var locator = arguments[1];
+var timeout = arguments[2];
+var done = arguments[arguments.length - 1];
+var start = performance.now();
+var finished = false;
+var mutations = 0;
+var observer = null;
+var interval = null;
+var timer = null;
+
+function evaluate() {
+    var element = locateFirst(document, locator);
+    switch (condition) {
+        case 'presence':
+            return element;
+        case 'visibility':
+            return element && isDisplayed(element) ? element : null;
+        case 'clickable':
+            return element && isDisplayed(element) && !element.disabled ? element : null;
+        case 'invisibility':
+            return !element || !isDisplayed(element) ? true : null;
+        default:
+            throw new Error('Unknown condition: ' + condition);
+    }
+}
+
+function finish(result) {
+    if (finished) {
+        return;
+    }
+    finished = true;
+    if (observer) {
+        observer.disconnect();
+    }
+    clearInterval(interval);
+    clearTimeout(timer);
+    done(result);
+}
+
+function check() {
+    try {
+        var value = evaluate();
+        if (value) {
+            finish({ satisfied: true, value: value === true ? null : value,
+                     elapsedMs: performance.now() - start, mutations: mutations });
+        }
+    } catch (e) {
+        finish({ error: String(e) });
+    }
+}
+
+check();
+if (!finished) {
+    observer = new MutationObserver(function () {
+        mutations++;
+        check();
+    });
+    observer.observe(document.documentElement, { childList: true, subtree: true, attributes: true, characterData: true });
+    interval = setInterval(check, 50);
+    timer = setTimeout(function () {
+        finish({ satisfied: false, elapsedMs: performance.now() - start, mutations: mutations });
+    }, timeout);
+}
@@ -0,0 +1,51 @@
+// Shared helpers for the scripts run by the page object layer.
+// A locator is the {using, value} pair of a Selenium By (see Locators.java).
+
+function locateAll(root, locator) {
+    var using = locator.using;
+    var value = locator.value;
+    switch (using) {
+        case 'css selector':
+            return Array.prototype.slice.call(root.querySelectorAll(value));
+        case 'id':
+            return Array.prototype.slice.call(root.querySelectorAll('#' + CSS.escape(value)));
+        case 'class name':
+            return Array.prototype.slice.call(root.querySelectorAll('.' + CSS.escape(value)));
+        case 'name':
+            return Array.prototype.slice.call(root.querySelectorAll('[name="' + CSS.escape(value) + '"]'));
+        case 'tag name':
+            return Array.prototype.slice.call(root.getElementsByTagName(value));
+        case 'link text':
+        case 'partial link text':
+            return Array.prototype.slice.call(root.querySelectorAll('a')).filter(function (link) {
+                var text = textOf(link);
+                return using === 'link text' ? text === value : text.indexOf(value) !== -1;
+            });
+        case 'xpath':
+            var snapshot = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+            var nodes = [];
+            for (var i = 0; i < snapshot.snapshotLength; i++) {
+                nodes.push(snapshot.snapshotItem(i));
+            }
+            return nodes;
+        default:
+            throw new Error('Unsupported locator strategy: ' + using);
+    }
+}
+
+function locateFirst(root, locator) {
+    var all = locateAll(root, locator);
+    return all.length > 0 ? all[0] : null;
+}
+
+function isDisplayed(element) {
+    if (typeof element.checkVisibility === 'function') {
+        return element.checkVisibility({ visibilityProperty: true, opacityProperty: true });
+    }
+    var style = window.getComputedStyle(element);
+    return style.display !== 'none' && style.visibility !== 'hidden' && element.getClientRects().length > 0;
+}
+
+function textOf(element) {
+    return (element.innerText || element.textContent || '').trim();
+}
@@ -0,0 +1,19 @@
+// WebDriver BiDi preload script: reports DOM mutations of every new document over a channel,
+// so cached element handles can be dropped without asking the page on every lookup.
+// Observation starts once the DOM content has loaded; until then the navigation events
+// already mark the document as changing. The observer batches the mutations of a task,
+// so one message covers e.g. a whole re-render of the suggestions dropdown.
+// channel: the BiDi channel function
+(channel) => {
+    var observer = new MutationObserver(function () {
+        channel('mutated');
+    });
+    var start = function () {
+        observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });
+    };
+    if (document.readyState === 'loading') {
+        document.addEventListener('DOMContentLoaded', start, { once: true });
+    } else {
+        start();
+    }
+}
@@ -0,0 +1,13 @@
+// arguments[0]: locator of the repeated items
+// arguments[1]: map of field name -> locator, resolved relative to each item
+// Returns one {field: text} map per item; fields that are not found are null.
+var items = locateAll(document, arguments[0]);
+var fields = arguments[1];
+return items.map(function (item) {
+    var row = {};
+    Object.keys(fields).forEach(function (name) {
+        var element = locateFirst(item, fields[name]);
+        row[name] = element ? textOf(element) : null;
+    });
+    return row;
+});
@@ -0,0 +1,9 @@
+// arguments[0]: list of locators
+// Returns the state of the first element matching each locator.
+return arguments[0].map(function (locator) {
+    var element = locateFirst(document, locator);
+    if (!element) {
+        return { present: false, displayed: false, text: null };
+    }
+    return { present: true, displayed: isDisplayed(element), text: textOf(element) };
+});
@@ -0,0 +1,69 @@
+// Async script: Navigation Timing, Resource Timing, paint and largest contentful paint of
+// the current document. All times are milliseconds since navigation start; -1 means the
+// browser has not reported the value (yet).
+// arguments[0]: whether to wait for the load event before collecting
+// arguments[1]: maximum time to wait for the load event in milliseconds
+var waitForLoad = arguments[0];
+var maxWaitMs = arguments[1];
+var done = arguments[arguments.length - 1];
+var start = performance.now();
+
+function navigationEntry() {
+    return performance.getEntriesByType('navigation')[0];
+}
+
+function largestContentfulPaint() {
+    if (!window.PerformanceObserver || !PerformanceObserver.supportedEntryTypes
+            || PerformanceObserver.supportedEntryTypes.indexOf('largest-contentful-paint') < 0) {
+        return -1;
+    }
+    // Buffered entries are in the observer's queue right after observe()
+    var observer = new PerformanceObserver(function () {});
+    observer.observe({ type: 'largest-contentful-paint', buffered: true });
+    var entries = observer.takeRecords();
+    observer.disconnect();
+    return entries.length ? entries[entries.length - 1].startTime : -1;
+}
+
+function collect() {
+    var navigation = navigationEntry();
+    var resources = performance.getEntriesByType('resource');
+    var resourceBytes = 0;
+    var slowestResource = 0;
+    for (var i = 0; i < resources.length; i++) {
+        resourceBytes += resources[i].transferSize || 0;
+        slowestResource = Math.max(slowestResource, resources[i].duration);
+    }
+    var paints = {};
+    performance.getEntriesByType('paint').forEach(function (paint) {
+        paints[paint.name] = paint.startTime;
+    });
+    done({
+        ttfb: navigation ? navigation.responseStart : -1,
+        domContentLoaded: navigation && navigation.domContentLoadedEventEnd > 0 ? navigation.domContentLoadedEventEnd : -1,
+        load: navigation && navigation.loadEventEnd > 0 ? navigation.loadEventEnd : -1,
+        documentBytes: navigation ? navigation.transferSize : 0,
+        resourceBytes: resourceBytes,
+        resourceCount: resources.length,
+        slowestResource: slowestResource,
+        firstPaint: 'first-paint' in paints ? paints['first-paint'] : -1,
+        firstContentfulPaint: 'first-contentful-paint' in paints ? paints['first-contentful-paint'] : -1,
+        largestContentfulPaint: largestContentfulPaint()
+    });
+}
+
+function loaded() {
+    var navigation = navigationEntry();
+    return navigation && navigation.loadEventEnd > 0;
+}
+
+if (!waitForLoad || loaded()) {
+    collect();
+} else {
+    var timer = setInterval(function () {
+        if (loaded() || performance.now() - start >= maxWaitMs) {
+            clearInterval(timer);
+            collect();
+        }
+    }, 25);
+}
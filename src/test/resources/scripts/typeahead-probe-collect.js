@@ -0,0 +1,25 @@
+// Async script: waits until the dropdown has settled after the last keystroke, then returns
+// and removes the samples of the typeahead probe.
+// arguments[0]: quiet period in milliseconds without renders that counts as settled
+// arguments[1]: maximum time to wait after the last keystroke in milliseconds
+var quietMs = arguments[0];
+var maxWaitMs = arguments[1];
+var done = arguments[arguments.length - 1];
+var probe = window.__typeaheadProbe;
+if (!probe) {
+    done({ error: 'typeahead probe is not installed' });
+} else {
+    var lastKey = probe.keys.length ? probe.keys[probe.keys.length - 1] : performance.now();
+    var timer = setInterval(function () {
+        var now = performance.now();
+        var lastRender = probe.renders.length ? probe.renders[probe.renders.length - 1] : -1;
+        var settled = lastRender >= lastKey && now - lastRender >= quietMs;
+        if (settled || now - lastKey >= maxWaitMs) {
+            clearInterval(timer);
+            probe.observer.disconnect();
+            probe.input.removeEventListener('keydown', probe.onKey, true);
+            window.__typeaheadProbe = null;
+            done({ keys: probe.keys, renders: probe.renders });
+        }
+    }, 20);
+}
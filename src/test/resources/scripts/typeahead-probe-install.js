@@ -0,0 +1,46 @@
+// Installs the typeahead latency probe: timestamps every keystroke in the search box and
+// every DOM mutation that touches the suggestions dropdown, all with performance.now().
+// arguments[0]: the search input element
+// arguments[1]: locator of the suggestions dropdown
+var input = arguments[0];
+var dropdown = arguments[1];
+var previous = window.__typeaheadProbe;
+if (previous && previous.observer) {
+    previous.observer.disconnect();
+    previous.input.removeEventListener('keydown', previous.onKey, true);
+}
+
+var probe = { input: input, keys: [], renders: [] };
+probe.onKey = function (event) {
+    probe.keys.push(performance.now());
+};
+
+function touchesDropdown(record, dropdowns) {
+    for (var i = 0; i < dropdowns.length; i++) {
+        var element = dropdowns[i];
+        if (element === record.target || element.contains(record.target)) {
+            return true;
+        }
+        for (var j = 0; j < record.addedNodes.length; j++) {
+            var added = record.addedNodes[j];
+            if (added === element || (added.contains && added.contains(element))) {
+                return true;
+            }
+        }
+    }
+    return false;
+}
+
+probe.observer = new MutationObserver(function (records) {
+    var now = performance.now();
+    var dropdowns = locateAll(document, dropdown);
+    for (var i = 0; i < records.length; i++) {
+        if (touchesDropdown(records[i], dropdowns)) {
+            probe.renders.push(now);
+            return;
+        }
+    }
+});
+probe.observer.observe(document.body, { childList: true, subtree: true, characterData: true });
+input.addEventListener('keydown', probe.onKey, true);
+window.__typeaheadProbe = probe;